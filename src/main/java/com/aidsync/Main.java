@@ -3,7 +3,11 @@ package com.aidsync;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 
+import com.aidsync.service.ActivityLogService;
+import com.aidsync.service.InventoryService;
+import com.aidsync.service.ReportService;
 import com.aidsync.ui.LoginFrame;
+import com.aidsync.util.ConnectionPool;
 import com.aidsync.util.DatabaseManager;
 
 /**
@@ -13,6 +17,16 @@ public class Main {
     public static void main(String[] args) {
         // Initialize database
         DatabaseManager.initialize();
+        InventoryService.startSnapshotSchedule();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            // Queued activity entries need the database, so write them before closing it
+            ActivityLogService.shutdown();
+            System.out.println("Report cache: " + ReportService.getCacheStats());
+            for (ConnectionPool.PoolStats stats : DatabaseManager.getPoolStats()) {
+                System.out.println("Connection pool " + stats);
+            }
+            DatabaseManager.close();
+        }));
         
         // Set look and feel
         try {
@@ -0,0 +1,185 @@
+package com.aidsync.dao;
+
+import com.aidsync.model.ActivityLog;
+import com.aidsync.util.DatabaseManager;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for the activity log
+ */
+public class ActivityLogDAO {
+    private static final String INSERT_SQL =
+        "INSERT INTO activity_log (username, action, details, timestamp) VALUES (?, ?, ?, ?)";
+    
+    /**
+     * Insert many activity entries with one JDBC batch inside the caller's transaction
+     */
+    public void insertBatch(Connection conn, List<ActivityLog> logs) throws SQLException {
+        if (logs.isEmpty()) {
+            return;
+        }
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+            for (ActivityLog log : logs) {
+                pstmt.setString(1, log.getUsername());
+                pstmt.setString(2, log.getAction());
+                pstmt.setString(3, log.getDetails());
+                pstmt.setTimestamp(4, Timestamp.valueOf(log.getTimestamp()));
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+    
+    /**
+     * Find activity newest first, optionally by user and time range (null = any).
+     * When after is given the page seeks past it on (timestamp, id); otherwise
+     * offset rows are skipped.
+     */
+    public List<ActivityLog> find(String username, LocalDateTime from, LocalDateTime to,
+                                  ActivityLog after, int offset, int limit) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT * FROM activity_log")
+            .append(buildWhereClause(username, from, to, params));
+        if (after != null) {
+            sql.append(params.isEmpty() ? " WHERE" : " AND").append(" (timestamp, id) < (?, ?)");
+            params.add(Timestamp.valueOf(after.getTimestamp()));
+            params.add(after.getId());
+        }
+        sql.append(" ORDER BY timestamp DESC, id DESC LIMIT ?");
+        params.add(limit);
+        if (after == null && offset > 0) {
+            sql.append(" OFFSET ?");
+            params.add(offset);
+        }
+        
+        List<ActivityLog> logs = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            
+            bind(pstmt, params);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                logs.add(mapResultSetToActivityLog(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting activity log: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return logs;
+    }
+    
+    /**
+     * Count activity entries, optionally by user and time range (null = any)
+     */
+    public int count(String username, LocalDateTime from, LocalDateTime to) {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT COUNT(*) FROM activity_log" + buildWhereClause(username, from, to, params);
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            bind(pstmt, params);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error counting activity log: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return 0;
+    }
+    
+    /**
+     * Get the usernames that appear in the activity log
+     */
+    public List<String> getUsernames() {
+        String sql = "SELECT DISTINCT username FROM activity_log WHERE username IS NOT NULL ORDER BY username";
+        List<String> usernames = new ArrayList<>();
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                usernames.add(rs.getString(1));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting activity log users: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return usernames;
+    }
+    
+    /**
+     * Delete every activity entry
+     */
+    public boolean deleteAll() {
+        String sql = "DELETE FROM activity_log";
+        
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error clearing activity log: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    /**
+     * WHERE clause for the optional filters, collecting its parameters.
+     * Timestamps are bound as driver timestamps, the same way they are written.
+     */
+    private static String buildWhereClause(String username, LocalDateTime from, LocalDateTime to,
+                                           List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (username != null) {
+            conditions.add("username = ?");
+            params.add(username);
+        }
+        if (from != null) {
+            conditions.add("timestamp >= ?");
+            params.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            conditions.add("timestamp < ?");
+            params.add(Timestamp.valueOf(to));
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+    
+    private static void bind(PreparedStatement pstmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            pstmt.setObject(i + 1, params.get(i));
+        }
+    }
+    
+    /**
+     * Map ResultSet to ActivityLog object
+     */
+    private ActivityLog mapResultSetToActivityLog(ResultSet rs) throws SQLException {
+        ActivityLog log = new ActivityLog();
+        log.setId(rs.getInt("id"));
+        log.setUsername(rs.getString("username"));
+        log.setAction(rs.getString("action"));
+        log.setDetails(rs.getString("details"));
+        
+        Timestamp timestamp = rs.getTimestamp("timestamp");
+        if (timestamp != null) {
+            log.setTimestamp(timestamp.toLocalDateTime());
+        }
+        
+        return log;
+    }
+}
@@ -1,16 +1,30 @@
 package com.aidsync.dao;
 
 import com.aidsync.model.Beneficiary;
+import com.aidsync.model.FilterCriteria;
+import com.aidsync.util.ChangeTracker;
 import com.aidsync.util.DatabaseManager;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Data Access Object for Beneficiary operations
  */
 public class BeneficiaryDAO {
+    // Registration day whether the timestamp was stored as text (column default)
+    // or as epoch milliseconds (driver-bound timestamps)
+    private static final String REGISTERED_DATE_SQL =
+        "(CASE WHEN typeof(date_registered) = 'integer' " +
+        "THEN date(date_registered / 1000, 'unixepoch', 'localtime') ELSE date(date_registered) END)";
+    
+    private static final int SEARCH_RESULT_LIMIT = 500;
+    
+    // Looked up once; see SchemaMigrator version 5
+    private static volatile Boolean searchIndexAvailable;
     
     /**
      * Create new beneficiary
@@ -23,7 +37,7 @@ public class BeneficiaryDAO {
             ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         
         try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             pstmt.setString(1, beneficiary.getBeneficiaryId());
             pstmt.setString(2, beneficiary.getFullName());
@@ -47,7 +61,16 @@ public class BeneficiaryDAO {
             pstmt.setInt(14, beneficiary.isSoloParent() ? 1 : 0);
             pstmt.setString(15, beneficiary.getStatus());
             
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() == 0) {
+                return false;
+            }
+            ChangeTracker.markChanged(ChangeTracker.BENEFICIARIES);
+            
+            ResultSet rs = pstmt.getGeneratedKeys();
+            if (rs.next()) {
+                beneficiary.setId(rs.getInt(1));
+            }
+            return true;
         } catch (SQLException e) {
             System.err.println("Error creating beneficiary: " + e.getMessage());
             e.printStackTrace();
@@ -92,7 +115,9 @@ public class BeneficiaryDAO {
             pstmt.setString(14, beneficiary.getStatus());
             pstmt.setInt(15, beneficiary.getId());
             
-            return pstmt.executeUpdate() > 0;
+            boolean changed = pstmt.executeUpdate() > 0;
+            ChangeTracker.markChanged(ChangeTracker.BENEFICIARIES);
+            return changed;
         } catch (SQLException e) {
             System.err.println("Error updating beneficiary: " + e.getMessage());
             e.printStackTrace();
@@ -112,7 +137,9 @@ public class BeneficiaryDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, id);
-            return pstmt.executeUpdate() > 0;
+            boolean changed = pstmt.executeUpdate() > 0;
+            ChangeTracker.markChanged(ChangeTracker.BENEFICIARIES);
+            return changed;
         } catch (SQLException e) {
             System.err.println("Error deleting beneficiary: " + e.getMessage());
             e.printStackTrace();
@@ -126,7 +153,7 @@ public class BeneficiaryDAO {
     public Beneficiary getById(int id) {
         String sql = "SELECT * FROM beneficiaries WHERE id = ? AND deleted = 0";
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, id);
@@ -149,7 +176,7 @@ public class BeneficiaryDAO {
     public Beneficiary getByBeneficiaryId(String beneficiaryId) {
         String sql = "SELECT * FROM beneficiaries WHERE beneficiary_id = ? AND deleted = 0";
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, beneficiaryId);
@@ -167,13 +194,48 @@ public class BeneficiaryDAO {
     }
     
     /**
-     * Search beneficiaries by name (case-insensitive)
+     * Search beneficiaries by name, beneficiary ID or street address.
+     * Every word of the term must prefix-match a token; results are ranked by
+     * relevance with name matches weighted highest.
      */
     public List<Beneficiary> searchByName(String searchTerm) {
+        String matchQuery = toMatchQuery(searchTerm);
+        if (matchQuery == null || !isSearchIndexAvailable()) {
+            return searchByNameLike(searchTerm);
+        }
+        
+        String sql = "SELECT b.* FROM beneficiaries_fts " +
+            "JOIN beneficiaries b ON b.id = beneficiaries_fts.rowid " +
+            "WHERE beneficiaries_fts MATCH ? AND b.deleted = 0 " +
+            "ORDER BY bm25(beneficiaries_fts, 10.0, 5.0, 1.0), b.full_name " +
+            "LIMIT " + SEARCH_RESULT_LIMIT;
+        List<Beneficiary> beneficiaries = new ArrayList<>();
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, matchQuery);
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                beneficiaries.add(mapResultSetToBeneficiary(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error searching beneficiaries: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return beneficiaries;
+    }
+    
+    /**
+     * Substring search for builds without the full-text index
+     */
+    private List<Beneficiary> searchByNameLike(String searchTerm) {
         String sql = "SELECT * FROM beneficiaries WHERE full_name LIKE ? AND deleted = 0 ORDER BY full_name";
         List<Beneficiary> beneficiaries = new ArrayList<>();
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, "%" + searchTerm + "%");
@@ -190,6 +252,59 @@ public class BeneficiaryDAO {
         return beneficiaries;
     }
     
+    /**
+     * Turn user input into an FTS5 query: each word becomes a quoted prefix term,
+     * so punctuation in the input can never be read as query syntax.
+     * Returns null if the input has no searchable words.
+     */
+    private static String toMatchQuery(String searchTerm) {
+        if (searchTerm == null) {
+            return null;
+        }
+        
+        StringBuilder query = new StringBuilder();
+        for (String word : searchTerm.trim().split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (query.length() > 0) {
+                query.append(' ');
+            }
+            query.append('"').append(word).append("\"*");
+        }
+        return query.length() > 0 ? query.toString() : null;
+    }
+    
+    private static String toJsonArray(Collection<Integer> ids) {
+        StringBuilder json = new StringBuilder("[");
+        for (Integer id : ids) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append(id.intValue());
+        }
+        return json.append(']').toString();
+    }
+    
+    /**
+     * Whether the FTS5 index exists (it is skipped when the driver lacks FTS5)
+     */
+    private static boolean isSearchIndexAvailable() {
+        Boolean available = searchIndexAvailable;
+        if (available == null) {
+            String sql = "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'beneficiaries_fts'";
+            try (Connection conn = DatabaseManager.getReadConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                available = pstmt.executeQuery().next();
+                searchIndexAvailable = available;
+            } catch (SQLException e) {
+                System.err.println("Error checking search index: " + e.getMessage());
+                return false;
+            }
+        }
+        return available;
+    }
+    
     /**
      * Get all beneficiaries
      */
@@ -197,7 +312,7 @@ public class BeneficiaryDAO {
         String sql = "SELECT * FROM beneficiaries WHERE deleted = 0 ORDER BY full_name";
         List<Beneficiary> beneficiaries = new ArrayList<>();
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -212,6 +327,317 @@ public class BeneficiaryDAO {
         return beneficiaries;
     }
     
+    /**
+     * Find beneficiaries matching the filter criteria and search term, ordered by name.
+     * Filtering happens in SQLite; use findPage for paged lists.
+     */
+    public List<Beneficiary> findByCriteria(FilterCriteria criteria, String searchTerm) {
+        WhereClause where = buildWhereClause(criteria, searchTerm);
+        String sql = "SELECT * FROM beneficiaries" + where.getSql() + " ORDER BY full_name, id";
+        List<Beneficiary> beneficiaries = new ArrayList<>();
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            where.bind(pstmt);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                beneficiaries.add(mapResultSetToBeneficiary(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error filtering beneficiaries: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return beneficiaries;
+    }
+    
+    /**
+     * Get one page of beneficiaries in (full_name, id) order by seeking past a cursor.
+     * Forward pages start after the cursor, backward pages end before it; a null
+     * cursor starts at the first (or last) row. Each page costs one index seek
+     * plus the rows read, however deep into the registry it is.
+     */
+    public KeysetPage findPage(FilterCriteria criteria, String searchTerm, PageCursor cursor,
+                               boolean forward, int pageSize) {
+        WhereClause where = buildWhereClause(criteria, searchTerm);
+        if (cursor != null) {
+            where.add(forward ? "(full_name, id) > (?, ?)" : "(full_name, id) < (?, ?)",
+                cursor.getFullName(), cursor.getId());
+        }
+        String sql = "SELECT * FROM beneficiaries" + where.getSql() +
+            (forward ? " ORDER BY full_name, id" : " ORDER BY full_name DESC, id DESC") + " LIMIT ?";
+        List<Beneficiary> rows = new ArrayList<>();
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            int index = where.bind(pstmt);
+            // One extra row tells us whether another page follows in this direction
+            pstmt.setInt(index, pageSize + 1);
+            
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                rows.add(mapResultSetToBeneficiary(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting beneficiary page: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        boolean more = rows.size() > pageSize;
+        if (more) {
+            rows.remove(rows.size() - 1);
+        }
+        if (!forward) {
+            Collections.reverse(rows);
+        }
+        
+        // Coming from a cursor means there is at least one row on the other side
+        return forward
+            ? new KeysetPage(rows, cursor != null, more)
+            : new KeysetPage(rows, more, cursor != null);
+    }
+    
+    /**
+     * Get rows [offset, offset + limit) in (full_name, id) order. Used when a
+     * virtualized table jumps to a block with no cursor to seek from; prefer
+     * findPage otherwise, since OFFSET walks every skipped row.
+     */
+    public List<Beneficiary> findRange(FilterCriteria criteria, String searchTerm, int offset, int limit) {
+        WhereClause where = buildWhereClause(criteria, searchTerm);
+        String sql = "SELECT * FROM beneficiaries" + where.getSql() + " ORDER BY full_name, id LIMIT ? OFFSET ?";
+        List<Beneficiary> rows = new ArrayList<>();
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            int index = where.bind(pstmt);
+            pstmt.setInt(index++, limit);
+            pstmt.setInt(index, offset);
+            
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                rows.add(mapResultSetToBeneficiary(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting beneficiary range: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return rows;
+    }
+    
+    /**
+     * Count beneficiaries matching the filter criteria and search term
+     */
+    public int countByCriteria(FilterCriteria criteria, String searchTerm) {
+        WhereClause where = buildWhereClause(criteria, searchTerm);
+        String sql = "SELECT COUNT(*) FROM beneficiaries" + where.getSql();
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            where.bind(pstmt);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error counting beneficiaries: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return 0;
+    }
+    
+    /**
+     * Get the barangays that have registered beneficiaries
+     */
+    public List<String> getRegisteredBarangays() {
+        String sql = "SELECT DISTINCT barangay FROM beneficiaries WHERE deleted = 0 AND barangay IS NOT NULL ORDER BY barangay";
+        List<String> barangays = new ArrayList<>();
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                barangays.add(rs.getString("barangay"));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting barangays: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return barangays;
+    }
+    
+    /**
+     * Compile filter criteria and search term into a parameterized WHERE clause.
+     * Only criteria that are set add a condition, so each combination maps to one
+     * cached statement.
+     */
+    private static WhereClause buildWhereClause(FilterCriteria criteria, String searchTerm) {
+        WhereClause where = new WhereClause();
+        where.add("deleted = 0");
+        
+        if (searchTerm != null && !searchTerm.trim().isEmpty()) {
+            String matchQuery = toMatchQuery(searchTerm);
+            if (matchQuery != null && isSearchIndexAvailable()) {
+                where.add("id IN (SELECT rowid FROM beneficiaries_fts WHERE beneficiaries_fts MATCH ?)", matchQuery);
+            } else {
+                String pattern = "%" + searchTerm.trim() + "%";
+                where.add("(full_name LIKE ? OR beneficiary_id LIKE ?)", pattern, pattern);
+            }
+        }
+        
+        if (criteria == null) {
+            return where;
+        }
+        
+        if (criteria.getBeneficiaryIds() != null) {
+            // One JSON array parameter keeps the statement shape fixed for any number of IDs
+            where.add("id IN (SELECT value FROM json_each(?))", toJsonArray(criteria.getBeneficiaryIds()));
+        }
+        if (criteria.getBarangay() != null) {
+            where.add("barangay = ?", criteria.getBarangay());
+        }
+        if (criteria.getStatus() != null) {
+            where.add("status = ?", criteria.getStatus());
+        }
+        if (criteria.getGender() != null) {
+            where.add("gender = ?", criteria.getGender());
+        }
+        if (criteria.getIsPwd() != null) {
+            where.add("is_pwd = ?", criteria.getIsPwd() ? 1 : 0);
+        }
+        if (criteria.getIsSeniorCitizen() != null) {
+            where.add("is_senior_citizen = ?", criteria.getIsSeniorCitizen() ? 1 : 0);
+        }
+        if (criteria.getIsPregnant() != null) {
+            where.add("is_pregnant = ?", criteria.getIsPregnant() ? 1 : 0);
+        }
+        if (criteria.getIsSoloParent() != null) {
+            where.add("is_solo_parent = ?", criteria.getIsSoloParent() ? 1 : 0);
+        }
+        if (criteria.getMinFamilySize() != null) {
+            where.add("family_size >= ?", criteria.getMinFamilySize());
+        }
+        if (criteria.getMaxFamilySize() != null) {
+            where.add("family_size <= ?", criteria.getMaxFamilySize());
+        }
+        // Beneficiaries without a registration date are never excluded by the range
+        if (criteria.getDateFrom() != null) {
+            where.add("(date_registered IS NULL OR " + REGISTERED_DATE_SQL + " >= ?)", criteria.getDateFrom().toString());
+        }
+        if (criteria.getDateTo() != null) {
+            where.add("(date_registered IS NULL OR " + REGISTERED_DATE_SQL + " <= ?)", criteria.getDateTo().toString());
+        }
+        if (criteria.getNeverDistributed() != null) {
+            where.add((criteria.getNeverDistributed() ? "NOT " : "") +
+                "EXISTS (SELECT 1 FROM distributions d WHERE d.beneficiary_id = beneficiaries.id)");
+        }
+        
+        return where;
+    }
+    
+    /**
+     * Position in the (full_name, id) ordering of beneficiary lists
+     */
+    public static class PageCursor {
+        private final String fullName;
+        private final int id;
+        
+        public PageCursor(String fullName, int id) {
+            this.fullName = fullName;
+            this.id = id;
+        }
+        
+        public static PageCursor of(Beneficiary beneficiary) {
+            return new PageCursor(beneficiary.getFullName(), beneficiary.getId());
+        }
+        
+        public String getFullName() {
+            return fullName;
+        }
+        
+        public int getId() {
+            return id;
+        }
+    }
+    
+    /**
+     * One keyset page with cursors for the neighbouring pages
+     */
+    public static class KeysetPage {
+        private final List<Beneficiary> rows;
+        private final boolean hasPrevious;
+        private final boolean hasNext;
+        
+        public KeysetPage(List<Beneficiary> rows, boolean hasPrevious, boolean hasNext) {
+            this.rows = rows;
+            this.hasPrevious = hasPrevious;
+            this.hasNext = hasNext;
+        }
+        
+        public List<Beneficiary> getRows() {
+            return rows;
+        }
+        
+        public boolean hasPrevious() {
+            return hasPrevious && !rows.isEmpty();
+        }
+        
+        public boolean hasNext() {
+            return hasNext && !rows.isEmpty();
+        }
+        
+        /**
+         * Cursor for loading the previous page (backward)
+         */
+        public PageCursor getFirstCursor() {
+            return rows.isEmpty() ? null : PageCursor.of(rows.get(0));
+        }
+        
+        /**
+         * Cursor for loading the next page (forward)
+         */
+        public PageCursor getLastCursor() {
+            return rows.isEmpty() ? null : PageCursor.of(rows.get(rows.size() - 1));
+        }
+    }
+    
+    /**
+     * Conditions joined with AND plus their bind values in order
+     */
+    private static class WhereClause {
+        private final List<String> conditions = new ArrayList<>();
+        private final List<Object> params = new ArrayList<>();
+        
+        private void add(String condition, Object... values) {
+            conditions.add(condition);
+            for (Object value : values) {
+                params.add(value);
+            }
+        }
+        
+        private String getSql() {
+            return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+        }
+        
+        /**
+         * Bind the values and return the next free parameter index
+         */
+        private int bind(PreparedStatement pstmt) throws SQLException {
+            int index = 1;
+            for (Object param : params) {
+                pstmt.setObject(index++, param);
+            }
+            return index;
+        }
+    }
+    
     /**
      * Check for duplicate (name + barangay + purok)
      */
@@ -222,7 +648,7 @@ public class BeneficiaryDAO {
             sql += " AND id != ?";
         }
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, fullName);
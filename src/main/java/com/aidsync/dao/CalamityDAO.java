@@ -2,6 +2,7 @@ package com.aidsync.dao;
 
 import com.aidsync.model.Calamity;
 import com.aidsync.model.CalamityItem;
+import com.aidsync.util.ChangeTracker;
 import com.aidsync.util.DatabaseManager;
 
 import java.sql.*;
@@ -30,6 +31,7 @@ public class CalamityDAO {
             
             int rowsAffected = pstmt.executeUpdate();
             System.out.println("Rows affected: " + rowsAffected);
+            ChangeTracker.markChanged(ChangeTracker.CALAMITIES);
             
             if (rowsAffected > 0) {
                 // Get generated ID
@@ -57,7 +59,7 @@ public class CalamityDAO {
     public Calamity getCalamityById(int id) {
         String sql = "SELECT * FROM calamities WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, id);
@@ -85,7 +87,7 @@ public class CalamityDAO {
         
         System.out.println("Loading all calamities from database...");
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -114,7 +116,7 @@ public class CalamityDAO {
         // First, let's see all calamities in the database
         String debugSql = "SELECT id, name, status FROM calamities ORDER BY name";
         System.out.println("DEBUG: All calamities in database:");
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(debugSql)) {
             
@@ -130,7 +132,7 @@ public class CalamityDAO {
         
         System.out.println("DEBUG: Querying active calamities with SQL: " + sql);
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -164,6 +166,7 @@ public class CalamityDAO {
             pstmt.setInt(4, calamity.getId());
             
             if (pstmt.executeUpdate() > 0) {
+                ChangeTracker.markChanged(ChangeTracker.CALAMITIES);
                 // Update items: delete old and insert new
                 deleteCalamityItems(calamity.getId());
                 insertCalamityItems(calamity);
@@ -205,7 +208,9 @@ public class CalamityDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, id);
-            return pstmt.executeUpdate() > 0;
+            boolean changed = pstmt.executeUpdate() > 0;
+            ChangeTracker.markChanged(ChangeTracker.CALAMITIES);
+            return changed;
         } catch (SQLException e) {
             System.err.println("Error deleting calamity: " + e.getMessage());
             return false;
@@ -228,7 +233,7 @@ public class CalamityDAO {
             sql += " AND id != ?";
         }
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, name);
@@ -254,7 +259,7 @@ public class CalamityDAO {
         String sql = "SELECT * FROM calamity_items WHERE calamity_id = ?";
         List<CalamityItem> items = new ArrayList<>();
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, calamityId);
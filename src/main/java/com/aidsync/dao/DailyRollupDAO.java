@@ -0,0 +1,155 @@
+package com.aidsync.dao;
+
+import com.aidsync.model.InventoryTransaction;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object that keeps the daily report rollups current.
+ *
+ * Every method runs inside the caller's transaction, next to the change it
+ * accounts for, so the rollups commit or roll back with it. Distribution
+ * figures are recomputed in SQL from the affected rows: add them after they are
+ * written and remove them before they are deleted. Days are local dates and a
+ * missing calamity is keyed as 0, as in the backfill.
+ */
+public class DailyRollupDAO {
+    // Stay well under SQLite's bound-parameter limit for IN (...) lists
+    private static final int IN_CLAUSE_CHUNK_SIZE = 500;
+    
+    private static final String DISTRIBUTION_DAY =
+        "CASE WHEN typeof(d.distribution_date) = 'integer' " +
+        "THEN date(d.distribution_date / 1000, 'unixepoch', 'localtime') " +
+        "ELSE date(d.distribution_date, 'localtime') END";
+    
+    // The WHERE placeholder is always filled, so ON CONFLICT is not read as a join constraint
+    private static final String UPSERT_ITEMS_SQL = "INSERT INTO distribution_daily_rollup " +
+        "(day, barangay, calamity_id, inventory_id, households_served, quantity) " +
+        "SELECT " + DISTRIBUTION_DAY + ", COALESCE(b.barangay, ''), COALESCE(d.calamity_id, 0), " +
+        "di.inventory_id, ? * COUNT(DISTINCT d.id), ? * SUM(di.quantity) " +
+        "FROM distributions d " +
+        "JOIN distribution_items di ON di.distribution_id = d.id " +
+        "LEFT JOIN beneficiaries b ON b.id = d.beneficiary_id " +
+        "WHERE %s GROUP BY 1, 2, 3, 4 " +
+        "ON CONFLICT (day, barangay, calamity_id, inventory_id) DO UPDATE SET " +
+        "households_served = households_served + excluded.households_served, " +
+        "quantity = quantity + excluded.quantity";
+    
+    private static final String UPSERT_HOUSEHOLDS_SQL = "INSERT INTO distribution_daily_households " +
+        "(day, barangay, calamity_id, households_served) " +
+        "SELECT " + DISTRIBUTION_DAY + ", COALESCE(b.barangay, ''), COALESCE(d.calamity_id, 0), ? * COUNT(*) " +
+        "FROM distributions d " +
+        "LEFT JOIN beneficiaries b ON b.id = d.beneficiary_id " +
+        "WHERE %s GROUP BY 1, 2, 3 " +
+        "ON CONFLICT (day, barangay, calamity_id) DO UPDATE SET " +
+        "households_served = households_served + excluded.households_served";
+    
+    private static final String UPSERT_MOVEMENT_SQL = "INSERT INTO inventory_daily_movement " +
+        "(day, inventory_id, transaction_type, transaction_count, quantity_change) " +
+        "VALUES (date('now', 'localtime'), ?, ?, ?, ?) " +
+        "ON CONFLICT (day, inventory_id, transaction_type) DO UPDATE SET " +
+        "transaction_count = transaction_count + excluded.transaction_count, " +
+        "quantity_change = quantity_change + excluded.quantity_change";
+    
+    /**
+     * Count newly written distributions (and their items) into the rollups
+     */
+    public void addDistributions(Connection conn, Collection<Integer> distributionIds) throws SQLException {
+        applyDistributionIds(conn, distributionIds, 1);
+    }
+    
+    /**
+     * Take distributions that are about to be deleted out of the rollups
+     */
+    public void removeDistributions(Connection conn, Collection<Integer> distributionIds) throws SQLException {
+        applyDistributionIds(conn, distributionIds, -1);
+    }
+    
+    /**
+     * Take every distribution of a batch run that is about to be voided out of the rollups
+     */
+    public void removeBatch(Connection conn, int batchId) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        params.add(batchId);
+        apply(conn, "d.batch_id = ?", params, -1);
+    }
+    
+    /**
+     * Add ledger rows written now to today's stock movement, one upsert per item and type
+     */
+    public void addMovements(Connection conn, List<InventoryTransaction> transactions) throws SQLException {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        
+        // Count and net change per item and transaction type
+        Map<Integer, Map<String, int[]>> totals = new LinkedHashMap<>();
+        for (InventoryTransaction transaction : transactions) {
+            int[] total = totals.computeIfAbsent(transaction.getInventoryId(), k -> new LinkedHashMap<>())
+                .computeIfAbsent(transaction.getTransactionType(), k -> new int[2]);
+            total[0]++;
+            total[1] += transaction.getQuantityChange();
+        }
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(UPSERT_MOVEMENT_SQL)) {
+            for (Map.Entry<Integer, Map<String, int[]>> item : totals.entrySet()) {
+                for (Map.Entry<String, int[]> type : item.getValue().entrySet()) {
+                    pstmt.setInt(1, item.getKey());
+                    pstmt.setString(2, type.getKey());
+                    pstmt.setInt(3, type.getValue()[0]);
+                    pstmt.setInt(4, type.getValue()[1]);
+                    pstmt.addBatch();
+                }
+            }
+            pstmt.executeBatch();
+        }
+    }
+    
+    private void applyDistributionIds(Connection conn, Collection<Integer> distributionIds, int sign)
+            throws SQLException {
+        List<Integer> ids = new ArrayList<>(distributionIds);
+        for (int start = 0; start < ids.size(); start += IN_CLAUSE_CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(start, Math.min(start + IN_CLAUSE_CHUNK_SIZE, ids.size()));
+            apply(conn, "d.id IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")",
+                new ArrayList<>(chunk), sign);
+        }
+    }
+    
+    /**
+     * Add (sign 1) or subtract (sign -1) the distributions matching condition,
+     * then drop rollup rows that reached zero
+     */
+    private void apply(Connection conn, String condition, List<Object> params, int sign) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(String.format(UPSERT_ITEMS_SQL, condition))) {
+            pstmt.setInt(1, sign);
+            pstmt.setInt(2, sign);
+            bind(pstmt, params, 3);
+            pstmt.executeUpdate();
+        }
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(String.format(UPSERT_HOUSEHOLDS_SQL, condition))) {
+            pstmt.setInt(1, sign);
+            bind(pstmt, params, 2);
+            pstmt.executeUpdate();
+        }
+        
+        if (sign < 0) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM distribution_daily_rollup WHERE households_served = 0 AND quantity = 0");
+                stmt.executeUpdate("DELETE FROM distribution_daily_households WHERE households_served = 0");
+            }
+        }
+    }
+    
+    private static void bind(PreparedStatement pstmt, List<Object> params, int firstIndex) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            pstmt.setObject(firstIndex + i, params.get(i));
+        }
+    }
+}
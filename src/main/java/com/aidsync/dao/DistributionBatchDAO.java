@@ -0,0 +1,332 @@
+package com.aidsync.dao;
+
+import com.aidsync.model.Distribution;
+import com.aidsync.model.DistributionBatch;
+import com.aidsync.model.DistributionItem;
+import com.aidsync.util.DatabaseManager;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for batch distribution runs and their checkpoints
+ */
+public class DistributionBatchDAO {
+    
+    /**
+     * Create a batch run with its items and one pending entry per beneficiary
+     */
+    public void create(Connection conn, DistributionBatch batch, List<Integer> beneficiaryIds) throws SQLException {
+        String sql = "INSERT INTO distribution_batches (calamity_id, created_by, notes, status, total_count) VALUES (?, ?, ?, ?, ?)";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            if (batch.getCalamityId() != null) {
+                pstmt.setInt(1, batch.getCalamityId());
+            } else {
+                pstmt.setNull(1, Types.INTEGER);
+            }
+            pstmt.setInt(2, batch.getCreatedBy());
+            pstmt.setString(3, batch.getNotes());
+            pstmt.setString(4, batch.getStatus());
+            pstmt.setInt(5, beneficiaryIds.size());
+            pstmt.executeUpdate();
+            
+            ResultSet rs = pstmt.getGeneratedKeys();
+            if (!rs.next()) {
+                throw new SQLException("Creating distribution batch failed, no ID obtained");
+            }
+            batch.setId(rs.getInt(1));
+            batch.setTotalCount(beneficiaryIds.size());
+        }
+        
+        String itemSql = "INSERT INTO distribution_batch_items (batch_id, inventory_id, quantity) VALUES (?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(itemSql)) {
+            for (DistributionItem item : batch.getItems()) {
+                pstmt.setInt(1, batch.getId());
+                pstmt.setInt(2, item.getInventoryId());
+                pstmt.setInt(3, item.getQuantity());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        
+        String entrySql = "INSERT INTO distribution_batch_entries (batch_id, seq, beneficiary_id) VALUES (?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(entrySql)) {
+            int seq = 0;
+            for (int beneficiaryId : beneficiaryIds) {
+                pstmt.setInt(1, batch.getId());
+                pstmt.setInt(2, seq++);
+                pstmt.setInt(3, beneficiaryId);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+    
+    /**
+     * Get batch run by ID
+     */
+    public DistributionBatch getById(int id) {
+        try (Connection conn = DatabaseManager.getReadConnection()) {
+            return getById(conn, id);
+        } catch (SQLException e) {
+            System.err.println("Error getting distribution batch: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Get batch run by ID on the caller's connection
+     */
+    public DistributionBatch getById(Connection conn, int id) throws SQLException {
+        String sql = "SELECT * FROM distribution_batches WHERE id = ?";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, id);
+            ResultSet rs = pstmt.executeQuery();
+            
+            if (rs.next()) {
+                DistributionBatch batch = mapResultSetToBatch(rs);
+                batch.setItems(getBatchItems(conn, id));
+                return batch;
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Get batch runs that were interrupted or stopped before completion.
+     * Abandoned runs ('Failed') are left out.
+     */
+    public List<DistributionBatch> getIncompleteBatches() {
+        String sql = "SELECT * FROM distribution_batches WHERE status = 'Running' AND voided_at IS NULL " +
+            "ORDER BY created_at DESC";
+        List<DistributionBatch> batches = new ArrayList<>();
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                batches.add(mapResultSetToBatch(rs));
+            }
+            
+            for (DistributionBatch batch : batches) {
+                batch.setItems(getBatchItems(conn, batch.getId()));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting incomplete distribution batches: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return batches;
+    }
+    
+    /**
+     * Get batch runs that have not been voided, newest first
+     */
+    public List<DistributionBatch> getActiveBatches(int limit) {
+        String sql = "SELECT * FROM distribution_batches WHERE voided_at IS NULL ORDER BY created_at DESC, id DESC LIMIT ?";
+        List<DistributionBatch> batches = new ArrayList<>();
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, limit);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                batches.add(mapResultSetToBatch(rs));
+            }
+            
+            for (DistributionBatch batch : batches) {
+                batch.setItems(getBatchItems(conn, batch.getId()));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting distribution batches: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return batches;
+    }
+    
+    /**
+     * Get the next pending entries of a batch in their original order.
+     * A voided batch has nothing pending, so a run in progress stops at its next chunk.
+     */
+    public List<BatchEntry> getPendingEntries(Connection conn, int batchId, int limit) throws SQLException {
+        String sql = "SELECT e.seq, e.beneficiary_id FROM distribution_batch_entries e " +
+            "JOIN distribution_batches b ON b.id = e.batch_id " +
+            "WHERE e.batch_id = ? AND e.status = 'Pending' AND b.voided_at IS NULL ORDER BY e.seq LIMIT ?";
+        List<BatchEntry> entries = new ArrayList<>();
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, batchId);
+            pstmt.setInt(2, limit);
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                entries.add(new BatchEntry(rs.getInt("seq"), rs.getInt("beneficiary_id")));
+            }
+        }
+        
+        return entries;
+    }
+    
+    /**
+     * Mark entries as served by the given distributions (same order) and advance
+     * the batch checkpoint, inside the caller's transaction
+     */
+    public void checkpoint(Connection conn, int batchId, List<BatchEntry> entries,
+                           List<Distribution> distributions) throws SQLException {
+        String sql = "UPDATE distribution_batch_entries SET status = 'Served', distribution_id = ? " +
+            "WHERE batch_id = ? AND seq = ?";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < entries.size(); i++) {
+                pstmt.setInt(1, distributions.get(i).getId());
+                pstmt.setInt(2, batchId);
+                pstmt.setInt(3, entries.get(i).getSeq());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        
+        String checkpointSql = "UPDATE distribution_batches SET processed_count = processed_count + ?, " +
+            "last_checkpoint_at = CURRENT_TIMESTAMP WHERE id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(checkpointSql)) {
+            pstmt.setInt(1, entries.size());
+            pstmt.setInt(2, batchId);
+            pstmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Update batch status ("Completed" also stamps completed_at)
+     */
+    public boolean updateStatus(int batchId, String status) {
+        String sql = "UPDATE distribution_batches SET status = ?, " +
+            "completed_at = CASE WHEN ? = 'Completed' THEN CURRENT_TIMESTAMP ELSE completed_at END " +
+            "WHERE id = ?";
+        
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, status);
+            pstmt.setString(2, status);
+            pstmt.setInt(3, batchId);
+            return pstmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Error updating distribution batch status: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    /**
+     * Stamp a batch as voided inside the caller's transaction
+     */
+    public boolean markVoided(Connection conn, int batchId, Integer voidedBy) throws SQLException {
+        String sql = "UPDATE distribution_batches SET voided_at = CURRENT_TIMESTAMP, voided_by = ? " +
+            "WHERE id = ? AND voided_at IS NULL";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            if (voidedBy != null) {
+                pstmt.setInt(1, voidedBy);
+            } else {
+                pstmt.setNull(1, Types.INTEGER);
+            }
+            pstmt.setInt(2, batchId);
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+    
+    /**
+     * Get the per-beneficiary items of a batch
+     */
+    private List<DistributionItem> getBatchItems(Connection conn, int batchId) throws SQLException {
+        String sql = "SELECT inventory_id, quantity FROM distribution_batch_items WHERE batch_id = ? ORDER BY inventory_id";
+        List<DistributionItem> items = new ArrayList<>();
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, batchId);
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                items.add(new DistributionItem(rs.getInt("inventory_id"), rs.getInt("quantity")));
+            }
+        }
+        
+        return items;
+    }
+    
+    /**
+     * Pending batch entry: position in the run and the beneficiary to serve
+     */
+    public static class BatchEntry {
+        private final int seq;
+        private final int beneficiaryId;
+        
+        public BatchEntry(int seq, int beneficiaryId) {
+            this.seq = seq;
+            this.beneficiaryId = beneficiaryId;
+        }
+        
+        public int getSeq() {
+            return seq;
+        }
+        
+        public int getBeneficiaryId() {
+            return beneficiaryId;
+        }
+    }
+    
+    /**
+     * Map ResultSet to DistributionBatch object
+     */
+    private DistributionBatch mapResultSetToBatch(ResultSet rs) throws SQLException {
+        DistributionBatch batch = new DistributionBatch();
+        batch.setId(rs.getInt("id"));
+        
+        int calamityId = rs.getInt("calamity_id");
+        if (!rs.wasNull()) {
+            batch.setCalamityId(calamityId);
+        }
+        
+        batch.setCreatedBy(rs.getInt("created_by"));
+        batch.setNotes(rs.getString("notes"));
+        batch.setStatus(rs.getString("status"));
+        batch.setTotalCount(rs.getInt("total_count"));
+        batch.setProcessedCount(rs.getInt("processed_count"));
+        
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        if (createdAt != null) {
+            batch.setCreatedAt(createdAt.toLocalDateTime());
+        }
+        
+        Timestamp lastCheckpointAt = rs.getTimestamp("last_checkpoint_at");
+        if (lastCheckpointAt != null) {
+            batch.setLastCheckpointAt(lastCheckpointAt.toLocalDateTime());
+        }
+        
+        Timestamp completedAt = rs.getTimestamp("completed_at");
+        if (completedAt != null) {
+            batch.setCompletedAt(completedAt.toLocalDateTime());
+        }
+        
+        Timestamp voidedAt = rs.getTimestamp("voided_at");
+        if (voidedAt != null) {
+            batch.setVoidedAt(voidedAt.toLocalDateTime());
+        }
+        
+        int voidedBy = rs.getInt("voided_by");
+        if (!rs.wasNull()) {
+            batch.setVoidedBy(voidedBy);
+        }
+        
+        return batch;
+    }
+}
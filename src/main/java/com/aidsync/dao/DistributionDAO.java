@@ -2,28 +2,105 @@ package com.aidsync.dao;
 
 import com.aidsync.model.Distribution;
 import com.aidsync.model.DistributionItem;
+import com.aidsync.model.InventoryItem;
+import com.aidsync.util.ChangeTracker;
 import com.aidsync.util.DatabaseManager;
+import com.aidsync.util.TransactionTemplate;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for Distribution operations
  */
 public class DistributionDAO {
+    // Stay well under SQLite's bound-parameter limit for IN (...) lists
+    private static final int IN_CLAUSE_CHUNK_SIZE = 500;
+    
+    // Per-beneficiary stats are kept current by triggers (schema version 10)
+    private static final String STATS_SELECT = "SELECT beneficiary_id, distribution_count, " +
+        "last_distribution_date, total_items FROM beneficiary_distribution_summary ";
     
     /**
      * Create new distribution with items
      */
     public boolean create(Distribution distribution) {
+        try {
+            TransactionTemplate.execute(conn -> {
+                create(conn, distribution);
+                return null;
+            });
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error creating distribution: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    /**
+     * Create new distribution with items inside the caller's transaction
+     */
+    public void create(Connection conn, Distribution distribution) throws SQLException {
         String sql = "INSERT INTO distributions (beneficiary_id, calamity_id, distribution_date, distributed_by, notes) VALUES (?, ?, ?, ?, ?)";
         
-        try (Connection conn = DatabaseManager.getConnection()) {
-            conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setInt(1, distribution.getBeneficiaryId());
+            
+            if (distribution.getCalamityId() != null) {
+                pstmt.setInt(2, distribution.getCalamityId());
+            } else {
+                pstmt.setNull(2, Types.INTEGER);
+            }
+            
+            if (distribution.getDistributionDate() != null) {
+                pstmt.setTimestamp(3, Timestamp.valueOf(distribution.getDistributionDate()));
+            } else {
+                pstmt.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+            }
+            
+            pstmt.setInt(4, distribution.getDistributedBy());
+            pstmt.setString(5, distribution.getNotes());
+            
+            pstmt.executeUpdate();
+            
+            // Get generated distribution ID
+            ResultSet rs = pstmt.getGeneratedKeys();
+            if (!rs.next()) {
+                throw new SQLException("Creating distribution failed, no ID obtained");
+            }
+            int distributionId = rs.getInt(1);
+            distribution.setId(distributionId);
+            ChangeTracker.markChanged(ChangeTracker.DISTRIBUTIONS);
             
-            try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            // Insert distribution items
+            if (!distribution.getItems().isEmpty()) {
+                insertDistributionItems(conn, distributionId, distribution.getItems());
+            }
+        }
+    }
+    
+    /**
+     * Create many distributions inside the caller's transaction, reusing one
+     * prepared insert per table. Each insert returns its generated ID, which is
+     * assigned back to its distribution.
+     */
+    public void createBatch(Connection conn, List<Distribution> distributions) throws SQLException {
+        if (distributions.isEmpty()) {
+            return;
+        }
+        
+        String sql = "INSERT INTO distributions (beneficiary_id, calamity_id, distribution_date, distributed_by, notes, batch_id) VALUES (?, ?, ?, ?, ?, ?) RETURNING id";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (Distribution distribution : distributions) {
                 pstmt.setInt(1, distribution.getBeneficiaryId());
                 
                 if (distribution.getCalamityId() != null) {
@@ -41,32 +118,34 @@ public class DistributionDAO {
                 pstmt.setInt(4, distribution.getDistributedBy());
                 pstmt.setString(5, distribution.getNotes());
                 
-                pstmt.executeUpdate();
+                if (distribution.getBatchId() != null) {
+                    pstmt.setInt(6, distribution.getBatchId());
+                } else {
+                    pstmt.setNull(6, Types.INTEGER);
+                }
                 
-                // Get generated distribution ID
-                ResultSet rs = pstmt.getGeneratedKeys();
-                if (rs.next()) {
-                    int distributionId = rs.getInt(1);
-                    distribution.setId(distributionId);
-                    
-                    // Insert distribution items
-                    if (!distribution.getItems().isEmpty()) {
-                        insertDistributionItems(conn, distributionId, distribution.getItems());
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new SQLException("Insert returned no ID for beneficiary " + distribution.getBeneficiaryId());
                     }
+                    distribution.setId(rs.getInt(1));
                 }
-                
-                conn.commit();
-                return true;
-            } catch (SQLException e) {
-                conn.rollback();
-                throw e;
-            } finally {
-                conn.setAutoCommit(true);
             }
-        } catch (SQLException e) {
-            System.err.println("Error creating distribution: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+        }
+        ChangeTracker.markChanged(ChangeTracker.DISTRIBUTIONS);
+        
+        String itemSql = "INSERT INTO distribution_items (distribution_id, inventory_id, quantity) VALUES (?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(itemSql)) {
+            for (Distribution distribution : distributions) {
+                for (DistributionItem item : distribution.getItems()) {
+                    item.setDistributionId(distribution.getId());
+                    pstmt.setInt(1, distribution.getId());
+                    pstmt.setInt(2, item.getInventoryId());
+                    pstmt.setInt(3, item.getQuantity());
+                    pstmt.addBatch();
+                }
+            }
+            pstmt.executeBatch();
         }
     }
     
@@ -98,7 +177,7 @@ public class DistributionDAO {
             "LEFT JOIN calamities c ON d.calamity_id = c.id " +
             "WHERE d.id = ?";
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, id);
@@ -133,15 +212,14 @@ public class DistributionDAO {
         
         List<Distribution> distributions = new ArrayList<>();
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                Distribution distribution = mapResultSetToDistribution(rs);
-                distribution.setItems(getDistributionItems(conn, distribution.getId()));
-                distributions.add(distribution);
+                distributions.add(mapResultSetToDistribution(rs));
             }
+            attachItems(conn, distributions);
         } catch (SQLException e) {
             System.err.println("Error getting all distributions: " + e.getMessage());
             e.printStackTrace();
@@ -164,17 +242,16 @@ public class DistributionDAO {
         
         List<Distribution> distributions = new ArrayList<>();
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, beneficiaryId);
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                Distribution distribution = mapResultSetToDistribution(rs);
-                distribution.setItems(getDistributionItems(conn, distribution.getId()));
-                distributions.add(distribution);
+                distributions.add(mapResultSetToDistribution(rs));
             }
+            attachItems(conn, distributions);
         } catch (SQLException e) {
             System.err.println("Error getting distributions by beneficiary: " + e.getMessage());
             e.printStackTrace();
@@ -199,12 +276,7 @@ public class DistributionDAO {
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                DistributionItem item = new DistributionItem();
-                item.setId(rs.getInt("id"));
-                item.setDistributionId(rs.getInt("distribution_id"));
-                item.setInventoryId(rs.getInt("inventory_id"));
-                item.setQuantity(rs.getInt("quantity"));
-                items.add(item);
+                items.add(mapResultSetToDistributionItem(rs));
             }
         }
         
@@ -212,84 +284,224 @@ public class DistributionDAO {
     }
     
     /**
-     * Delete (void) a distribution and return its items for inventory restoration
+     * Load the items of many distributions with one query per chunk of IDs
+     * instead of one query per distribution
      */
-    public List<DistributionItem> deleteDistribution(int distributionId) {
-        List<DistributionItem> items = new ArrayList<>();
+    private void attachItems(Connection conn, List<Distribution> distributions) throws SQLException {
+        Map<Integer, Distribution> byId = new HashMap<>();
+        for (Distribution distribution : distributions) {
+            byId.put(distribution.getId(), distribution);
+        }
         
-        try (Connection conn = DatabaseManager.getConnection()) {
-            conn.setAutoCommit(false);
+        List<Integer> ids = new ArrayList<>(byId.keySet());
+        for (int start = 0; start < ids.size(); start += IN_CLAUSE_CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(start, Math.min(start + IN_CLAUSE_CHUNK_SIZE, ids.size()));
+            String sql = "SELECT di.*, i.item_name, i.unit " +
+                "FROM distribution_items di " +
+                "LEFT JOIN inventory i ON di.inventory_id = i.id " +
+                "WHERE di.distribution_id IN (" + placeholders(chunk.size()) + ") " +
+                "ORDER BY di.distribution_id, di.id";
             
-            try {
-                // Get distribution items before deletion
-                items = getDistributionItems(conn, distributionId);
-                
-                // Delete distribution items
-                String deleteItemsSql = "DELETE FROM distribution_items WHERE distribution_id = ?";
-                try (PreparedStatement pstmt = conn.prepareStatement(deleteItemsSql)) {
-                    pstmt.setInt(1, distributionId);
-                    pstmt.executeUpdate();
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    pstmt.setInt(i + 1, chunk.get(i));
                 }
+                ResultSet rs = pstmt.executeQuery();
                 
-                // Delete distribution
-                String deleteDistSql = "DELETE FROM distributions WHERE id = ?";
-                try (PreparedStatement pstmt = conn.prepareStatement(deleteDistSql)) {
-                    pstmt.setInt(1, distributionId);
-                    pstmt.executeUpdate();
+                while (rs.next()) {
+                    DistributionItem item = mapResultSetToDistributionItem(rs);
+                    byId.get(item.getDistributionId()).addItem(item);
                 }
-                
-                conn.commit();
-            } catch (SQLException e) {
-                conn.rollback();
-                throw e;
-            } finally {
-                conn.setAutoCommit(true);
             }
+        }
+    }
+    
+    /**
+     * Delete (void) a distribution and return its items for inventory restoration
+     */
+    public List<DistributionItem> deleteDistribution(int distributionId) {
+        try {
+            return TransactionTemplate.execute(conn -> deleteDistribution(conn, distributionId));
         } catch (SQLException e) {
             System.err.println("Error deleting distribution: " + e.getMessage());
             e.printStackTrace();
+            return new ArrayList<>();
         }
+    }
+    
+    /**
+     * Delete a distribution inside the caller's transaction and return its items
+     */
+    public List<DistributionItem> deleteDistribution(Connection conn, int distributionId) throws SQLException {
+        // Get distribution items before deletion
+        List<DistributionItem> items = getDistributionItems(conn, distributionId);
+        
+        // Delete distribution items
+        String deleteItemsSql = "DELETE FROM distribution_items WHERE distribution_id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(deleteItemsSql)) {
+            pstmt.setInt(1, distributionId);
+            pstmt.executeUpdate();
+        }
+        
+        // Delete distribution
+        String deleteDistSql = "DELETE FROM distributions WHERE id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(deleteDistSql)) {
+            pstmt.setInt(1, distributionId);
+            pstmt.executeUpdate();
+        }
+        ChangeTracker.markChanged(ChangeTracker.DISTRIBUTIONS);
         
         return items;
     }
     
+    /**
+     * Total quantity handed out per inventory item by a batch run
+     */
+    public Map<Integer, Integer> getBatchItemTotals(Connection conn, int batchId) throws SQLException {
+        String sql = "SELECT di.inventory_id, SUM(di.quantity) AS total_quantity " +
+            "FROM distribution_items di " +
+            "JOIN distributions d ON d.id = di.distribution_id " +
+            "WHERE d.batch_id = ? " +
+            "GROUP BY di.inventory_id " +
+            "ORDER BY di.inventory_id";
+        
+        Map<Integer, Integer> totals = new LinkedHashMap<>();
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, batchId);
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                totals.put(rs.getInt("inventory_id"), rs.getInt("total_quantity"));
+            }
+        }
+        
+        return totals;
+    }
+    
+    /**
+     * Delete every distribution of a batch run inside the caller's transaction.
+     * Returns the number of distributions removed.
+     */
+    public int deleteByBatchId(Connection conn, int batchId) throws SQLException {
+        String deleteItemsSql = "DELETE FROM distribution_items WHERE distribution_id IN " +
+            "(SELECT id FROM distributions WHERE batch_id = ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(deleteItemsSql)) {
+            pstmt.setInt(1, batchId);
+            pstmt.executeUpdate();
+        }
+        
+        String deleteDistSql = "DELETE FROM distributions WHERE batch_id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(deleteDistSql)) {
+            pstmt.setInt(1, batchId);
+            int deleted = pstmt.executeUpdate();
+            ChangeTracker.markChanged(ChangeTracker.DISTRIBUTIONS);
+            return deleted;
+        }
+    }
+    
     /**
      * Get distribution statistics for a beneficiary
      * Returns: count, last distribution date, total items received
      */
     public DistributionStats getDistributionStats(int beneficiaryId) {
-        String sql = "SELECT " +
-            "COUNT(d.id) as dist_count, " +
-            "MAX(d.distribution_date) as last_dist_date, " +
-            "COALESCE(SUM(di.quantity), 0) as total_items " +
-            "FROM distributions d " +
-            "LEFT JOIN distribution_items di ON d.id = di.distribution_id " +
-            "WHERE d.beneficiary_id = ?";
+        String sql = STATS_SELECT + "WHERE beneficiary_id = ?";
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, beneficiaryId);
-            ResultSet rs = pstmt.executeQuery();
+            Map<Integer, DistributionStats> statsById = new HashMap<>();
+            readStats(pstmt.executeQuery(), statsById);
             
-            if (rs.next()) {
-                DistributionStats stats = new DistributionStats();
-                stats.setDistributionCount(rs.getInt("dist_count"));
+            if (statsById.containsKey(beneficiaryId)) {
+                return statsById.get(beneficiaryId);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting distribution stats: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return new DistributionStats();
+    }
+    
+    /**
+     * Get distribution statistics for many beneficiaries with one primary-key
+     * lookup query per chunk of IDs. Every requested beneficiary is present in the result;
+     * those never served get empty stats.
+     */
+    public Map<Integer, DistributionStats> getDistributionStats(Collection<Integer> beneficiaryIds) {
+        Map<Integer, DistributionStats> statsById = new HashMap<>();
+        if (beneficiaryIds.isEmpty()) {
+            return statsById;
+        }
+        
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(beneficiaryIds));
+        
+        try (Connection conn = DatabaseManager.getReadConnection()) {
+            for (int start = 0; start < ids.size(); start += IN_CLAUSE_CHUNK_SIZE) {
+                List<Integer> chunk = ids.subList(start, Math.min(start + IN_CLAUSE_CHUNK_SIZE, ids.size()));
+                String sql = STATS_SELECT +
+                    "WHERE beneficiary_id IN (" + placeholders(chunk.size()) + ")";
                 
-                Timestamp lastDate = rs.getTimestamp("last_dist_date");
-                if (lastDate != null) {
-                    stats.setLastDistributionDate(lastDate.toLocalDateTime());
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setInt(i + 1, chunk.get(i));
+                    }
+                    readStats(pstmt.executeQuery(), statsById);
                 }
-                
-                stats.setTotalItemsReceived(rs.getInt("total_items"));
-                return stats;
             }
         } catch (SQLException e) {
             System.err.println("Error getting distribution stats: " + e.getMessage());
             e.printStackTrace();
         }
         
-        return new DistributionStats();
+        for (Integer id : ids) {
+            statsById.computeIfAbsent(id, key -> new DistributionStats());
+        }
+        return statsById;
+    }
+    
+    /**
+     * Get distribution statistics for every beneficiary that has received aid.
+     * Beneficiaries never served are absent from the map.
+     */
+    public Map<Integer, DistributionStats> getAllDistributionStats() {
+        String sql = STATS_SELECT;
+        Map<Integer, DistributionStats> statsById = new HashMap<>();
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            readStats(pstmt.executeQuery(), statsById);
+        } catch (SQLException e) {
+            System.err.println("Error getting distribution stats: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return statsById;
+    }
+    
+    private void readStats(ResultSet rs, Map<Integer, DistributionStats> statsById) throws SQLException {
+        while (rs.next()) {
+            DistributionStats stats = new DistributionStats();
+            stats.setDistributionCount(rs.getInt("distribution_count"));
+            
+            Timestamp lastDate = rs.getTimestamp("last_distribution_date");
+            if (lastDate != null) {
+                stats.setLastDistributionDate(lastDate.toLocalDateTime());
+            }
+            
+            stats.setTotalItemsReceived(rs.getInt("total_items"));
+            statsById.put(rs.getInt("beneficiary_id"), stats);
+        }
+    }
+    
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.toString();
     }
     
     /**
@@ -330,6 +542,28 @@ public class DistributionDAO {
         }
     }
     
+    /**
+     * Map a distribution_items row joined with inventory name and unit
+     */
+    private DistributionItem mapResultSetToDistributionItem(ResultSet rs) throws SQLException {
+        DistributionItem item = new DistributionItem();
+        item.setId(rs.getInt("id"));
+        item.setDistributionId(rs.getInt("distribution_id"));
+        item.setQuantity(rs.getInt("quantity"));
+        
+        String itemName = rs.getString("item_name");
+        if (itemName != null) {
+            InventoryItem inventoryItem = new InventoryItem();
+            inventoryItem.setId(rs.getInt("inventory_id"));
+            inventoryItem.setItemName(itemName);
+            inventoryItem.setUnit(rs.getString("unit"));
+            item.setInventoryItem(inventoryItem);
+        }
+        item.setInventoryId(rs.getInt("inventory_id"));
+        
+        return item;
+    }
+    
     /**
      * Map ResultSet to Distribution object
      */
@@ -351,6 +585,11 @@ public class DistributionDAO {
             distribution.setDistributionDate(distributionDate.toLocalDateTime());
         }
         
+        int batchId = rs.getInt("batch_id");
+        if (!rs.wasNull()) {
+            distribution.setBatchId(batchId);
+        }
+        
         Timestamp createdAt = rs.getTimestamp("created_at");
         if (createdAt != null) {
             distribution.setCreatedAt(createdAt.toLocalDateTime());
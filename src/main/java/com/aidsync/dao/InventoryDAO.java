@@ -1,6 +1,7 @@
 package com.aidsync.dao;
 
 import com.aidsync.model.InventoryItem;
+import com.aidsync.util.ChangeTracker;
 import com.aidsync.util.DatabaseManager;
 
 import java.sql.*;
@@ -27,7 +28,9 @@ public class InventoryDAO {
             pstmt.setString(4, item.getUnit());
             pstmt.setInt(5, item.getLowStockThreshold());
             
-            return pstmt.executeUpdate() > 0;
+            boolean changed = pstmt.executeUpdate() > 0;
+            ChangeTracker.markChanged(ChangeTracker.INVENTORY);
+            return changed;
         } catch (SQLException e) {
             System.err.println("Error creating inventory item: " + e.getMessage());
             e.printStackTrace();
@@ -39,11 +42,22 @@ public class InventoryDAO {
      * Update inventory item
      */
     public boolean update(InventoryItem item) {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            return update(conn, item);
+        } catch (SQLException e) {
+            System.err.println("Error updating inventory item: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    /**
+     * Update inventory item inside the caller's transaction
+     */
+    public boolean update(Connection conn, InventoryItem item) throws SQLException {
         String sql = "UPDATE inventory SET item_name = ?, category = ?, quantity = ?, unit = ?, low_stock_threshold = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, item.getItemName());
             pstmt.setString(2, item.getCategory());
             pstmt.setInt(3, item.getQuantity());
@@ -51,11 +65,9 @@ public class InventoryDAO {
             pstmt.setInt(5, item.getLowStockThreshold());
             pstmt.setInt(6, item.getId());
             
-            return pstmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            System.err.println("Error updating inventory item: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+            boolean changed = pstmt.executeUpdate() > 0;
+            ChangeTracker.markChanged(ChangeTracker.INVENTORY);
+            return changed;
         }
     }
     
@@ -66,7 +78,7 @@ public class InventoryDAO {
         String sql = "SELECT * FROM inventory ORDER BY item_name";
         List<InventoryItem> items = new ArrayList<>();
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -85,20 +97,29 @@ public class InventoryDAO {
      * Get inventory item by ID
      */
     public InventoryItem getById(int id) {
+        try (Connection conn = DatabaseManager.getReadConnection()) {
+            return getById(conn, id);
+        } catch (SQLException e) {
+            System.err.println("Error getting inventory item: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Get inventory item by ID on the caller's connection
+     */
+    public InventoryItem getById(Connection conn, int id) throws SQLException {
         String sql = "SELECT * FROM inventory WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, id);
             ResultSet rs = pstmt.executeQuery();
             
             if (rs.next()) {
                 return mapResultSetToInventoryItem(rs);
             }
-        } catch (SQLException e) {
-            System.err.println("Error getting inventory item: " + e.getMessage());
-            e.printStackTrace();
         }
         
         return null;
@@ -108,19 +129,106 @@ public class InventoryDAO {
      * Update inventory quantity (for distribution)
      */
     public boolean updateQuantity(int id, int quantityChange) {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            return updateQuantity(conn, id, quantityChange);
+        } catch (SQLException e) {
+            System.err.println("Error updating inventory quantity: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    /**
+     * Update inventory quantity inside the caller's transaction
+     */
+    public boolean updateQuantity(Connection conn, int id, int quantityChange) throws SQLException {
         String sql = "UPDATE inventory SET quantity = quantity + ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, quantityChange);
+            pstmt.setInt(2, id);
             
+            boolean changed = pstmt.executeUpdate() > 0;
+            ChangeTracker.markChanged(ChangeTracker.INVENTORY);
+            return changed;
+        }
+    }
+    
+    /**
+     * Atomically take stock: decrements only if enough is on hand.
+     * Returns the before/after quantities, or null if the item is missing or short.
+     */
+    public StockChange decrementIfAvailable(Connection conn, int id, int quantity) throws SQLException {
+        String sql = "UPDATE inventory SET quantity = quantity - ?, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = ? AND quantity >= ? RETURNING quantity";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, quantity);
+            pstmt.setInt(2, id);
+            pstmt.setInt(3, quantity);
+            
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                ChangeTracker.markChanged(ChangeTracker.INVENTORY);
+                int quantityAfter = rs.getInt("quantity");
+                return new StockChange(id, quantityAfter + quantity, quantityAfter);
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Atomically add (or remove) stock and return the before/after quantities,
+     * or null if the item does not exist
+     */
+    public StockChange adjustQuantity(Connection conn, int id, int quantityChange) throws SQLException {
+        String sql = "UPDATE inventory SET quantity = quantity + ?, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = ? RETURNING quantity";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, quantityChange);
             pstmt.setInt(2, id);
             
-            return pstmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            System.err.println("Error updating inventory quantity: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                ChangeTracker.markChanged(ChangeTracker.INVENTORY);
+                int quantityAfter = rs.getInt("quantity");
+                return new StockChange(id, quantityAfter - quantityChange, quantityAfter);
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Stock level before and after an atomic quantity update
+     */
+    public static class StockChange {
+        private final int inventoryId;
+        private final int quantityBefore;
+        private final int quantityAfter;
+        
+        public StockChange(int inventoryId, int quantityBefore, int quantityAfter) {
+            this.inventoryId = inventoryId;
+            this.quantityBefore = quantityBefore;
+            this.quantityAfter = quantityAfter;
+        }
+        
+        public int getInventoryId() {
+            return inventoryId;
+        }
+        
+        public int getQuantityBefore() {
+            return quantityBefore;
+        }
+        
+        public int getQuantityAfter() {
+            return quantityAfter;
+        }
+        
+        public int getQuantityChange() {
+            return quantityAfter - quantityBefore;
         }
     }
     
@@ -131,7 +239,7 @@ public class InventoryDAO {
         String sql = "SELECT * FROM inventory WHERE quantity <= low_stock_threshold ORDER BY quantity ASC";
         List<InventoryItem> items = new ArrayList<>();
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -0,0 +1,107 @@
+package com.aidsync.dao;
+
+import com.aidsync.util.DatabaseManager;
+
+import java.sql.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Data Access Object for inventory stock snapshots and point-in-time stock.
+ *
+ * Ledger times (inventory_transactions.created_at, inventory.created_at) are
+ * the column default's UTC text, so instants are passed in that same
+ * "yyyy-MM-dd HH:mm:ss" form and compared as text.
+ */
+public class InventorySnapshotDAO {
+    // Latest snapshot per item, with an optional WHERE on the snapshots
+    private static final String LATEST_SNAPSHOT_SQL =
+        "SELECT inventory_id, MAX(last_transaction_id) AS last_id FROM inventory_stock_snapshots " +
+        "%s GROUP BY inventory_id";
+    
+    /**
+     * Snapshot every item with at least minNewRows ledger rows since its last
+     * snapshot, inside the caller's transaction. Returns the number taken.
+     */
+    public int takeSnapshots(Connection conn, int minNewRows) throws SQLException {
+        String sql = "INSERT INTO inventory_stock_snapshots (inventory_id, last_transaction_id, taken_at, quantity) " +
+            "SELECT d.inventory_id, d.last_id, last.created_at, d.base + d.delta FROM (" +
+            "SELECT t.inventory_id, MAX(t.id) AS last_id, COUNT(*) AS new_rows, SUM(t.quantity_change) AS delta, " +
+            "COALESCE(s.quantity, (SELECT f.quantity_before FROM inventory_transactions f " +
+            "WHERE f.inventory_id = t.inventory_id ORDER BY f.id LIMIT 1)) AS base " +
+            "FROM inventory_transactions t " +
+            "LEFT JOIN (" + String.format(LATEST_SNAPSHOT_SQL, "") + ") snap ON snap.inventory_id = t.inventory_id " +
+            "LEFT JOIN inventory_stock_snapshots s " +
+            "ON s.inventory_id = snap.inventory_id AND s.last_transaction_id = snap.last_id " +
+            "WHERE t.id > COALESCE(snap.last_id, 0) " +
+            "GROUP BY t.inventory_id) d " +
+            "JOIN inventory_transactions last ON last.id = d.last_id " +
+            "WHERE d.new_rows >= ?";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, minNewRows);
+            return pstmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Stock of each item (or only itemId when not null) as of a ledger time.
+     * Starts from the latest snapshot taken at or before that time, or from the
+     * first ledger row's quantity_before, and adds the changes up to the time.
+     * Items without ledger rows report their current quantity; items created
+     * after the time report 0.
+     */
+    public Map<Integer, Integer> getStockAsOf(Integer itemId, String asOf) {
+        String sql = "SELECT i.id, i.quantity, i.created_at > ? AS not_yet_created, " +
+            "s.quantity AS snapshot_quantity, " +
+            "(SELECT f.quantity_before FROM inventory_transactions f " +
+            "WHERE f.inventory_id = i.id ORDER BY f.id LIMIT 1) AS first_before, " +
+            "(SELECT SUM(t.quantity_change) FROM inventory_transactions t " +
+            "WHERE t.inventory_id = i.id AND t.id > COALESCE(snap.last_id, 0) AND t.created_at <= ?) AS delta " +
+            "FROM inventory i " +
+            "LEFT JOIN (" + String.format(LATEST_SNAPSHOT_SQL, "WHERE taken_at <= ?") + ") snap " +
+            "ON snap.inventory_id = i.id " +
+            "LEFT JOIN inventory_stock_snapshots s " +
+            "ON s.inventory_id = snap.inventory_id AND s.last_transaction_id = snap.last_id" +
+            (itemId != null ? " WHERE i.id = ?" : "") +
+            " ORDER BY i.id";
+        Map<Integer, Integer> stock = new LinkedHashMap<>();
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, asOf);
+            pstmt.setString(2, asOf);
+            pstmt.setString(3, asOf);
+            if (itemId != null) {
+                pstmt.setInt(4, itemId);
+            }
+            
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                int id = rs.getInt("id");
+                int delta = rs.getInt("delta");
+                
+                int snapshotQuantity = rs.getInt("snapshot_quantity");
+                boolean hasSnapshot = !rs.wasNull();
+                int firstBefore = rs.getInt("first_before");
+                boolean hasLedger = !rs.wasNull();
+                
+                if (rs.getInt("not_yet_created") == 1) {
+                    stock.put(id, 0);
+                } else if (hasSnapshot) {
+                    stock.put(id, snapshotQuantity + delta);
+                } else if (hasLedger) {
+                    stock.put(id, firstBefore + delta);
+                } else {
+                    stock.put(id, rs.getInt("quantity"));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting point-in-time stock: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return stock;
+    }
+}
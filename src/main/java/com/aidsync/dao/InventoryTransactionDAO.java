@@ -1,9 +1,12 @@
 package com.aidsync.dao;
 
 import com.aidsync.model.InventoryTransaction;
+import com.aidsync.util.ChangeTracker;
 import com.aidsync.util.DatabaseManager;
 
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,37 +14,17 @@ import java.util.List;
  * Data Access Object for Inventory Transaction operations
  */
 public class InventoryTransactionDAO {
+    private static final String INSERT_SQL = "INSERT INTO inventory_transactions " +
+        "(inventory_id, user_id, transaction_type, quantity_change, quantity_before, quantity_after, notes, reference_id, reference_type) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final DateTimeFormatter CREATED_AT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     
     /**
      * Create a new inventory transaction
      */
     public boolean create(InventoryTransaction transaction) {
-        String sql = "INSERT INTO inventory_transactions " +
-            "(inventory_id, user_id, transaction_type, quantity_change, quantity_before, quantity_after, notes, reference_id, reference_type) " +
-            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, transaction.getInventoryId());
-            if (transaction.getUserId() != null) {
-                pstmt.setInt(2, transaction.getUserId());
-            } else {
-                pstmt.setNull(2, Types.INTEGER);
-            }
-            pstmt.setString(3, transaction.getTransactionType());
-            pstmt.setInt(4, transaction.getQuantityChange());
-            pstmt.setInt(5, transaction.getQuantityBefore());
-            pstmt.setInt(6, transaction.getQuantityAfter());
-            pstmt.setString(7, transaction.getNotes());
-            if (transaction.getReferenceId() != null) {
-                pstmt.setInt(8, transaction.getReferenceId());
-            } else {
-                pstmt.setNull(8, Types.INTEGER);
-            }
-            pstmt.setString(9, transaction.getReferenceType());
-            
-            return pstmt.executeUpdate() > 0;
+        try (Connection conn = DatabaseManager.getConnection()) {
+            return create(conn, transaction);
         } catch (SQLException e) {
             System.err.println("Error creating inventory transaction: " + e.getMessage());
             e.printStackTrace();
@@ -49,6 +32,56 @@ public class InventoryTransactionDAO {
         }
     }
     
+    /**
+     * Create a new inventory transaction inside the caller's transaction
+     */
+    public boolean create(Connection conn, InventoryTransaction transaction) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+            bindTransaction(pstmt, transaction);
+            boolean created = pstmt.executeUpdate() > 0;
+            ChangeTracker.markChanged(ChangeTracker.INVENTORY_TRANSACTIONS);
+            return created;
+        }
+    }
+    
+    /**
+     * Create many inventory transactions with one JDBC batch inside the caller's transaction
+     */
+    public void createBatch(Connection conn, List<InventoryTransaction> transactions) throws SQLException {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+            for (InventoryTransaction transaction : transactions) {
+                bindTransaction(pstmt, transaction);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        ChangeTracker.markChanged(ChangeTracker.INVENTORY_TRANSACTIONS);
+    }
+    
+    private void bindTransaction(PreparedStatement pstmt, InventoryTransaction transaction) throws SQLException {
+        pstmt.setInt(1, transaction.getInventoryId());
+        if (transaction.getUserId() != null) {
+            pstmt.setInt(2, transaction.getUserId());
+        } else {
+            pstmt.setNull(2, Types.INTEGER);
+        }
+        pstmt.setString(3, transaction.getTransactionType());
+        pstmt.setInt(4, transaction.getQuantityChange());
+        pstmt.setInt(5, transaction.getQuantityBefore());
+        pstmt.setInt(6, transaction.getQuantityAfter());
+        pstmt.setString(7, transaction.getNotes());
+        if (transaction.getReferenceId() != null) {
+            pstmt.setInt(8, transaction.getReferenceId());
+        } else {
+            pstmt.setNull(8, Types.INTEGER);
+        }
+        pstmt.setString(9, transaction.getReferenceType());
+    }
+    
     /**
      * Get all transactions for an inventory item
      */
@@ -63,7 +96,7 @@ public class InventoryTransactionDAO {
         
         List<InventoryTransaction> transactions = new ArrayList<>();
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, inventoryId);
@@ -93,7 +126,7 @@ public class InventoryTransactionDAO {
         
         List<InventoryTransaction> transactions = new ArrayList<>();
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -108,6 +141,227 @@ public class InventoryTransactionDAO {
         return transactions;
     }
     
+    /**
+     * Get one page of the ledger, newest first, with every filter applied in SQL.
+     * When after is given the page seeks past it on (created_at, id); otherwise
+     * offset rows are skipped.
+     */
+    public List<InventoryTransaction> findPage(LedgerFilter filter, InventoryTransaction after, int offset, int limit) {
+        List<Object> params = new ArrayList<>();
+        List<String> conditions = buildConditions(filter, params);
+        if (after != null && after.getCreatedAt() != null) {
+            conditions.add("(t.created_at, t.id) < (?, ?)");
+            params.add(after.getCreatedAt().format(CREATED_AT_FORMAT));
+            params.add(after.getId());
+        }
+        
+        StringBuilder sql = new StringBuilder("SELECT t.*, i.item_name, " +
+            "COALESCE(NULLIF(u.full_name, ''), u.username) as user_display_name " +
+            "FROM inventory_transactions t " +
+            "LEFT JOIN inventory i ON t.inventory_id = i.id " +
+            "LEFT JOIN users u ON t.user_id = u.id");
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY t.created_at DESC, t.id DESC LIMIT ?");
+        params.add(limit);
+        if (after == null && offset > 0) {
+            sql.append(" OFFSET ?");
+            params.add(offset);
+        }
+        
+        List<InventoryTransaction> transactions = new ArrayList<>();
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            
+            bind(pstmt, params);
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                transactions.add(mapResultSetToTransaction(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting inventory transaction page: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return transactions;
+    }
+    
+    /**
+     * Count ledger entries matching the filter
+     */
+    public int count(LedgerFilter filter) {
+        List<Object> params = new ArrayList<>();
+        List<String> conditions = buildConditions(filter, params);
+        String sql = "SELECT COUNT(*) FROM inventory_transactions t" +
+            (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions));
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            bind(pstmt, params);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error counting inventory transactions: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return 0;
+    }
+    
+    /**
+     * Stream an item's ledger oldest first, one row at a time, on the caller's
+     * connection. Returns the number of rows read.
+     */
+    public int streamLedger(Connection conn, int inventoryId, LedgerRowHandler handler) throws SQLException {
+        String sql = "SELECT id, quantity_before, quantity_change, quantity_after FROM inventory_transactions " +
+            "WHERE inventory_id = ? ORDER BY created_at, id";
+        int rows = 0;
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, inventoryId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.accept(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4));
+                    rows++;
+                }
+            }
+        }
+        
+        return rows;
+    }
+    
+    /**
+     * quantity_after of an item's latest ledger row, or null if it has none
+     */
+    public Integer getLastQuantityAfter(Connection conn, int inventoryId) throws SQLException {
+        String sql = "SELECT quantity_after FROM inventory_transactions WHERE inventory_id = ? " +
+            "ORDER BY created_at DESC, id DESC LIMIT 1";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, inventoryId);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Receives ledger rows from streamLedger
+     */
+    @FunctionalInterface
+    public interface LedgerRowHandler {
+        void accept(int transactionId, int quantityBefore, int quantityChange, int quantityAfter);
+    }
+    
+    /**
+     * Conditions for the filter. created_at holds the column default's text
+     * ("yyyy-MM-dd HH:mm:ss"), so dates are compared as text bounds, which
+     * keeps the created_at index usable.
+     */
+    private static List<String> buildConditions(LedgerFilter filter, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (filter == null) {
+            return conditions;
+        }
+        if (filter.getInventoryId() != null) {
+            conditions.add("t.inventory_id = ?");
+            params.add(filter.getInventoryId());
+        }
+        if (filter.getTransactionType() != null) {
+            conditions.add("t.transaction_type = ?");
+            params.add(filter.getTransactionType());
+        }
+        if (filter.isSystemOnly()) {
+            conditions.add("t.user_id IS NULL");
+        } else if (filter.getUserId() != null) {
+            conditions.add("t.user_id = ?");
+            params.add(filter.getUserId());
+        }
+        if (filter.getFromDate() != null) {
+            conditions.add("t.created_at >= ?");
+            params.add(filter.getFromDate().atStartOfDay().format(CREATED_AT_FORMAT));
+        }
+        if (filter.getToDate() != null) {
+            conditions.add("t.created_at < ?");
+            params.add(filter.getToDate().plusDays(1).atStartOfDay().format(CREATED_AT_FORMAT));
+        }
+        return conditions;
+    }
+    
+    private static void bind(PreparedStatement pstmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            pstmt.setObject(i + 1, params.get(i));
+        }
+    }
+    
+    /**
+     * Ledger filter; null fields match everything. Dates are inclusive.
+     */
+    public static class LedgerFilter {
+        private final Integer inventoryId;
+        private final String transactionType;
+        private final Integer userId;
+        private final boolean systemOnly; // only entries logged by the system (no user)
+        private final LocalDate fromDate;
+        private final LocalDate toDate;
+        
+        public LedgerFilter(Integer inventoryId, String transactionType, Integer userId,
+                            LocalDate fromDate, LocalDate toDate) {
+            this(inventoryId, transactionType, userId, false, fromDate, toDate);
+        }
+        
+        private LedgerFilter(Integer inventoryId, String transactionType, Integer userId, boolean systemOnly,
+                             LocalDate fromDate, LocalDate toDate) {
+            this.inventoryId = inventoryId;
+            this.transactionType = transactionType;
+            this.userId = userId;
+            this.systemOnly = systemOnly;
+            this.fromDate = fromDate;
+            this.toDate = toDate;
+        }
+        
+        /**
+         * Filter for entries that were logged by the system rather than a user
+         */
+        public static LedgerFilter systemOnly(Integer inventoryId, String transactionType,
+                                              LocalDate fromDate, LocalDate toDate) {
+            return new LedgerFilter(inventoryId, transactionType, null, true, fromDate, toDate);
+        }
+        
+        public Integer getInventoryId() {
+            return inventoryId;
+        }
+        
+        public String getTransactionType() {
+            return transactionType;
+        }
+        
+        public Integer getUserId() {
+            return userId;
+        }
+        
+        public boolean isSystemOnly() {
+            return systemOnly;
+        }
+        
+        public LocalDate getFromDate() {
+            return fromDate;
+        }
+        
+        public LocalDate getToDate() {
+            return toDate;
+        }
+    }
+    
     /**
      * Map ResultSet to InventoryTransaction object
      */
@@ -0,0 +1,514 @@
+package com.aidsync.dao;
+
+import com.aidsync.util.DatabaseManager;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object for report aggregates.
+ *
+ * Distribution and stock movement figures are read from the daily rollup
+ * tables kept by DailyRollupDAO, so a report reads a few rows per day rather
+ * than the whole history. The distribution report itself lists individual
+ * distributions and reads the raw rows.
+ */
+public class ReportDAO {
+    
+    /**
+     * Get the dashboard totals with one query
+     */
+    public SummaryTotals getSummaryTotals() {
+        String sql = "SELECT " +
+            "(SELECT COUNT(*) FROM beneficiaries WHERE deleted = 0) AS beneficiaries, " +
+            "(SELECT COALESCE(SUM(households_served), 0) FROM distribution_daily_households) AS distributions, " +
+            "(SELECT COALESCE(SUM(quantity), 0) FROM distribution_daily_rollup) AS items_distributed, " +
+            "(SELECT COUNT(*) FROM inventory) AS inventory_items, " +
+            "(SELECT COUNT(*) FROM inventory WHERE quantity <= low_stock_threshold) AS low_stock_items";
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            if (rs.next()) {
+                return new SummaryTotals(
+                    rs.getInt("beneficiaries"),
+                    rs.getInt("distributions"),
+                    rs.getInt("items_distributed"),
+                    rs.getInt("inventory_items"),
+                    rs.getInt("low_stock_items"));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting summary totals: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return new SummaryTotals(0, 0, 0, 0, 0);
+    }
+    
+    /**
+     * Get the most distributed items by total quantity
+     */
+    public List<TopItemRow> getTopItems(int limit) {
+        String sql = "SELECT i.item_name, i.category, i.unit, SUM(r.quantity) AS total_distributed " +
+            "FROM distribution_daily_rollup r " +
+            "JOIN inventory i ON i.id = r.inventory_id " +
+            "GROUP BY r.inventory_id " +
+            "ORDER BY total_distributed DESC, i.item_name " +
+            "LIMIT ?";
+        List<TopItemRow> rows = new ArrayList<>();
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, limit);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                rows.add(new TopItemRow(
+                    rs.getString("item_name"),
+                    rs.getString("category"),
+                    rs.getInt("total_distributed"),
+                    rs.getString("unit")));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting top items: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return rows;
+    }
+    
+    /**
+     * Get the calamities with the most distributions, with the items given out for each
+     */
+    public List<TopCalamityRow> getTopCalamities(int limit) {
+        String sql = "SELECT c.name, h.households AS distribution_count, " +
+            "COALESCE(q.quantity, 0) AS total_items " +
+            "FROM (SELECT calamity_id, SUM(households_served) AS households " +
+            "FROM distribution_daily_households WHERE calamity_id <> 0 GROUP BY calamity_id) h " +
+            "JOIN calamities c ON c.id = h.calamity_id " +
+            "LEFT JOIN (SELECT calamity_id, SUM(quantity) AS quantity " +
+            "FROM distribution_daily_rollup WHERE calamity_id <> 0 GROUP BY calamity_id) q " +
+            "ON q.calamity_id = h.calamity_id " +
+            "ORDER BY distribution_count DESC, c.name " +
+            "LIMIT ?";
+        List<TopCalamityRow> rows = new ArrayList<>();
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, limit);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                rows.add(new TopCalamityRow(
+                    rs.getString("name"),
+                    rs.getInt("distribution_count"),
+                    rs.getInt("total_items")));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting top calamities: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return rows;
+    }
+    
+    /**
+     * Get each item's stock movement from a day onwards (inclusive), by inventory ID
+     */
+    public Map<Integer, StockMovement> getStockMovementSince(LocalDate fromDay) {
+        String sql = "SELECT inventory_id, " +
+            "SUM(CASE WHEN transaction_type = 'Restock' THEN quantity_change ELSE 0 END) AS restocked, " +
+            "-SUM(CASE WHEN transaction_type IN ('Distribution', 'Void Distribution') " +
+            "THEN quantity_change ELSE 0 END) AS distributed, " +
+            "SUM(quantity_change) AS net_change " +
+            "FROM inventory_daily_movement " +
+            "WHERE day >= ? " +
+            "GROUP BY inventory_id";
+        Map<Integer, StockMovement> movement = new HashMap<>();
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, fromDay.toString());
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                movement.put(rs.getInt("inventory_id"), new StockMovement(
+                    rs.getInt("restocked"),
+                    rs.getInt("distributed"),
+                    rs.getInt("net_change")));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting stock movement: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return movement;
+    }
+    
+    /**
+     * Stream the distribution report newest first, one distribution at a time.
+     * Distributions, beneficiaries, calamities, users and item lines come from a
+     * single joined query with the filters applied in SQL; consecutive item lines
+     * of a distribution are folded into one row before it is handed over.
+     * Returns the number of rows streamed.
+     */
+    public int streamDistributionReport(DistributionReportFilter filter, DistributionReportHandler handler) {
+        List<Object> params = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        // Distributions of beneficiaries in the recycle bin are left out of the report
+        conditions.add("b.deleted = 0");
+        if (filter.getFromDate() != null) {
+            conditions.add("d.distribution_date >= ?");
+            params.add(Timestamp.valueOf(filter.getFromDate().atStartOfDay()));
+        }
+        if (filter.getToDate() != null) {
+            conditions.add("d.distribution_date < ?");
+            params.add(Timestamp.valueOf(filter.getToDate().plusDays(1).atStartOfDay()));
+        }
+        if (filter.getCalamityName() != null) {
+            conditions.add("c.name = ?");
+            params.add(filter.getCalamityName());
+        }
+        if (filter.getBarangay() != null) {
+            conditions.add("b.barangay = ?");
+            params.add(filter.getBarangay());
+        }
+        
+        String sql = "SELECT d.id, d.distribution_date, d.notes, " +
+            "b.full_name, b.barangay, b.purok, c.name AS calamity_name, " +
+            "COALESCE(NULLIF(TRIM(u.full_name), ''), u.username, 'User ID: ' || d.distributed_by) AS distributed_by_name, " +
+            "i.item_name, i.unit, di.quantity " +
+            "FROM distributions d " +
+            "JOIN beneficiaries b ON b.id = d.beneficiary_id " +
+            "LEFT JOIN calamities c ON c.id = d.calamity_id " +
+            "LEFT JOIN users u ON u.id = d.distributed_by " +
+            "LEFT JOIN distribution_items di ON di.distribution_id = d.id " +
+            "LEFT JOIN inventory i ON i.id = di.inventory_id " +
+            "WHERE " + String.join(" AND ", conditions) +
+            " ORDER BY d.distribution_date DESC, d.id DESC, di.id";
+        int rows = 0;
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
+            }
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                DistributionReportRow current = null;
+                while (rs.next()) {
+                    int distributionId = rs.getInt("id");
+                    if (current == null || current.distributionId != distributionId) {
+                        if (current != null) {
+                            handler.accept(current);
+                            rows++;
+                        }
+                        Timestamp date = rs.getTimestamp("distribution_date");
+                        current = new DistributionReportRow(distributionId,
+                            date != null ? date.toLocalDateTime() : null,
+                            rs.getString("full_name"),
+                            rs.getString("barangay"),
+                            rs.getString("purok"),
+                            rs.getString("calamity_name"),
+                            rs.getString("distributed_by_name"),
+                            rs.getString("notes"));
+                    }
+                    // Lines whose inventory item is gone are left out, as before
+                    String itemName = rs.getString("item_name");
+                    if (itemName != null) {
+                        current.items.add(new ItemLine(itemName, rs.getInt("quantity"), rs.getString("unit")));
+                    }
+                }
+                if (current != null) {
+                    handler.accept(current);
+                    rows++;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting distribution report: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return rows;
+    }
+    
+    /**
+     * Stock movement of one item over a period
+     */
+    public static class StockMovement {
+        private final int restocked;
+        private final int distributed;
+        private final int netChange;
+        
+        public StockMovement(int restocked, int distributed, int netChange) {
+            this.restocked = restocked;
+            this.distributed = distributed;
+            this.netChange = netChange;
+        }
+        
+        public int getRestocked() {
+            return restocked;
+        }
+        
+        /**
+         * Quantity handed out, less what voided distributions returned
+         */
+        public int getDistributed() {
+            return distributed;
+        }
+        
+        public int getNetChange() {
+            return netChange;
+        }
+    }
+    
+    /**
+     * Receives distribution report rows from streamDistributionReport
+     */
+    @FunctionalInterface
+    public interface DistributionReportHandler {
+        void accept(DistributionReportRow row);
+    }
+    
+    /**
+     * Filters for the distribution report (null = any). Dates are inclusive local days.
+     */
+    public static class DistributionReportFilter {
+        private final LocalDate fromDate;
+        private final LocalDate toDate;
+        private final String calamityName;
+        private final String barangay;
+        
+        public DistributionReportFilter(LocalDate fromDate, LocalDate toDate, String calamityName, String barangay) {
+            this.fromDate = fromDate;
+            this.toDate = toDate;
+            this.calamityName = calamityName;
+            this.barangay = barangay;
+        }
+        
+        public LocalDate getFromDate() {
+            return fromDate;
+        }
+        
+        public LocalDate getToDate() {
+            return toDate;
+        }
+        
+        public String getCalamityName() {
+            return calamityName;
+        }
+        
+        public String getBarangay() {
+            return barangay;
+        }
+    }
+    
+    /**
+     * One distribution of the distribution report with its item lines
+     */
+    public static class DistributionReportRow {
+        private final int distributionId;
+        private final LocalDateTime distributionDate;
+        private final String beneficiaryName;
+        private final String barangay;
+        private final String purok;
+        private final String calamityName;
+        private final String distributedByName;
+        private final String notes;
+        private final List<ItemLine> items = new ArrayList<>();
+        
+        DistributionReportRow(int distributionId, LocalDateTime distributionDate, String beneficiaryName,
+                              String barangay, String purok, String calamityName,
+                              String distributedByName, String notes) {
+            this.distributionId = distributionId;
+            this.distributionDate = distributionDate;
+            this.beneficiaryName = beneficiaryName;
+            this.barangay = barangay;
+            this.purok = purok;
+            this.calamityName = calamityName;
+            this.distributedByName = distributedByName;
+            this.notes = notes;
+        }
+        
+        public int getDistributionId() {
+            return distributionId;
+        }
+        
+        public LocalDateTime getDistributionDate() {
+            return distributionDate;
+        }
+        
+        public String getBeneficiaryName() {
+            return beneficiaryName;
+        }
+        
+        public String getBarangay() {
+            return barangay;
+        }
+        
+        public String getPurok() {
+            return purok;
+        }
+        
+        /**
+         * Calamity name, or null when the distribution has none
+         */
+        public String getCalamityName() {
+            return calamityName;
+        }
+        
+        public String getDistributedByName() {
+            return distributedByName;
+        }
+        
+        public String getNotes() {
+            return notes;
+        }
+        
+        public List<ItemLine> getItems() {
+            return items;
+        }
+        
+        public int getTotalQuantity() {
+            int total = 0;
+            for (ItemLine item : items) {
+                total += item.getQuantity();
+            }
+            return total;
+        }
+    }
+    
+    /**
+     * One item line of a distribution report row
+     */
+    public static class ItemLine {
+        private final String itemName;
+        private final int quantity;
+        private final String unit;
+        
+        ItemLine(String itemName, int quantity, String unit) {
+            this.itemName = itemName;
+            this.quantity = quantity;
+            this.unit = unit;
+        }
+        
+        public String getItemName() {
+            return itemName;
+        }
+        
+        public int getQuantity() {
+            return quantity;
+        }
+        
+        public String getUnit() {
+            return unit;
+        }
+    }
+    
+    /**
+     * Totals shown on the summary dashboard
+     */
+    public static class SummaryTotals {
+        private final int beneficiaries;
+        private final int distributions;
+        private final int itemsDistributed;
+        private final int inventoryItems;
+        private final int lowStockItems;
+        
+        public SummaryTotals(int beneficiaries, int distributions, int itemsDistributed,
+                             int inventoryItems, int lowStockItems) {
+            this.beneficiaries = beneficiaries;
+            this.distributions = distributions;
+            this.itemsDistributed = itemsDistributed;
+            this.inventoryItems = inventoryItems;
+            this.lowStockItems = lowStockItems;
+        }
+        
+        public int getBeneficiaries() {
+            return beneficiaries;
+        }
+        
+        public int getDistributions() {
+            return distributions;
+        }
+        
+        public int getItemsDistributed() {
+            return itemsDistributed;
+        }
+        
+        public int getInventoryItems() {
+            return inventoryItems;
+        }
+        
+        public int getLowStockItems() {
+            return lowStockItems;
+        }
+    }
+    
+    /**
+     * One row of the top items table
+     */
+    public static class TopItemRow {
+        private final String itemName;
+        private final String category;
+        private final int totalDistributed;
+        private final String unit;
+        
+        public TopItemRow(String itemName, String category, int totalDistributed, String unit) {
+            this.itemName = itemName;
+            this.category = category;
+            this.totalDistributed = totalDistributed;
+            this.unit = unit;
+        }
+        
+        public String getItemName() {
+            return itemName;
+        }
+        
+        public String getCategory() {
+            return category;
+        }
+        
+        public int getTotalDistributed() {
+            return totalDistributed;
+        }
+        
+        public String getUnit() {
+            return unit;
+        }
+    }
+    
+    /**
+     * One row of the top calamities table
+     */
+    public static class TopCalamityRow {
+        private final String calamityName;
+        private final int distributionCount;
+        private final int totalItems;
+        
+        public TopCalamityRow(String calamityName, int distributionCount, int totalItems) {
+            this.calamityName = calamityName;
+            this.distributionCount = distributionCount;
+            this.totalItems = totalItems;
+        }
+        
+        public String getCalamityName() {
+            return calamityName;
+        }
+        
+        public int getDistributionCount() {
+            return distributionCount;
+        }
+        
+        public int getTotalItems() {
+            return totalItems;
+        }
+    }
+}
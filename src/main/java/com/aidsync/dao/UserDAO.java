@@ -1,6 +1,7 @@
 package com.aidsync.dao;
 
 import com.aidsync.model.User;
+import com.aidsync.util.ChangeTracker;
 import com.aidsync.util.DatabaseManager;
 
 import java.sql.*;
@@ -18,7 +19,7 @@ public class UserDAO {
     public User authenticate(String username, String password) {
         String sql = "SELECT * FROM users WHERE username = ? AND password = ?";
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, username);
@@ -58,6 +59,7 @@ public class UserDAO {
             pstmt.setString(6, user.getRole());
             
             int rowsAffected = pstmt.executeUpdate();
+            ChangeTracker.markChanged(ChangeTracker.USERS);
             return rowsAffected > 0;
         } catch (SQLException e) {
             System.err.println("Error creating user: " + e.getMessage());
@@ -72,7 +74,7 @@ public class UserDAO {
     public User getUserById(int id) {
         String sql = "SELECT * FROM users WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, id);
@@ -96,7 +98,7 @@ public class UserDAO {
         String sql = "SELECT * FROM users ORDER BY username";
         List<User> users = new ArrayList<>();
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -127,7 +129,9 @@ public class UserDAO {
             pstmt.setString(5, user.getRole());
             pstmt.setInt(6, user.getId());
             
-            return pstmt.executeUpdate() > 0;
+            boolean changed = pstmt.executeUpdate() > 0;
+            ChangeTracker.markChanged(ChangeTracker.USERS);
+            return changed;
         } catch (SQLException e) {
             System.err.println("Error updating user: " + e.getMessage());
             e.printStackTrace();
@@ -145,7 +149,9 @@ public class UserDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, id);
-            return pstmt.executeUpdate() > 0;
+            boolean changed = pstmt.executeUpdate() > 0;
+            ChangeTracker.markChanged(ChangeTracker.USERS);
+            return changed;
         } catch (SQLException e) {
             System.err.println("Error deleting user: " + e.getMessage());
             e.printStackTrace();
@@ -169,7 +175,7 @@ public class UserDAO {
             sql += " AND id != ?";
         }
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, username);
@@ -17,6 +17,7 @@ public class Distribution {
     private Integer calamityId;
     private Calamity calamity;
     private String notes;
+    private Integer batchId; // set when created by a batch run
     private LocalDateTime createdAt;
     private List<DistributionItem> items;
 
@@ -109,6 +110,14 @@ public class Distribution {
         this.notes = notes;
     }
 
+    public Integer getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(Integer batchId) {
+        this.batchId = batchId;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
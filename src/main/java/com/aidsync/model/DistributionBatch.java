@@ -0,0 +1,154 @@
+package com.aidsync.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Distribution batch model: one batch distribution run over many beneficiaries
+ */
+public class DistributionBatch {
+    private int id;
+    private Integer calamityId;
+    private int createdBy;
+    private String notes;
+    private String status; // "Running", "Completed" or "Failed" (abandoned)
+    private int totalCount;
+    private int processedCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime lastCheckpointAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime voidedAt;
+    private Integer voidedBy;
+    private List<DistributionItem> items; // per beneficiary
+
+    public DistributionBatch() {
+        this.items = new ArrayList<>();
+        this.status = "Running";
+    }
+
+    // Getters and Setters
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public Integer getCalamityId() {
+        return calamityId;
+    }
+
+    public void setCalamityId(Integer calamityId) {
+        this.calamityId = calamityId;
+    }
+
+    public int getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(int createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(int totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public int getProcessedCount() {
+        return processedCount;
+    }
+
+    public void setProcessedCount(int processedCount) {
+        this.processedCount = processedCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getLastCheckpointAt() {
+        return lastCheckpointAt;
+    }
+
+    public void setLastCheckpointAt(LocalDateTime lastCheckpointAt) {
+        this.lastCheckpointAt = lastCheckpointAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public LocalDateTime getVoidedAt() {
+        return voidedAt;
+    }
+
+    public void setVoidedAt(LocalDateTime voidedAt) {
+        this.voidedAt = voidedAt;
+    }
+
+    public Integer getVoidedBy() {
+        return voidedBy;
+    }
+
+    public void setVoidedBy(Integer voidedBy) {
+        this.voidedBy = voidedBy;
+    }
+
+    public List<DistributionItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<DistributionItem> items) {
+        this.items = items;
+    }
+
+    public int getRemainingCount() {
+        return totalCount - processedCount;
+    }
+
+    public boolean isCompleted() {
+        return "Completed".equals(status);
+    }
+
+    public boolean isVoided() {
+        return voidedAt != null;
+    }
+
+    @Override
+    public String toString() {
+        if (isVoided()) {
+            return "Batch #" + id + " (voided)";
+        }
+        return "Batch #" + id + " (" + processedCount + " of " + totalCount + " served)";
+    }
+}
@@ -1,6 +1,7 @@
 package com.aidsync.model;
 
 import java.time.LocalDate;
+import java.util.Collection;
 
 /**
  * Filter criteria for beneficiary searches
@@ -17,6 +18,8 @@ public class FilterCriteria {
     private String gender;
     private LocalDate dateFrom;
     private LocalDate dateTo;
+    private Boolean neverDistributed;
+    private Collection<Integer> beneficiaryIds; // restrict to these records (e.g. search index hits)
 
     public FilterCriteria() {}
 
@@ -54,10 +57,16 @@ public class FilterCriteria {
     public LocalDate getDateTo() { return dateTo; }
     public void setDateTo(LocalDate dateTo) { this.dateTo = dateTo; }
 
+    public Boolean getNeverDistributed() { return neverDistributed; }
+    public void setNeverDistributed(Boolean neverDistributed) { this.neverDistributed = neverDistributed; }
+
+    public Collection<Integer> getBeneficiaryIds() { return beneficiaryIds; }
+    public void setBeneficiaryIds(Collection<Integer> beneficiaryIds) { this.beneficiaryIds = beneficiaryIds; }
+
     public boolean isEmpty() {
         return barangay == null && status == null && isPwd == null && 
                isSeniorCitizen == null && isPregnant == null && isSoloParent == null &&
                minFamilySize == null && maxFamilySize == null && gender == null &&
-               dateFrom == null && dateTo == null;
+               dateFrom == null && dateTo == null && neverDistributed == null && beneficiaryIds == null;
     }
 }
\ No newline at end of file
@@ -1,56 +1,220 @@
 package com.aidsync.service;
 
+import com.aidsync.dao.ActivityLogDAO;
 import com.aidsync.model.ActivityLog;
+import com.aidsync.util.TransactionTemplate;
+
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 /**
- * Service for managing activity logs
+ * Service for managing activity logs.
+ *
+ * logActivity only appends to a lock-free queue, so callers never wait on the
+ * database. A background writer drains whatever has accumulated and commits it
+ * to activity_log in one transaction, so a burst of activity costs one commit.
+ * Reads flush the queue first, so the history always includes the caller's own
+ * latest actions.
+ *
+ * Entries whose write fails (e.g. the writer connection stayed locked) are kept
+ * and written ahead of newer ones on the next attempt; the writer backs off
+ * while the failures last.
  */
 public class ActivityLogService {
-    private static final List<ActivityLog> logs = new ArrayList<>();
-    private static int nextId = 1;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final long IDLE_WAIT_MILLIS = 500;
+    private static final long MAX_RETRY_WAIT_MILLIS = 30_000;
+    // Bound on entries held while the database cannot be written; the oldest go first
+    private static final int MAX_UNWRITTEN_ENTRIES = 10_000;
+    private static final int SHUTDOWN_ATTEMPTS = 3;
+
+    private static final ConcurrentLinkedQueue<ActivityLog> pending = new ConcurrentLinkedQueue<>();
+    private static final ActivityLogDAO activityLogDAO = new ActivityLogDAO();
+    private static final Object writeLock = new Object();
+    // Drained entries not yet committed, oldest first (guarded by writeLock)
+    private static final List<ActivityLog> unwritten = new ArrayList<>();
+    private static volatile Thread writer;
+    private static volatile boolean stopped;
 
     /**
-     * Log an activity
+     * Log an activity (returns immediately; the entry is written in the background)
      */
     public static void logActivity(String username, String action, String details) {
-        ActivityLog log = new ActivityLog(username, action, details);
-        log.setId(nextId++);
-        logs.add(0, log); // Add to beginning for newest first
+        pending.offer(new ActivityLog(username, action, details));
+        if (stopped) {
+            // The background writer is gone after shutdown
+            flush();
+        } else {
+            LockSupport.unpark(startWriter());
+        }
+    }
+
+    /**
+     * Write every queued entry now. Returns false if some could not be written;
+     * they stay queued for the next attempt.
+     */
+    public static boolean flush() {
+        synchronized (writeLock) {
+            ActivityLog log;
+            while ((log = pending.poll()) != null) {
+                unwritten.add(log);
+            }
+            if (unwritten.size() > MAX_UNWRITTEN_ENTRIES) {
+                List<ActivityLog> dropped = unwritten.subList(0, unwritten.size() - MAX_UNWRITTEN_ENTRIES);
+                System.err.println("Dropping " + dropped.size() + " unwritten activity log entries");
+                dropped.clear();
+            }
+
+            while (!unwritten.isEmpty()) {
+                List<ActivityLog> batch = unwritten.subList(0, Math.min(MAX_BATCH_SIZE, unwritten.size()));
+                if (!writeBatch(batch)) {
+                    return false;
+                }
+                batch.clear();
+            }
+            return true;
+        }
     }
 
     /**
-     * Get all activity logs
+     * Stop the background writer and write what is still queued (on application exit).
+     * Entries logged afterwards are written right away.
+     */
+    public static void shutdown() {
+        stopped = true;
+        Thread current = writer;
+        if (current != null) {
+            LockSupport.unpark(current);
+        }
+
+        long waitMillis = IDLE_WAIT_MILLIS;
+        for (int attempt = 1; !flush(); attempt++) {
+            if (attempt == SHUTDOWN_ATTEMPTS) {
+                synchronized (writeLock) {
+                    System.err.println("Could not write " + unwritten.size() + " activity log entries before exit");
+                }
+                return;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(waitMillis));
+            waitMillis *= 2;
+        }
+    }
+
+    private static Thread startWriter() {
+        Thread current = writer;
+        if (current == null) {
+            synchronized (ActivityLogService.class) {
+                current = writer;
+                if (current == null) {
+                    current = new Thread(ActivityLogService::runWriter, "activity-log-writer");
+                    current.setDaemon(true);
+                    current.start();
+                    writer = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static void runWriter() {
+        long retryWaitMillis = 0;
+        while (!stopped) {
+            if (retryWaitMillis > 0) {
+                // Sit out the whole backoff; new entries only unpark us early
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryWaitMillis);
+                long remaining;
+                while (!stopped && (remaining = deadline - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(remaining);
+                }
+            } else if (pending.isEmpty()) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(IDLE_WAIT_MILLIS));
+            }
+            if (stopped) {
+                break; // shutdown writes the rest
+            }
+
+            if (flush()) {
+                retryWaitMillis = 0;
+            } else {
+                retryWaitMillis = retryWaitMillis == 0 ? IDLE_WAIT_MILLIS
+                    : Math.min(retryWaitMillis * 2, MAX_RETRY_WAIT_MILLIS);
+            }
+        }
+    }
+
+    private static boolean writeBatch(List<ActivityLog> batch) {
+        try {
+            TransactionTemplate.execute(conn -> {
+                activityLogDAO.insertBatch(conn, batch);
+                return null;
+            });
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error writing " + batch.size() + " activity log entries (will retry): " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Get all activity logs, newest first
      */
     public List<ActivityLog> getAllLogs() {
-        return new ArrayList<>(logs);
+        return getLogs(null, null, null, null, 0, Integer.MAX_VALUE);
     }
 
     /**
      * Get logs by username
      */
     public List<ActivityLog> getLogsByUsername(String username) {
-        return logs.stream()
-            .filter(log -> log.getUsername().equals(username))
-            .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        return getLogs(username, null, null, null, 0, Integer.MAX_VALUE);
     }
 
     /**
      * Get logs by date range
      */
     public List<ActivityLog> getLogsByDateRange(LocalDateTime from, LocalDateTime to) {
-        return logs.stream()
-            .filter(log -> log.getTimestamp().isAfter(from) && log.getTimestamp().isBefore(to))
-            .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        return getLogs(null, from, to, null, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get one page of logs newest first, optionally by user and time range (null = any).
+     * Pass the last entry of the previous page as after to seek instead of skipping offset rows.
+     */
+    public List<ActivityLog> getLogs(String username, LocalDateTime from, LocalDateTime to,
+                                     ActivityLog after, int offset, int limit) {
+        flush();
+        return activityLogDAO.find(username, from, to, after, offset, limit);
+    }
+
+    /**
+     * Count logs, optionally by user and time range (null = any)
+     */
+    public int countLogs(String username, LocalDateTime from, LocalDateTime to) {
+        flush();
+        return activityLogDAO.count(username, from, to);
+    }
+
+    /**
+     * Get the usernames that appear in the log
+     */
+    public List<String> getLoggedUsernames() {
+        flush();
+        return activityLogDAO.getUsernames();
     }
 
     /**
      * Clear all logs (admin only)
      */
     public void clearLogs() {
-        logs.clear();
-        nextId = 1;
+        synchronized (writeLock) {
+            pending.clear();
+            unwritten.clear();
+            activityLogDAO.deleteAll();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,207 @@
+package com.aidsync.service;
+
+import com.aidsync.dao.BeneficiaryDAO;
+import com.aidsync.model.Beneficiary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over beneficiary names and beneficiary IDs for
+ * search-as-you-type.
+ *
+ * Built once from the database on first use and then kept current by
+ * BeneficiaryService as records are created, updated and deleted. A query reads
+ * the shortest posting list among its trigrams and verifies each candidate with
+ * a substring check, so results match a plain case-insensitive "contains".
+ * Posting lists are append-only; entries removed or renamed are filtered out by
+ * that verification.
+ */
+class BeneficiarySearchIndex {
+    private static final int GRAM = 3;
+    private static final BeneficiarySearchIndex INSTANCE = new BeneficiarySearchIndex();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private boolean built;
+
+    private BeneficiarySearchIndex() {
+    }
+
+    static BeneficiarySearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Load every active beneficiary if the index has not been built yet
+     */
+    void ensureBuilt(BeneficiaryDAO beneficiaryDAO) {
+        lock.readLock().lock();
+        try {
+            if (built) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (built) {
+                return;
+            }
+            for (Beneficiary beneficiary : beneficiaryDAO.getAll()) {
+                addEntry(beneficiary);
+            }
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * IDs of beneficiaries whose name or beneficiary ID contains the term
+     */
+    List<Integer> search(String term) {
+        String needle = normalize(term);
+        List<Integer> matches = new ArrayList<>();
+        if (needle.isEmpty()) {
+            return matches;
+        }
+
+        lock.readLock().lock();
+        try {
+            if (needle.length() < GRAM) {
+                // Too short for a trigram; scan the compact entry table instead
+                for (Entry entry : entries.values()) {
+                    if (entry.matches(needle)) {
+                        matches.add(entry.id);
+                    }
+                }
+                return matches;
+            }
+
+            Postings candidates = null;
+            for (int i = 0; i + GRAM <= needle.length(); i++) {
+                Postings list = postings.get(needle.substring(i, i + GRAM));
+                if (list == null) {
+                    return matches;
+                }
+                if (candidates == null || list.size < candidates.size) {
+                    candidates = list;
+                }
+            }
+
+            Set<Integer> seen = new HashSet<>();
+            for (int i = 0; i < candidates.size; i++) {
+                int id = candidates.ids[i];
+                Entry entry = entries.get(id);
+                if (entry != null && entry.matches(needle) && seen.add(id)) {
+                    matches.add(id);
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add or replace a beneficiary (no-op until the index is built)
+     */
+    void put(Beneficiary beneficiary) {
+        lock.writeLock().lock();
+        try {
+            if (built && beneficiary.getId() > 0) {
+                addEntry(beneficiary);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drop a beneficiary from search results
+     */
+    void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            entries.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addEntry(Beneficiary beneficiary) {
+        Entry entry = new Entry(beneficiary.getId(), normalize(beneficiary.getFullName()),
+            normalize(beneficiary.getBeneficiaryId()));
+        Entry previous = entries.put(entry.id, entry);
+
+        Set<String> grams = new HashSet<>();
+        collectGrams(entry.name, grams);
+        collectGrams(entry.beneficiaryId, grams);
+        if (previous != null) {
+            // Trigrams the old text already posted are still listed
+            Set<String> oldGrams = new HashSet<>();
+            collectGrams(previous.name, oldGrams);
+            collectGrams(previous.beneficiaryId, oldGrams);
+            grams.removeAll(oldGrams);
+        }
+
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(entry.id);
+        }
+    }
+
+    private static void collectGrams(String text, Set<String> grams) {
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Searchable text of one beneficiary
+     */
+    private static class Entry {
+        private final int id;
+        private final String name;
+        private final String beneficiaryId;
+
+        private Entry(int id, String name, String beneficiaryId) {
+            this.id = id;
+            this.name = name;
+            this.beneficiaryId = beneficiaryId;
+        }
+
+        private boolean matches(String needle) {
+            return name.contains(needle) || beneficiaryId.contains(needle);
+        }
+    }
+
+    /**
+     * Growable list of beneficiary IDs for one trigram
+     */
+    private static class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        private void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+}
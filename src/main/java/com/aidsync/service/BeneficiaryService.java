@@ -8,16 +8,17 @@ import com.aidsync.util.BarangayData;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Service layer for Beneficiary operations
  */
 public class BeneficiaryService {
     private final BeneficiaryDAO beneficiaryDAO;
+    private final BeneficiarySearchIndex searchIndex;
     
     public BeneficiaryService() {
         this.beneficiaryDAO = new BeneficiaryDAO();
+        this.searchIndex = BeneficiarySearchIndex.getInstance();
     }
     
     /**
@@ -47,6 +48,7 @@ public class BeneficiaryService {
         
         boolean success = beneficiaryDAO.create(beneficiary);
         if (success) {
+            searchIndex.put(beneficiary);
             ActivityLogService.logActivity(username, "CREATE_BENEFICIARY", 
                 "Created beneficiary: " + beneficiary.getFullName() + " (ID: " + beneficiary.getBeneficiaryId() + ")");
         }
@@ -75,6 +77,7 @@ public class BeneficiaryService {
         beneficiary.setUpdatedAt(LocalDateTime.now());
         boolean success = beneficiaryDAO.update(beneficiary);
         if (success) {
+            searchIndex.put(beneficiary);
             ActivityLogService.logActivity(username, "UPDATE_BENEFICIARY", 
                 "Updated beneficiary: " + beneficiary.getFullName() + " (ID: " + beneficiary.getBeneficiaryId() + ")");
         }
@@ -94,6 +97,9 @@ public class BeneficiaryService {
     public boolean deleteBeneficiary(int id, String username) {
         Beneficiary beneficiary = beneficiaryDAO.getById(id);
         boolean success = beneficiaryDAO.delete(id);
+        if (success) {
+            searchIndex.remove(id);
+        }
         if (success && beneficiary != null) {
             ActivityLogService.logActivity(username, "DELETE_BENEFICIARY", 
                 "Deleted beneficiary: " + beneficiary.getFullName() + " (ID: " + beneficiary.getBeneficiaryId() + ")");
@@ -126,75 +132,60 @@ public class BeneficiaryService {
     }
     
     /**
-     * Get all beneficiaries
+     * IDs of beneficiaries whose name or beneficiary ID contains the term,
+     * answered from the in-memory trigram index (built on first use)
      */
-    public List<Beneficiary> getAllBeneficiaries() {
-        return beneficiaryDAO.getAll();
+    public List<Integer> searchBeneficiaryIds(String term) {
+        searchIndex.ensureBuilt(beneficiaryDAO);
+        return searchIndex.search(term);
     }
     
     /**
-     * Filter beneficiaries by criteria
+     * Build the search index ahead of the first keystroke (call off the EDT)
      */
-    public List<Beneficiary> filterBeneficiaries(FilterCriteria criteria, String searchTerm) {
-        List<Beneficiary> beneficiaries = searchTerm != null && !searchTerm.trim().isEmpty() 
-            ? beneficiaryDAO.searchByName(searchTerm.trim())
-            : beneficiaryDAO.getAll();
-        
-        if (criteria == null || criteria.isEmpty()) {
-            return beneficiaries;
-        }
-        
-        return beneficiaries.stream()
-            .filter(b -> matchesBarangay(b, criteria.getBarangay()))
-            .filter(b -> matchesStatus(b, criteria.getStatus()))
-            .filter(b -> matchesGender(b, criteria.getGender()))
-            .filter(b -> matchesPwd(b, criteria.getIsPwd()))
-            .filter(b -> matchesSeniorCitizen(b, criteria.getIsSeniorCitizen()))
-            .filter(b -> matchesPregnant(b, criteria.getIsPregnant()))
-            .filter(b -> matchesSoloParent(b, criteria.getIsSoloParent()))
-            .filter(b -> matchesFamilySize(b, criteria.getMinFamilySize(), criteria.getMaxFamilySize()))
-            .filter(b -> matchesDateRange(b, criteria.getDateFrom(), criteria.getDateTo()))
-            .collect(Collectors.toList());
-    }
-    
-    private boolean matchesBarangay(Beneficiary b, String barangay) {
-        return barangay == null || barangay.equals(b.getBarangay());
-    }
-    
-    private boolean matchesStatus(Beneficiary b, String status) {
-        return status == null || status.equals(b.getStatus());
-    }
-    
-    private boolean matchesGender(Beneficiary b, String gender) {
-        return gender == null || gender.equals(b.getGender());
-    }
-    
-    private boolean matchesPwd(Beneficiary b, Boolean isPwd) {
-        return isPwd == null || isPwd.equals(b.isPwd());
+    public void warmUpSearchIndex() {
+        searchIndex.ensureBuilt(beneficiaryDAO);
     }
     
-    private boolean matchesSeniorCitizen(Beneficiary b, Boolean isSeniorCitizen) {
-        return isSeniorCitizen == null || isSeniorCitizen.equals(b.isSeniorCitizen());
+    /**
+     * Get all beneficiaries
+     */
+    public List<Beneficiary> getAllBeneficiaries() {
+        return beneficiaryDAO.getAll();
     }
     
-    private boolean matchesPregnant(Beneficiary b, Boolean isPregnant) {
-        return isPregnant == null || isPregnant.equals(b.isPregnant());
+    /**
+     * Filter beneficiaries by criteria (evaluated in SQL)
+     */
+    public List<Beneficiary> filterBeneficiaries(FilterCriteria criteria, String searchTerm) {
+        return beneficiaryDAO.findByCriteria(criteria, searchTerm);
     }
     
-    private boolean matchesSoloParent(Beneficiary b, Boolean isSoloParent) {
-        return isSoloParent == null || isSoloParent.equals(b.isSoloParent());
+    /**
+     * Get rows [offset, offset + limit) of the filtered list, seeking past the
+     * previous row when it is known and falling back to OFFSET otherwise
+     */
+    public List<Beneficiary> getBeneficiaryBlock(FilterCriteria criteria, String searchTerm,
+                                                 int offset, int limit, Beneficiary previous) {
+        if (previous != null || offset == 0) {
+            BeneficiaryDAO.PageCursor cursor = previous != null ? BeneficiaryDAO.PageCursor.of(previous) : null;
+            return beneficiaryDAO.findPage(criteria, searchTerm, cursor, true, limit).getRows();
+        }
+        return beneficiaryDAO.findRange(criteria, searchTerm, offset, limit);
     }
     
-    private boolean matchesFamilySize(Beneficiary b, Integer min, Integer max) {
-        if (min != null && b.getFamilySize() < min) return false;
-        return max == null || b.getFamilySize() <= max;
+    /**
+     * Count beneficiaries matching the criteria
+     */
+    public int countBeneficiaries(FilterCriteria criteria, String searchTerm) {
+        return beneficiaryDAO.countByCriteria(criteria, searchTerm);
     }
     
-    private boolean matchesDateRange(Beneficiary b, LocalDate from, LocalDate to) {
-        if (b.getDateRegistered() == null) return true;
-        LocalDate regDate = b.getDateRegistered().toLocalDate();
-        if (from != null && regDate.isBefore(from)) return false;
-        return to == null || !regDate.isAfter(to);
+    /**
+     * Get the barangays that have registered beneficiaries
+     */
+    public List<String> getRegisteredBarangays() {
+        return beneficiaryDAO.getRegisteredBarangays();
     }
     
     /**
@@ -1,24 +1,43 @@
 package com.aidsync.service;
 
+import com.aidsync.dao.DailyRollupDAO;
+import com.aidsync.dao.DistributionBatchDAO;
 import com.aidsync.dao.DistributionDAO;
 import com.aidsync.dao.InventoryDAO;
 import com.aidsync.model.Distribution;
+import com.aidsync.model.DistributionBatch;
 import com.aidsync.model.DistributionItem;
 import com.aidsync.model.InventoryItem;
+import com.aidsync.model.InventoryTransaction;
+import com.aidsync.util.TransactionTemplate;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service layer for Distribution operations
  */
 public class DistributionService {
+    private static final int BATCH_CHUNK_SIZE = 500;
+    
     private final DistributionDAO distributionDAO;
+    private final DistributionBatchDAO batchDAO;
     private final InventoryDAO inventoryDAO;
+    private final DailyRollupDAO rollupDAO;
     private final InventoryService inventoryService;
     
     public DistributionService() {
         this.distributionDAO = new DistributionDAO();
+        this.batchDAO = new DistributionBatchDAO();
         this.inventoryDAO = new InventoryDAO();
+        this.rollupDAO = new DailyRollupDAO();
         this.inventoryService = new InventoryService();
     }
     
@@ -34,48 +53,406 @@ public class DistributionService {
             throw new IllegalArgumentException("At least one item must be distributed");
         }
         
-        // Validate and update inventory
-        for (DistributionItem item : distribution.getItems()) {
-            InventoryItem inventoryItem = inventoryDAO.getById(item.getInventoryId());
-            if (inventoryItem == null) {
-                throw new IllegalArgumentException("Inventory item not found: " + item.getInventoryId());
-            }
-            
-            if (inventoryItem.getQuantity() < item.getQuantity()) {
-                throw new IllegalArgumentException("Insufficient stock for " + inventoryItem.getItemName() + 
-                    ". Available: " + inventoryItem.getQuantity() + ", Requested: " + item.getQuantity());
-            }
-        }
-        
-        // Create distribution
-        boolean success = distributionDAO.create(distribution);
-        
-        if (success) {
-            // Update inventory quantities and log transactions
-            for (DistributionItem item : distribution.getItems()) {
-                InventoryItem invItem = inventoryDAO.getById(item.getInventoryId());
-                if (invItem != null) {
-                    int quantityBefore = invItem.getQuantity();
-                    inventoryDAO.updateQuantity(item.getInventoryId(), -item.getQuantity());
-                    int quantityAfter = quantityBefore - item.getQuantity();
+        // Record the distribution, take stock and write the ledger and rollups in one
+        // transaction. Each decrement is conditional on enough stock, so concurrent
+        // stations cannot oversell and a shortfall rolls the whole distribution back.
+        try {
+            return TransactionTemplate.execute(conn -> {
+                distributionDAO.create(conn, distribution);
+                rollupDAO.addDistributions(conn, Collections.singletonList(distribution.getId()));
+                
+                for (DistributionItem item : distribution.getItems()) {
+                    InventoryDAO.StockChange change =
+                        inventoryDAO.decrementIfAvailable(conn, item.getInventoryId(), item.getQuantity());
+                    if (change == null) {
+                        throw insufficientStock(conn, item);
+                    }
                     
-                    // Log transaction
                     inventoryService.logTransaction(
+                        conn,
                         item.getInventoryId(),
                         "Distribution",
                         -item.getQuantity(),
-                        quantityBefore,
-                        quantityAfter,
+                        change.getQuantityBefore(),
+                        change.getQuantityAfter(),
                         distribution.getDistributedBy(),
                         "Distribution to beneficiary ID: " + distribution.getBeneficiaryId(),
                         distribution.getId(),
                         "Distribution"
                     );
                 }
+                return true;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error creating distribution: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    /**
+     * Build the error for a rejected stock decrement (only read on the failure path)
+     */
+    private IllegalArgumentException insufficientStock(Connection conn, DistributionItem item) throws SQLException {
+        InventoryItem inventoryItem = inventoryDAO.getById(conn, item.getInventoryId());
+        if (inventoryItem == null) {
+            return new IllegalArgumentException("Inventory item not found: " + item.getInventoryId());
+        }
+        return new IllegalArgumentException("Insufficient stock for " + inventoryItem.getItemName() + 
+            ". Available: " + inventoryItem.getQuantity() + ", Requested: " + item.getQuantity());
+    }
+    
+    /**
+     * Distribute the same items to many beneficiaries.
+     * The run is persisted first (batch record plus one pending entry per
+     * beneficiary), then processed by runBatch. Aggregate stock is validated once
+     * up front.
+     */
+    public BatchResult createBatch(List<Integer> beneficiaryIds, List<DistributionItem> itemsPerBeneficiary,
+                                   Integer calamityId, int distributedBy, String notes,
+                                   BatchProgressListener listener) {
+        if (beneficiaryIds == null || beneficiaryIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one beneficiary is required");
+        }
+        
+        if (itemsPerBeneficiary == null || itemsPerBeneficiary.isEmpty()) {
+            throw new IllegalArgumentException("At least one item must be distributed");
+        }
+        
+        Map<Integer, Integer> perBeneficiary = new LinkedHashMap<>();
+        for (DistributionItem item : itemsPerBeneficiary) {
+            if (item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Item quantities must be greater than 0");
+            }
+            perBeneficiary.merge(item.getInventoryId(), item.getQuantity(), Integer::sum);
+        }
+        validateAggregateStock(perBeneficiary, beneficiaryIds.size());
+        
+        DistributionBatch batch = new DistributionBatch();
+        batch.setCalamityId(calamityId);
+        batch.setCreatedBy(distributedBy);
+        batch.setNotes(notes);
+        for (Map.Entry<Integer, Integer> entry : perBeneficiary.entrySet()) {
+            batch.getItems().add(new DistributionItem(entry.getKey(), entry.getValue()));
+        }
+        
+        try {
+            TransactionTemplate.execute(conn -> {
+                batchDAO.create(conn, batch, beneficiaryIds);
+                return null;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error creating distribution batch: " + e.getMessage());
+            e.printStackTrace();
+            throw new IllegalStateException("Could not start batch distribution: " + e.getMessage(), e);
+        }
+        
+        return runBatch(batch, listener);
+    }
+    
+    /**
+     * Continue an interrupted batch from its last checkpoint.
+     * Beneficiaries already served are never served again.
+     */
+    public BatchResult resumeBatch(int batchId, BatchProgressListener listener) {
+        DistributionBatch batch = batchDAO.getById(batchId);
+        if (batch == null) {
+            throw new IllegalArgumentException("Distribution batch not found");
+        }
+        if (batch.isVoided()) {
+            throw new IllegalArgumentException("Distribution batch has been voided");
+        }
+        
+        if (!batch.isCompleted()) {
+            Map<Integer, Integer> perBeneficiary = new LinkedHashMap<>();
+            for (DistributionItem item : batch.getItems()) {
+                perBeneficiary.put(item.getInventoryId(), item.getQuantity());
+            }
+            validateAggregateStock(perBeneficiary, batch.getRemainingCount());
+            batchDAO.updateStatus(batchId, "Running");
+        }
+        
+        return runBatch(batch, listener);
+    }
+    
+    /**
+     * Get batch runs that did not finish (for resuming)
+     */
+    public List<DistributionBatch> getIncompleteBatches() {
+        return batchDAO.getIncompleteBatches();
+    }
+    
+    /**
+     * Give up on an unfinished batch run so it is no longer offered for resuming.
+     * Beneficiaries it already served keep their distributions.
+     */
+    public boolean abandonBatch(int batchId) {
+        DistributionBatch batch = batchDAO.getById(batchId);
+        if (batch == null) {
+            throw new IllegalArgumentException("Distribution batch not found");
+        }
+        if (batch.isVoided() || batch.isCompleted()) {
+            throw new IllegalArgumentException("Distribution batch is no longer running");
+        }
+        return batchDAO.updateStatus(batchId, "Failed");
+    }
+    
+    /**
+     * Get recent batch runs that can still be voided
+     */
+    public List<DistributionBatch> getActiveBatches(int limit) {
+        return batchDAO.getActiveBatches(limit);
+    }
+    
+    /**
+     * Void every distribution created by a batch run and restore inventory.
+     * Quantities are summed per item in SQL, so stock is restored with one update
+     * per item and the ledger gets one row per item, written as a single batch.
+     * Returns the number of distributions voided.
+     */
+    public int voidBatch(int batchId, Integer voidedBy) {
+        try {
+            return TransactionTemplate.execute(conn -> {
+                DistributionBatch batch = batchDAO.getById(conn, batchId);
+                if (batch == null) {
+                    throw new IllegalArgumentException("Distribution batch not found");
+                }
+                if (!batchDAO.markVoided(conn, batchId, voidedBy)) {
+                    throw new IllegalArgumentException("Distribution batch has already been voided");
+                }
+                
+                Map<Integer, Integer> totals = distributionDAO.getBatchItemTotals(conn, batchId);
+                rollupDAO.removeBatch(conn, batchId);
+                int voidedCount = distributionDAO.deleteByBatchId(conn, batchId);
+                
+                List<InventoryTransaction> ledger = new ArrayList<>(totals.size());
+                for (Map.Entry<Integer, Integer> entry : totals.entrySet()) {
+                    InventoryDAO.StockChange change =
+                        inventoryDAO.adjustQuantity(conn, entry.getKey(), entry.getValue());
+                    if (change == null) {
+                        // Roll the whole void back rather than drop this item's stock
+                        throw new SQLException("Inventory item not found: " + entry.getKey());
+                    }
+                    ledger.add(inventoryService.buildTransaction(
+                        entry.getKey(),
+                        "Void Distribution",
+                        entry.getValue(),
+                        change.getQuantityBefore(),
+                        change.getQuantityAfter(),
+                        voidedBy,
+                        "Distribution batch voided - ID: " + batchId + " (" + voidedCount + " distributions)",
+                        batchId,
+                        "Distribution Batch"
+                    ));
+                }
+                inventoryService.logTransactions(conn, ledger);
+                return voidedCount;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error voiding distribution batch: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+    
+    /**
+     * Process pending entries chunk by chunk. Each chunk's distributions, stock
+     * decrements, ledger rows and checkpoint commit together, so an interruption
+     * loses at most the chunk in flight and never double-serves.
+     */
+    private BatchResult runBatch(DistributionBatch batch, BatchProgressListener listener) {
+        Map<Integer, Integer> perBeneficiary = new LinkedHashMap<>();
+        for (DistributionItem item : batch.getItems()) {
+            perBeneficiary.put(item.getInventoryId(), item.getQuantity());
+        }
+        
+        String errorMessage = null;
+        while (!batch.isCompleted()) {
+            int served;
+            try {
+                served = TransactionTemplate.execute(conn -> {
+                    List<DistributionBatchDAO.BatchEntry> entries =
+                        batchDAO.getPendingEntries(conn, batch.getId(), BATCH_CHUNK_SIZE);
+                    if (entries.isEmpty()) {
+                        // Pending entries of a voided batch are skipped; that is not completion
+                        DistributionBatch current = batchDAO.getById(conn, batch.getId());
+                        return current != null && current.isVoided() ? -1 : 0;
+                    }
+                    
+                    List<Integer> beneficiaryIds = new ArrayList<>(entries.size());
+                    for (DistributionBatchDAO.BatchEntry entry : entries) {
+                        beneficiaryIds.add(entry.getBeneficiaryId());
+                    }
+                    
+                    List<Distribution> distributions = distributeChunk(conn, batch.getId(), beneficiaryIds,
+                        perBeneficiary, batch.getCalamityId(), batch.getCreatedBy(), batch.getNotes(),
+                        LocalDateTime.now());
+                    batchDAO.checkpoint(conn, batch.getId(), entries, distributions);
+                    return entries.size();
+                });
+            } catch (SQLException | IllegalArgumentException e) {
+                // The run stays 'Running' so it can be resumed once the cause is fixed
+                System.err.println("Error distributing batch chunk: " + e.getMessage());
+                errorMessage = e.getMessage();
+                break;
+            }
+            
+            if (served < 0) {
+                errorMessage = "The batch was voided while it was running.";
+                break;
+            }
+            if (served == 0) {
+                batchDAO.updateStatus(batch.getId(), "Completed");
+                batch.setStatus("Completed");
+            }
+            
+            // Report progress from the checkpoint table rather than a local counter
+            DistributionBatch checkpoint = batchDAO.getById(batch.getId());
+            if (listener != null && checkpoint != null) {
+                listener.onProgress(checkpoint.getProcessedCount(), checkpoint.getTotalCount());
+            }
+        }
+        
+        DistributionBatch finalState = batchDAO.getById(batch.getId());
+        return new BatchResult(finalState != null ? finalState : batch, errorMessage);
+    }
+    
+    private void validateAggregateStock(Map<Integer, Integer> perBeneficiary, int beneficiaryCount) {
+        for (Map.Entry<Integer, Integer> entry : perBeneficiary.entrySet()) {
+            InventoryItem inventoryItem = inventoryDAO.getById(entry.getKey());
+            if (inventoryItem == null) {
+                throw new IllegalArgumentException("Inventory item not found: " + entry.getKey());
             }
+            
+            long totalNeeded = (long) entry.getValue() * beneficiaryCount;
+            if (inventoryItem.getQuantity() < totalNeeded) {
+                throw new IllegalArgumentException("Insufficient stock for " + inventoryItem.getItemName() + 
+                    ". Available: " + inventoryItem.getQuantity() + ", Requested: " + totalNeeded);
+            }
+        }
+    }
+    
+    /**
+     * Distribute to one chunk of beneficiaries inside the caller's transaction
+     */
+    private List<Distribution> distributeChunk(Connection conn, int batchId, List<Integer> beneficiaryIds,
+                                               Map<Integer, Integer> perBeneficiary, Integer calamityId,
+                                               int distributedBy, String notes,
+                                               LocalDateTime distributionDate) throws SQLException {
+        // One conditional decrement per item for the whole chunk
+        Map<Integer, InventoryDAO.StockChange> changes = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Integer> entry : perBeneficiary.entrySet()) {
+            int chunkTotal = entry.getValue() * beneficiaryIds.size();
+            InventoryDAO.StockChange change = inventoryDAO.decrementIfAvailable(conn, entry.getKey(), chunkTotal);
+            if (change == null) {
+                DistributionItem shortItem = new DistributionItem();
+                shortItem.setInventoryId(entry.getKey());
+                shortItem.setQuantity(chunkTotal);
+                throw insufficientStock(conn, shortItem);
+            }
+            changes.put(entry.getKey(), change);
+        }
+        
+        List<Distribution> distributions = new ArrayList<>(beneficiaryIds.size());
+        for (int beneficiaryId : beneficiaryIds) {
+            Distribution distribution = new Distribution();
+            distribution.setBeneficiaryId(beneficiaryId);
+            distribution.setCalamityId(calamityId);
+            distribution.setDistributedBy(distributedBy);
+            distribution.setDistributionDate(distributionDate);
+            distribution.setNotes(notes);
+            distribution.setBatchId(batchId);
+            
+            List<DistributionItem> items = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> entry : perBeneficiary.entrySet()) {
+                DistributionItem item = new DistributionItem();
+                item.setInventoryId(entry.getKey());
+                item.setQuantity(entry.getValue());
+                items.add(item);
+            }
+            distribution.setItems(items);
+            distributions.add(distribution);
+        }
+        
+        distributionDAO.createBatch(conn, distributions);
+        
+        List<Integer> distributionIds = new ArrayList<>(distributions.size());
+        for (Distribution distribution : distributions) {
+            distributionIds.add(distribution.getId());
+        }
+        rollupDAO.addDistributions(conn, distributionIds);
+        
+        // One ledger row per household and item, chained from the chunk's stock change
+        List<InventoryTransaction> ledger = new ArrayList<>(distributions.size() * perBeneficiary.size());
+        for (Map.Entry<Integer, Integer> entry : perBeneficiary.entrySet()) {
+            int quantity = entry.getValue();
+            int running = changes.get(entry.getKey()).getQuantityBefore();
+            
+            for (Distribution distribution : distributions) {
+                ledger.add(inventoryService.buildTransaction(
+                    entry.getKey(),
+                    "Distribution",
+                    -quantity,
+                    running,
+                    running - quantity,
+                    distributedBy,
+                    "Distribution to beneficiary ID: " + distribution.getBeneficiaryId(),
+                    distribution.getId(),
+                    "Distribution"
+                ));
+                running -= quantity;
+            }
+        }
+        inventoryService.logTransactions(conn, ledger);
+        return distributions;
+    }
+    
+    /**
+     * Receives batch progress (read from the checkpoint) after each committed chunk
+     */
+    public interface BatchProgressListener {
+        void onProgress(int processed, int total);
+    }
+    
+    /**
+     * Outcome of a batch distribution run
+     */
+    public static class BatchResult {
+        private final DistributionBatch batch;
+        private final String errorMessage;
+        
+        public BatchResult(DistributionBatch batch, String errorMessage) {
+            this.batch = batch;
+            this.errorMessage = errorMessage;
+        }
+        
+        public int getBatchId() {
+            return batch.getId();
+        }
+        
+        public int getTotalCount() {
+            return batch.getTotalCount();
+        }
+        
+        public int getDistributedCount() {
+            return batch.getProcessedCount();
+        }
+        
+        public int getRemainingCount() {
+            return batch.getRemainingCount();
+        }
+        
+        public String getErrorMessage() {
+            return errorMessage;
         }
         
-        return success;
+        public boolean isComplete() {
+            return batch.isCompleted();
+        }
+        
+        public boolean isVoided() {
+            return batch.isVoided();
+        }
     }
     
     /**
@@ -106,45 +483,65 @@ public class DistributionService {
         return distributionDAO.getDistributionStats(beneficiaryId);
     }
     
+    /**
+     * Get distribution statistics for a set of beneficiaries from the summary table
+     */
+    public Map<Integer, DistributionDAO.DistributionStats> getDistributionStats(Collection<Integer> beneficiaryIds) {
+        return distributionDAO.getDistributionStats(beneficiaryIds);
+    }
+    
+    /**
+     * Get distribution statistics for all beneficiaries that have received aid
+     */
+    public Map<Integer, DistributionDAO.DistributionStats> getAllDistributionStats() {
+        return distributionDAO.getAllDistributionStats();
+    }
+    
     /**
      * Void (delete) a distribution and restore inventory
      */
     public boolean voidDistribution(int distributionId) {
-        Distribution distribution = distributionDAO.getById(distributionId);
-        if (distribution == null) {
-            throw new IllegalArgumentException("Distribution not found");
-        }
-        
-        // Get distribution items before deletion
-        List<DistributionItem> items = distributionDAO.deleteDistribution(distributionId);
-        
-        if (items != null && !items.isEmpty()) {
-            // Restore inventory quantities and log transactions
-            for (DistributionItem item : items) {
-                InventoryItem invItem = inventoryDAO.getById(item.getInventoryId());
-                if (invItem != null) {
-                    int quantityBefore = invItem.getQuantity();
-                    inventoryDAO.updateQuantity(item.getInventoryId(), item.getQuantity());
-                    int quantityAfter = quantityBefore + item.getQuantity();
-                    
-                    // Log transaction
+        try {
+            return TransactionTemplate.execute(conn -> {
+                Distribution distribution = distributionDAO.getById(distributionId);
+                if (distribution == null) {
+                    throw new IllegalArgumentException("Distribution not found");
+                }
+                
+                // Take it out of the rollups, then get its items while deleting it
+                rollupDAO.removeDistributions(conn, Collections.singletonList(distributionId));
+                List<DistributionItem> items = distributionDAO.deleteDistribution(conn, distributionId);
+                if (items.isEmpty()) {
+                    // Returning would commit the delete while reporting failure
+                    throw new SQLException("Distribution has no items to restore: " + distributionId);
+                }
+                
+                // Restore inventory quantities and log transactions
+                for (DistributionItem item : items) {
+                    InventoryDAO.StockChange change =
+                        inventoryDAO.adjustQuantity(conn, item.getInventoryId(), item.getQuantity());
+                    if (change == null) {
+                        throw new SQLException("Inventory item not found: " + item.getInventoryId());
+                    }
                     inventoryService.logTransaction(
+                        conn,
                         item.getInventoryId(),
                         "Void Distribution",
                         item.getQuantity(),
-                        quantityBefore,
-                        quantityAfter,
+                        change.getQuantityBefore(),
+                        change.getQuantityAfter(),
                         null, // User ID not available in void operation
                         "Distribution voided - ID: " + distributionId,
                         distributionId,
                         "Distribution"
                     );
                 }
-            }
-            return true;
+                return true;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error voiding distribution: " + e.getMessage());
+            e.printStackTrace();
+            return false;
         }
-        
-        return false;
     }
 }
-
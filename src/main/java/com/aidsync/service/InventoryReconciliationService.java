@@ -0,0 +1,297 @@
+package com.aidsync.service;
+
+import com.aidsync.dao.InventoryDAO;
+import com.aidsync.dao.InventoryTransactionDAO;
+import com.aidsync.model.InventoryItem;
+import com.aidsync.model.InventoryTransaction;
+import com.aidsync.util.DatabaseManager;
+import com.aidsync.util.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Checks inventory.quantity against the inventory_transactions ledger.
+ *
+ * Each item's ledger is streamed once in order and only the previous row is
+ * kept, so memory does not grow with the ledger. Rows must add up
+ * (before + change = after), each row must start where the previous one ended,
+ * and the last row must end at the item's current quantity. Items are checked
+ * in parallel, each on its own read connection and read transaction, so the
+ * quantity and ledger it compares come from one consistent snapshot.
+ */
+public class InventoryReconciliationService {
+    private static final int MAX_PARALLEL_ITEMS = 4;
+    // Discrepancies kept per item; the rest are only counted
+    private static final int MAX_DISCREPANCIES_PER_ITEM = 20;
+    
+    private final InventoryDAO inventoryDAO;
+    private final InventoryTransactionDAO transactionDAO;
+    private final InventoryService inventoryService;
+    
+    public InventoryReconciliationService() {
+        this.inventoryDAO = new InventoryDAO();
+        this.transactionDAO = new InventoryTransactionDAO();
+        this.inventoryService = new InventoryService();
+    }
+    
+    /**
+     * Reconcile every inventory item
+     */
+    public ReconciliationReport reconcile() {
+        List<InventoryItem> items = inventoryDAO.getAll();
+        ExecutorService executor = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(MAX_PARALLEL_ITEMS, items.size())));
+        ReconciliationReport report = new ReconciliationReport();
+        
+        try {
+            List<Future<ItemResult>> futures = new ArrayList<>(items.size());
+            for (InventoryItem item : items) {
+                futures.add(executor.submit(() -> reconcileItem(item)));
+            }
+            for (Future<ItemResult> future : futures) {
+                try {
+                    report.results.add(future.get());
+                } catch (ExecutionException e) {
+                    System.err.println("Error reconciling inventory item: " + e.getCause().getMessage());
+                    e.getCause().printStackTrace();
+                    report.failedItems++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        return report;
+    }
+    
+    /**
+     * Stream one item's ledger and compare it with its quantity
+     */
+    private ItemResult reconcileItem(InventoryItem item) throws SQLException {
+        ItemResult result = new ItemResult(item.getId(), item.getItemName());
+        
+        try (Connection conn = DatabaseManager.getReadConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                InventoryItem current = inventoryDAO.getById(conn, item.getId());
+                if (current == null) {
+                    return result;
+                }
+                result.inventoryQuantity = current.getQuantity();
+                
+                result.ledgerRows = transactionDAO.streamLedger(conn, item.getId(),
+                    (transactionId, quantityBefore, quantityChange, quantityAfter) -> {
+                        if (quantityBefore + quantityChange != quantityAfter) {
+                            result.addDiscrepancy(new Discrepancy(Discrepancy.ARITHMETIC, transactionId,
+                                quantityBefore + quantityChange, quantityAfter));
+                        }
+                        if (result.ledgerQuantity != null && quantityBefore != result.ledgerQuantity) {
+                            result.addDiscrepancy(new Discrepancy(Discrepancy.CONTINUITY, transactionId,
+                                result.ledgerQuantity, quantityBefore));
+                        }
+                        result.ledgerQuantity = quantityAfter;
+                    });
+                
+                if (result.ledgerQuantity != null && result.ledgerQuantity != result.inventoryQuantity) {
+                    result.addDiscrepancy(new Discrepancy(Discrepancy.DRIFT, null,
+                        result.ledgerQuantity, result.inventoryQuantity));
+                }
+            } finally {
+                // Ends the read transaction
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Append one adjusting ledger row per drifted item so the ledger ends at the
+     * current quantity (which is the enforced stock and is left unchanged).
+     * Drift is re-checked inside the transaction, so a stale report repairs
+     * nothing twice. Returns the number of items adjusted, or -1 on error.
+     */
+    public int repair(ReconciliationReport report, Integer userId) {
+        try {
+            return TransactionTemplate.execute(conn -> {
+                List<InventoryTransaction> adjustments = new ArrayList<>();
+                for (ItemResult result : report.getDriftedItems()) {
+                    InventoryItem item = inventoryDAO.getById(conn, result.getItemId());
+                    Integer ledgerQuantity = transactionDAO.getLastQuantityAfter(conn, result.getItemId());
+                    if (item == null || ledgerQuantity == null || ledgerQuantity == item.getQuantity()) {
+                        continue;
+                    }
+                    adjustments.add(inventoryService.buildTransaction(item.getId(), "Set Quantity",
+                        item.getQuantity() - ledgerQuantity, ledgerQuantity, item.getQuantity(), userId,
+                        "Reconciliation adjustment", null, "Reconciliation"));
+                }
+                inventoryService.logTransactions(conn, adjustments);
+                return adjustments.size();
+            });
+        } catch (SQLException e) {
+            System.err.println("Error repairing inventory ledger: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+    
+    /**
+     * Result of a reconciliation run
+     */
+    public static class ReconciliationReport {
+        private final List<ItemResult> results = new ArrayList<>();
+        private int failedItems;
+        
+        public List<ItemResult> getResults() {
+            return results;
+        }
+        
+        /**
+         * Items whose ledger does not end at their current quantity
+         */
+        public List<ItemResult> getDriftedItems() {
+            List<ItemResult> drifted = new ArrayList<>();
+            for (ItemResult result : results) {
+                if (result.hasDrift()) {
+                    drifted.add(result);
+                }
+            }
+            return drifted;
+        }
+        
+        public int getDiscrepancyCount() {
+            int count = 0;
+            for (ItemResult result : results) {
+                count += result.getDiscrepancyCount();
+            }
+            return count;
+        }
+        
+        public int getFailedItems() {
+            return failedItems;
+        }
+    }
+    
+    /**
+     * Reconciliation of one item
+     */
+    public static class ItemResult {
+        private final int itemId;
+        private final String itemName;
+        private int inventoryQuantity;
+        private Integer ledgerQuantity;
+        private int ledgerRows;
+        private int discrepancyCount;
+        private boolean drift;
+        private final List<Discrepancy> discrepancies = new ArrayList<>();
+        
+        ItemResult(int itemId, String itemName) {
+            this.itemId = itemId;
+            this.itemName = itemName;
+        }
+        
+        private void addDiscrepancy(Discrepancy discrepancy) {
+            discrepancyCount++;
+            if (Discrepancy.DRIFT.equals(discrepancy.getType())) {
+                drift = true;
+            }
+            if (discrepancies.size() < MAX_DISCREPANCIES_PER_ITEM || drift) {
+                discrepancies.add(discrepancy);
+            }
+        }
+        
+        public int getItemId() {
+            return itemId;
+        }
+        
+        public String getItemName() {
+            return itemName;
+        }
+        
+        public int getInventoryQuantity() {
+            return inventoryQuantity;
+        }
+        
+        /**
+         * quantity_after of the last ledger row, or null if the item has no ledger
+         */
+        public Integer getLedgerQuantity() {
+            return ledgerQuantity;
+        }
+        
+        public int getLedgerRows() {
+            return ledgerRows;
+        }
+        
+        public int getDiscrepancyCount() {
+            return discrepancyCount;
+        }
+        
+        public boolean hasDrift() {
+            return drift;
+        }
+        
+        /**
+         * The first discrepancies found (plus the drift, if any)
+         */
+        public List<Discrepancy> getDiscrepancies() {
+            return discrepancies;
+        }
+    }
+    
+    /**
+     * One mismatch between what the ledger implies and what is stored
+     */
+    public static class Discrepancy {
+        public static final String ARITHMETIC = "Arithmetic";
+        public static final String CONTINUITY = "Continuity";
+        public static final String DRIFT = "Drift";
+        
+        private final String type;
+        private final Integer transactionId;
+        private final int expected;
+        private final int actual;
+        
+        Discrepancy(String type, Integer transactionId, int expected, int actual) {
+            this.type = type;
+            this.transactionId = transactionId;
+            this.expected = expected;
+            this.actual = actual;
+        }
+        
+        public String getType() {
+            return type;
+        }
+        
+        /**
+         * Ledger row where it was found (null for drift)
+         */
+        public Integer getTransactionId() {
+            return transactionId;
+        }
+        
+        public int getExpected() {
+            return expected;
+        }
+        
+        public int getActual() {
+            return actual;
+        }
+        
+        @Override
+        public String toString() {
+            return type + (transactionId != null ? " at transaction #" + transactionId : "") +
+                ": expected " + expected + ", found " + actual;
+        }
+    }
+}
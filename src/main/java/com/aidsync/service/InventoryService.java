@@ -1,11 +1,24 @@
 package com.aidsync.service;
 
+import com.aidsync.dao.DailyRollupDAO;
 import com.aidsync.dao.InventoryDAO;
+import com.aidsync.dao.InventorySnapshotDAO;
 import com.aidsync.dao.InventoryTransactionDAO;
 import com.aidsync.model.InventoryItem;
 import com.aidsync.model.InventoryTransaction;
+import com.aidsync.util.TransactionTemplate;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service layer for Inventory operations
@@ -13,10 +26,22 @@ import java.util.List;
 public class InventoryService {
     private final InventoryDAO inventoryDAO;
     private final InventoryTransactionDAO transactionDAO;
+    private final InventorySnapshotDAO snapshotDAO;
+    private final DailyRollupDAO rollupDAO;
+    
+    // Ledger rows an item must gain before it is snapshotted again
+    private static final int SNAPSHOT_MIN_NEW_ROWS = 200;
+    private static final long SNAPSHOT_INTERVAL_MINUTES = 60;
+    // Ledger timestamps are CURRENT_TIMESTAMP text, which is UTC
+    private static final DateTimeFormatter LEDGER_TIME_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneOffset.UTC);
+    private static ScheduledExecutorService snapshotScheduler;
     
     public InventoryService() {
         this.inventoryDAO = new InventoryDAO();
         this.transactionDAO = new InventoryTransactionDAO();
+        this.snapshotDAO = new InventorySnapshotDAO();
+        this.rollupDAO = new DailyRollupDAO();
     }
     
     /**
@@ -78,31 +103,22 @@ public class InventoryService {
             throw new IllegalArgumentException("Restock quantity must be greater than 0");
         }
         
-        InventoryItem item = inventoryDAO.getById(inventoryId);
-        if (item == null) {
-            throw new IllegalArgumentException("Inventory item not found");
-        }
-        
-        int quantityBefore = item.getQuantity();
-        int quantityAfter = quantityBefore + quantityToAdd;
-        
-        // Update quantity
-        boolean success = inventoryDAO.updateQuantity(inventoryId, quantityToAdd);
-        
-        if (success) {
-            // Log transaction
-            InventoryTransaction transaction = new InventoryTransaction();
-            transaction.setInventoryId(inventoryId);
-            transaction.setUserId(userId);
-            transaction.setTransactionType("Restock");
-            transaction.setQuantityChange(quantityToAdd);
-            transaction.setQuantityBefore(quantityBefore);
-            transaction.setQuantityAfter(quantityAfter);
-            transaction.setNotes(notes);
-            transactionDAO.create(transaction);
+        try {
+            return TransactionTemplate.execute(conn -> {
+                // Update quantity and log transaction in the same commit
+                InventoryDAO.StockChange change = inventoryDAO.adjustQuantity(conn, inventoryId, quantityToAdd);
+                if (change == null) {
+                    throw new IllegalArgumentException("Inventory item not found");
+                }
+                logTransaction(conn, inventoryId, "Restock", quantityToAdd, change.getQuantityBefore(),
+                    change.getQuantityAfter(), userId, notes, null, null);
+                return true;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error restocking inventory item: " + e.getMessage());
+            e.printStackTrace();
+            return false;
         }
-        
-        return success;
     }
     
     /**
@@ -113,32 +129,34 @@ public class InventoryService {
             throw new IllegalArgumentException("Quantity cannot be negative");
         }
         
-        InventoryItem item = inventoryDAO.getById(inventoryId);
-        if (item == null) {
-            throw new IllegalArgumentException("Inventory item not found");
+        try {
+            return TransactionTemplate.execute(conn -> {
+                InventoryItem item = inventoryDAO.getById(conn, inventoryId);
+                if (item == null) {
+                    throw new IllegalArgumentException("Inventory item not found");
+                }
+                
+                int quantityBefore = item.getQuantity();
+                int quantityChange = newQuantity - quantityBefore;
+                
+                // Update quantity directly
+                item.setQuantity(newQuantity);
+                if (!inventoryDAO.update(conn, item)) {
+                    return false;
+                }
+                
+                // Log transaction only if quantity changed
+                if (quantityChange != 0) {
+                    logTransaction(conn, inventoryId, "Set Quantity", quantityChange, quantityBefore, newQuantity,
+                        userId, notes, null, null);
+                }
+                return true;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error setting inventory quantity: " + e.getMessage());
+            e.printStackTrace();
+            return false;
         }
-        
-        int quantityBefore = item.getQuantity();
-        int quantityChange = newQuantity - quantityBefore;
-        
-        // Update quantity directly
-        item.setQuantity(newQuantity);
-        boolean success = inventoryDAO.update(item);
-        
-        if (success && quantityChange != 0) {
-            // Log transaction only if quantity changed
-            InventoryTransaction transaction = new InventoryTransaction();
-            transaction.setInventoryId(inventoryId);
-            transaction.setUserId(userId);
-            transaction.setTransactionType("Set Quantity");
-            transaction.setQuantityChange(quantityChange);
-            transaction.setQuantityBefore(quantityBefore);
-            transaction.setQuantityAfter(newQuantity);
-            transaction.setNotes(notes);
-            transactionDAO.create(transaction);
-        }
-        
-        return success;
     }
     
     /**
@@ -147,6 +165,43 @@ public class InventoryService {
     public void logTransaction(int inventoryId, String transactionType, int quantityChange, 
                               int quantityBefore, int quantityAfter, Integer userId, 
                               String notes, Integer referenceId, String referenceType) {
+        try {
+            TransactionTemplate.execute(conn -> {
+                logTransaction(conn, inventoryId, transactionType, quantityChange, quantityBefore, quantityAfter,
+                    userId, notes, referenceId, referenceType);
+                return null;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error logging inventory transaction: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Log inventory transaction inside the caller's transaction, counting it
+     * into today's stock movement rollup
+     */
+    public void logTransaction(Connection conn, int inventoryId, String transactionType, int quantityChange,
+                              int quantityBefore, int quantityAfter, Integer userId,
+                              String notes, Integer referenceId, String referenceType) throws SQLException {
+        InventoryTransaction transaction = buildTransaction(inventoryId, transactionType, quantityChange,
+            quantityBefore, quantityAfter, userId, notes, referenceId, referenceType);
+        transactionDAO.create(conn, transaction);
+        rollupDAO.addMovements(conn, Collections.singletonList(transaction));
+    }
+    
+    /**
+     * Log many inventory transactions with one batch inside the caller's
+     * transaction, counting them into today's stock movement rollup
+     */
+    public void logTransactions(Connection conn, List<InventoryTransaction> transactions) throws SQLException {
+        transactionDAO.createBatch(conn, transactions);
+        rollupDAO.addMovements(conn, transactions);
+    }
+    
+    InventoryTransaction buildTransaction(int inventoryId, String transactionType, int quantityChange,
+                                                  int quantityBefore, int quantityAfter, Integer userId,
+                                                  String notes, Integer referenceId, String referenceType) {
         InventoryTransaction transaction = new InventoryTransaction();
         transaction.setInventoryId(inventoryId);
         transaction.setUserId(userId);
@@ -157,7 +212,7 @@ public class InventoryService {
         transaction.setNotes(notes);
         transaction.setReferenceId(referenceId);
         transaction.setReferenceType(referenceType);
-        transactionDAO.create(transaction);
+        return transaction;
     }
     
     /**
@@ -173,5 +228,67 @@ public class InventoryService {
     public List<InventoryTransaction> getAllTransactions() {
         return transactionDAO.getAll();
     }
+    
+    /**
+     * Get one page of the ledger matching the filter, newest first. Pass the last
+     * row of the previous page as after to seek instead of skipping offset rows.
+     */
+    public List<InventoryTransaction> getTransactionPage(InventoryTransactionDAO.LedgerFilter filter,
+                                                         InventoryTransaction after, int offset, int limit) {
+        return transactionDAO.findPage(filter, after, offset, limit);
+    }
+    
+    /**
+     * Count ledger entries matching the filter
+     */
+    public int countTransactions(InventoryTransactionDAO.LedgerFilter filter) {
+        return transactionDAO.count(filter);
+    }
+    
+    /**
+     * Stock of an item at a point in time, or null if the item does not exist.
+     * Starts from the nearest earlier snapshot and replays only the ledger after it.
+     */
+    public Integer getStockAsOf(int itemId, Instant instant) {
+        return snapshotDAO.getStockAsOf(itemId, LEDGER_TIME_FORMAT.format(instant)).get(itemId);
+    }
+    
+    /**
+     * Stock of every item at a point in time, keyed by item ID
+     */
+    public Map<Integer, Integer> getStockAsOf(Instant instant) {
+        return snapshotDAO.getStockAsOf(null, LEDGER_TIME_FORMAT.format(instant));
+    }
+    
+    /**
+     * Snapshot items whose ledger has grown since their last snapshot.
+     * Returns the number of snapshots taken, or -1 on error.
+     */
+    public int takeStockSnapshots() {
+        try {
+            return TransactionTemplate.execute(conn -> snapshotDAO.takeSnapshots(conn, SNAPSHOT_MIN_NEW_ROWS));
+        } catch (SQLException e) {
+            System.err.println("Error taking stock snapshots: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+    
+    /**
+     * Take stock snapshots in the background now and then every hour
+     */
+    public static synchronized void startSnapshotSchedule() {
+        if (snapshotScheduler != null) {
+            return;
+        }
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-snapshots");
+            thread.setDaemon(true);
+            return thread;
+        });
+        InventoryService service = new InventoryService();
+        snapshotScheduler.scheduleWithFixedDelay(service::takeStockSnapshots,
+            0, SNAPSHOT_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
 }
 
@@ -0,0 +1,100 @@
+package com.aidsync.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of report results keyed by report type plus filter parameters.
+ * Each entry remembers the version of the tables it was computed from and is
+ * only served while that version is still current.
+ */
+public class ReportCache {
+    private final int maxEntries;
+    private final Map<String, CachedResult> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    
+    ReportCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<String, CachedResult>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                return size() > ReportCache.this.maxEntries;
+            }
+        };
+    }
+    
+    /**
+     * Cached value for key if it was computed at version, otherwise null
+     */
+    @SuppressWarnings("unchecked")
+    synchronized <T> T get(String key, long version) {
+        CachedResult entry = entries.get(key);
+        if (entry != null && entry.version == version) {
+            hits.incrementAndGet();
+            return (T) entry.value;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+    
+    synchronized void put(String key, long version, Object value) {
+        entries.put(key, new CachedResult(version, value));
+    }
+    
+    synchronized CacheStats getStats() {
+        return new CacheStats(hits.get(), misses.get(), entries.size());
+    }
+    
+    private static class CachedResult {
+        private final long version;
+        private final Object value;
+        
+        private CachedResult(long version, Object value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+    
+    /**
+     * Cache hit metrics
+     */
+    public static class CacheStats {
+        private final long hits;
+        private final long misses;
+        private final int entries;
+        
+        CacheStats(long hits, long misses, int entries) {
+            this.hits = hits;
+            this.misses = misses;
+            this.entries = entries;
+        }
+        
+        public long getHits() {
+            return hits;
+        }
+        
+        public long getMisses() {
+            return misses;
+        }
+        
+        public int getEntries() {
+            return entries;
+        }
+        
+        /**
+         * Share of lookups served from the cache (0 when there were none)
+         */
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%d hits, %d misses (%.0f%% hit rate), %d entries",
+                hits, misses, getHitRate() * 100, entries);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.aidsync.service;
+
+import com.aidsync.dao.ReportDAO;
+import com.aidsync.dao.ReportDAO.DistributionReportFilter;
+import com.aidsync.dao.ReportDAO.DistributionReportHandler;
+import com.aidsync.dao.ReportDAO.DistributionReportRow;
+import com.aidsync.dao.ReportDAO.StockMovement;
+import com.aidsync.dao.ReportDAO.SummaryTotals;
+import com.aidsync.dao.ReportDAO.TopCalamityRow;
+import com.aidsync.dao.ReportDAO.TopItemRow;
+import com.aidsync.util.ChangeTracker;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Service layer for reports. Aggregates are computed in SQL, mostly from the
+ * daily rollup tables, and returned as rows ready to be shown.
+ *
+ * Results are cached per report and filter values together with the change
+ * version of the tables they read, so opening a report again serves it from
+ * memory until one of those tables is written.
+ */
+public class ReportService {
+    public static final int TOP_LIMIT = 10;
+    
+    private static final int CACHE_MAX_ENTRIES = 32;
+    // Larger distribution reports are streamed every time rather than held in memory
+    private static final int MAX_CACHED_REPORT_ROWS = 5000;
+    
+    private static final ReportCache cache = new ReportCache(CACHE_MAX_ENTRIES);
+    
+    private final ReportDAO reportDAO;
+    
+    public ReportService() {
+        this.reportDAO = new ReportDAO();
+    }
+    
+    /**
+     * Get the summary dashboard totals
+     */
+    public SummaryTotals getSummaryTotals() {
+        return cached("summary",
+            ChangeTracker.getVersion(ChangeTracker.BENEFICIARIES, ChangeTracker.DISTRIBUTIONS, ChangeTracker.INVENTORY),
+            reportDAO::getSummaryTotals);
+    }
+    
+    /**
+     * Get the most distributed items
+     */
+    public List<TopItemRow> getTopItems() {
+        return cached("topItems|" + TOP_LIMIT,
+            ChangeTracker.getVersion(ChangeTracker.DISTRIBUTIONS, ChangeTracker.INVENTORY),
+            () -> Collections.unmodifiableList(reportDAO.getTopItems(TOP_LIMIT)));
+    }
+    
+    /**
+     * Get the calamities with the most distributions
+     */
+    public List<TopCalamityRow> getTopCalamities() {
+        return cached("topCalamities|" + TOP_LIMIT,
+            ChangeTracker.getVersion(ChangeTracker.DISTRIBUTIONS, ChangeTracker.CALAMITIES),
+            () -> Collections.unmodifiableList(reportDAO.getTopCalamities(TOP_LIMIT)));
+    }
+    
+    /**
+     * Stream the filtered distribution report to handler, newest first.
+     * Returns the number of rows streamed.
+     */
+    public int streamDistributionReport(DistributionReportFilter filter, DistributionReportHandler handler) {
+        String key = "distributionReport|" + filter.getFromDate() + "|" + filter.getToDate() + "|" +
+            filter.getCalamityName() + "|" + filter.getBarangay();
+        long version = ChangeTracker.getVersion(ChangeTracker.DISTRIBUTIONS, ChangeTracker.BENEFICIARIES,
+            ChangeTracker.CALAMITIES, ChangeTracker.USERS, ChangeTracker.INVENTORY);
+        
+        List<DistributionReportRow> rows = cache.get(key, version);
+        if (rows != null) {
+            for (DistributionReportRow row : rows) {
+                handler.accept(row);
+            }
+            return rows.size();
+        }
+        
+        List<DistributionReportRow> collected = new ArrayList<>();
+        int count = reportDAO.streamDistributionReport(filter, row -> {
+            if (collected.size() <= MAX_CACHED_REPORT_ROWS) {
+                collected.add(row);
+            }
+            handler.accept(row);
+        });
+        if (collected.size() <= MAX_CACHED_REPORT_ROWS) {
+            cache.put(key, version, Collections.unmodifiableList(collected));
+        }
+        return count;
+    }
+    
+    /**
+     * Get each item's stock movement over the last days days (including today), by inventory ID
+     */
+    public Map<Integer, StockMovement> getRecentStockMovement(int days) {
+        LocalDate fromDay = LocalDate.now().minusDays(days - 1);
+        return cached("stockMovement|" + fromDay,
+            ChangeTracker.getVersion(ChangeTracker.INVENTORY_TRANSACTIONS),
+            () -> Collections.unmodifiableMap(reportDAO.getStockMovementSince(fromDay)));
+    }
+    
+    /**
+     * Report cache hits, misses and size since startup
+     */
+    public static ReportCache.CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+    
+    /**
+     * Serve a report from the cache, or compute and cache it. The version is read
+     * before computing, so a write that lands meanwhile makes the entry stale.
+     */
+    private static <T> T cached(String key, long version, Supplier<T> loader) {
+        T value = cache.get(key, version);
+        if (value == null) {
+            value = loader.get();
+            cache.put(key, version, value);
+        }
+        return value;
+    }
+}
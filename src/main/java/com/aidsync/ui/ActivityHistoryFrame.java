@@ -5,8 +5,9 @@ import com.aidsync.service.ActivityLogService;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
@@ -15,7 +16,9 @@ import java.util.List;
  */
 public class ActivityHistoryFrame extends JFrame {
     private JTable activityTable;
-    private DefaultTableModel tableModel;
+    private PagedTableModel<ActivityLog> tableModel;
+    private JComboBox<String> userFilter;
+    private JComboBox<String> periodFilter;
     private ActivityLogService activityLogService;
     
     private static final Color PRIMARY_COLOR = new Color(0, 102, 204);
@@ -26,6 +29,10 @@ public class ActivityHistoryFrame extends JFrame {
     
     private static final Font TABLE_FONT = new Font("Segoe UI", Font.PLAIN, 13);
     private static final Font BUTTON_FONT = new Font("Segoe UI", Font.PLAIN, 13);
+    
+    private static final String ALL_USERS = "All Users";
+    private static final String[] PERIODS = {"All Time", "Today", "Last 7 Days", "Last 30 Days"};
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     public ActivityHistoryFrame() {
         this.activityLogService = new ActivityLogService();
@@ -57,6 +64,20 @@ public class ActivityHistoryFrame extends JFrame {
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
         buttonPanel.setBackground(BACKGROUND_COLOR);
         
+        userFilter = new JComboBox<>();
+        userFilter.setFont(BUTTON_FONT);
+        userFilter.addItem(ALL_USERS);
+        for (String username : activityLogService.getLoggedUsernames()) {
+            userFilter.addItem(username);
+        }
+        userFilter.addActionListener(e -> loadActivityLogs());
+        buttonPanel.add(userFilter);
+        
+        periodFilter = new JComboBox<>(PERIODS);
+        periodFilter.setFont(BUTTON_FONT);
+        periodFilter.addActionListener(e -> loadActivityLogs());
+        buttonPanel.add(periodFilter);
+        
         JButton backButton = new JButton("Back");
         backButton.setFont(BUTTON_FONT);
         backButton.setBackground(BACKGROUND_COLOR);
@@ -84,12 +105,14 @@ public class ActivityHistoryFrame extends JFrame {
 
         // Table
         String[] columnNames = {"Timestamp", "User", "Action", "Details"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
+        tableModel = new PagedTableModel<>(columnNames, null, (log, column) -> {
+            switch (column) {
+                case 0: return log.getTimestamp() != null ? log.getTimestamp().format(TIMESTAMP_FORMATTER) : "";
+                case 1: return log.getUsername();
+                case 2: return log.getAction();
+                default: return log.getDetails();
             }
-        };
+        });
 
         activityTable = new JTable(tableModel);
         activityTable.setFont(TABLE_FONT);
@@ -128,19 +151,40 @@ public class ActivityHistoryFrame extends JFrame {
         add(mainPanel);
     }
 
+    /**
+     * Show the log for the selected user and period, newest first. Rows are
+     * read from activity_log in blocks as the table scrolls.
+     */
     private void loadActivityLogs() {
-        tableModel.setRowCount(0);
-        List<ActivityLog> logs = activityLogService.getAllLogs();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-
-        for (ActivityLog log : logs) {
-            Object[] row = {
-                log.getTimestamp().format(formatter),
-                log.getUsername(),
-                log.getAction(),
-                log.getDetails()
-            };
-            tableModel.addRow(row);
+        String selectedUser = (String) userFilter.getSelectedItem();
+        String username = ALL_USERS.equals(selectedUser) ? null : selectedUser;
+        LocalDateTime from = getPeriodStart((String) periodFilter.getSelectedItem());
+        
+        tableModel.setSource(new PagedTableModel.RowSource<ActivityLog>() {
+            @Override
+            public int count() {
+                return activityLogService.countLogs(username, from, null);
+            }
+            
+            @Override
+            public List<ActivityLog> load(int offset, int limit, ActivityLog previous) {
+                return activityLogService.getLogs(username, from, null, previous, offset, limit);
+            }
+        });
+    }
+    
+    /**
+     * Start of the selected period, or null for all time
+     */
+    private static LocalDateTime getPeriodStart(String period) {
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        if ("Today".equals(period)) {
+            return today;
+        } else if ("Last 7 Days".equals(period)) {
+            return today.minusDays(6);
+        } else if ("Last 30 Days".equals(period)) {
+            return today.minusDays(29);
         }
+        return null;
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,8 @@
 package com.aidsync.ui;
 
 import com.aidsync.model.Beneficiary;
+import com.aidsync.model.DistributionBatch;
+import com.aidsync.model.DistributionItem;
 import com.aidsync.model.InventoryItem;
 import com.aidsync.model.User;
 import com.aidsync.service.DistributionService;
@@ -9,6 +11,7 @@ import com.aidsync.service.InventoryService;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -16,6 +19,7 @@ import java.util.List;
  */
 public class BatchDistributeDialog extends JDialog {
     private final List<Beneficiary> beneficiaries;
+    private final DistributionBatch resumeBatch;
     private final DistributionService distributionService;
     private final InventoryService inventoryService;
     private final User currentUser;
@@ -36,6 +40,7 @@ public class BatchDistributeDialog extends JDialog {
                                User currentUser, Runnable onComplete) {
         super(parent, "Batch Distribute to " + beneficiaries.size() + " Beneficiaries", true);
         this.beneficiaries = beneficiaries;
+        this.resumeBatch = null;
         this.distributionService = distributionService;
         this.inventoryService = inventoryService;
         this.currentUser = currentUser;
@@ -45,6 +50,29 @@ public class BatchDistributeDialog extends JDialog {
         loadInventoryItems();
     }
     
+    /**
+     * Resume an interrupted batch from its last checkpoint
+     */
+    public BatchDistributeDialog(JFrame parent, DistributionBatch resumeBatch,
+                               DistributionService distributionService,
+                               InventoryService inventoryService,
+                               User currentUser, Runnable onComplete) {
+        super(parent, "Resume Batch Distribution #" + resumeBatch.getId(), true);
+        this.beneficiaries = new ArrayList<>();
+        this.resumeBatch = resumeBatch;
+        this.distributionService = distributionService;
+        this.inventoryService = inventoryService;
+        this.currentUser = currentUser;
+        this.onComplete = onComplete;
+        
+        initializeUI();
+        loadInventoryItems();
+    }
+    
+    private int getTotalCount() {
+        return resumeBatch != null ? resumeBatch.getTotalCount() : beneficiaries.size();
+    }
+    
     private void initializeUI() {
         setSize(600, 500);
         setLocationRelativeTo(getParent());
@@ -55,7 +83,9 @@ public class BatchDistributeDialog extends JDialog {
         mainPanel.setBackground(BACKGROUND_COLOR);
         
         // Header
-        JLabel headerLabel = new JLabel("Distribute to " + beneficiaries.size() + " selected beneficiaries");
+        JLabel headerLabel = new JLabel(resumeBatch != null
+            ? "Resume distribution: " + resumeBatch.getProcessedCount() + " of " + resumeBatch.getTotalCount() + " already served"
+            : "Distribute to " + beneficiaries.size() + " selected beneficiaries");
         headerLabel.setFont(new Font("Segoe UI", Font.BOLD, 16));
         headerLabel.setForeground(PRIMARY_COLOR);
         mainPanel.add(headerLabel, BorderLayout.NORTH);
@@ -107,7 +137,7 @@ public class BatchDistributeDialog extends JDialog {
         statusLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
         progressPanel.add(statusLabel, BorderLayout.NORTH);
         
-        progressBar = new JProgressBar(0, beneficiaries.size());
+        progressBar = new JProgressBar(0, getTotalCount());
         progressBar.setStringPainted(true);
         progressBar.setVisible(false);
         progressPanel.add(progressBar, BorderLayout.CENTER);
@@ -123,7 +153,7 @@ public class BatchDistributeDialog extends JDialog {
         cancelButton.addActionListener(e -> dispose());
         buttonPanel.add(cancelButton);
         
-        JButton distributeButton = new JButton("Start Distribution");
+        JButton distributeButton = new JButton(resumeBatch != null ? "Resume Distribution" : "Start Distribution");
         distributeButton.setBackground(PRIMARY_COLOR);
         distributeButton.setForeground(Color.WHITE);
         distributeButton.addActionListener(e -> startBatchDistribution());
@@ -136,12 +166,32 @@ public class BatchDistributeDialog extends JDialog {
     private void loadInventoryItems() {
         List<InventoryItem> items = inventoryService.getAllInventoryItems();
         DefaultListModel<InventoryItem> model = new DefaultListModel<>();
-        for (InventoryItem item : items) {
-            if (item.getQuantity() > 0) {
-                model.addElement(item);
+        if (resumeBatch != null) {
+            // The batch's items and quantity are fixed; show them read-only
+            for (DistributionItem batchItem : resumeBatch.getItems()) {
+                for (InventoryItem item : items) {
+                    if (item.getId() == batchItem.getInventoryId()) {
+                        model.addElement(item);
+                    }
+                }
             }
+            itemList.setModel(model);
+            itemList.setSelectionInterval(0, model.getSize() - 1);
+            itemList.setEnabled(false);
+            if (!resumeBatch.getItems().isEmpty()) {
+                quantitySpinner.setValue(resumeBatch.getItems().get(0).getQuantity());
+            }
+            quantitySpinner.setEnabled(false);
+            notesArea.setText(resumeBatch.getNotes() != null ? resumeBatch.getNotes() : "");
+            notesArea.setEditable(false);
+        } else {
+            for (InventoryItem item : items) {
+                if (item.getQuantity() > 0) {
+                    model.addElement(item);
+                }
+            }
+            itemList.setModel(model);
         }
-        itemList.setModel(model);
         
         itemList.setCellRenderer(new DefaultListCellRenderer() {
             @Override
@@ -158,6 +208,11 @@ public class BatchDistributeDialog extends JDialog {
     }
     
     private void startBatchDistribution() {
+        if (resumeBatch != null) {
+            runInBackground(listener -> distributionService.resumeBatch(resumeBatch.getId(), listener));
+            return;
+        }
+        
         List<InventoryItem> selectedItems = itemList.getSelectedValuesList();
         if (selectedItems.isEmpty()) {
             JOptionPane.showMessageDialog(this, "Please select at least one item.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -179,66 +234,79 @@ public class BatchDistributeDialog extends JDialog {
             }
         }
         
-        // Start background distribution
-        SwingWorker<Void, Integer> worker = new SwingWorker<Void, Integer>() {
+        List<Integer> beneficiaryIds = new ArrayList<>(beneficiaries.size());
+        for (Beneficiary beneficiary : beneficiaries) {
+            beneficiaryIds.add(beneficiary.getId());
+        }
+        
+        List<DistributionItem> itemsPerBeneficiary = new ArrayList<>();
+        for (InventoryItem item : selectedItems) {
+            DistributionItem distItem = new DistributionItem();
+            distItem.setInventoryId(item.getId());
+            distItem.setQuantity(quantity);
+            itemsPerBeneficiary.add(distItem);
+        }
+        
+        runInBackground(listener -> distributionService.createBatch(beneficiaryIds, itemsPerBeneficiary, null,
+            currentUser.getId(), notes.isEmpty() ? null : notes, listener));
+    }
+    
+    /**
+     * Run a batch (new or resumed) off the EDT; progress comes from the batch checkpoints
+     */
+    private void runInBackground(java.util.function.Function<DistributionService.BatchProgressListener,
+                                 DistributionService.BatchResult> batchRun) {
+        SwingWorker<DistributionService.BatchResult, Integer> worker = new SwingWorker<DistributionService.BatchResult, Integer>() {
             @Override
-            protected Void doInBackground() throws Exception {
+            protected DistributionService.BatchResult doInBackground() throws Exception {
                 SwingUtilities.invokeLater(() -> {
                     progressBar.setVisible(true);
-                    progressBar.setValue(0);
+                    progressBar.setValue(resumeBatch != null ? resumeBatch.getProcessedCount() : 0);
                     statusLabel.setText("Starting batch distribution...");
                 });
                 
-                int completed = 0;
-                for (Beneficiary beneficiary : beneficiaries) {
-                    try {
-                        // Create distribution using existing service method
-                        com.aidsync.model.Distribution distribution = new com.aidsync.model.Distribution();
-                        distribution.setBeneficiaryId(beneficiary.getId());
-                        distribution.setDistributedBy(currentUser.getId());
-                        distribution.setNotes(notes.isEmpty() ? null : notes);
-                        
-                        // Create distribution items
-                        java.util.List<com.aidsync.model.DistributionItem> items = new java.util.ArrayList<>();
-                        for (InventoryItem item : selectedItems) {
-                            com.aidsync.model.DistributionItem distItem = new com.aidsync.model.DistributionItem();
-                            distItem.setInventoryId(item.getId());
-                            distItem.setQuantity(quantity);
-                            items.add(distItem);
-                        }
-                        distribution.setItems(items);
-                        
-                        boolean success = distributionService.createDistribution(distribution);
-                        
-                        if (success) {
-                            completed++;
-                        }
-                        
-                        publish(completed);
-                        
-                    } catch (Exception e) {
-                        System.err.println("Error distributing to beneficiary " + beneficiary.getBeneficiaryId() + ": " + e.getMessage());
-                    }
-                }
-                
-                return null;
+                return batchRun.apply((processed, total) -> publish(processed));
             }
             
             @Override
             protected void process(List<Integer> chunks) {
                 int latest = chunks.get(chunks.size() - 1);
                 progressBar.setValue(latest);
-                statusLabel.setText("Distributed to " + latest + " of " + beneficiaries.size() + " beneficiaries");
+                statusLabel.setText("Distributed to " + latest + " of " + getTotalCount() + " beneficiaries");
             }
             
             @Override
             protected void done() {
                 progressBar.setVisible(false);
-                statusLabel.setText("Batch distribution completed!");
                 
-                JOptionPane.showMessageDialog(BatchDistributeDialog.this,
-                    "Successfully distributed to " + progressBar.getValue() + " beneficiaries.",
-                    "Distribution Complete", JOptionPane.INFORMATION_MESSAGE);
+                try {
+                    DistributionService.BatchResult result = get();
+                    statusLabel.setText("Batch distribution completed!");
+                    
+                    if (result.isVoided()) {
+                        statusLabel.setText("Batch distribution voided");
+                        JOptionPane.showMessageDialog(BatchDistributeDialog.this,
+                            "Batch #" + result.getBatchId() + " was voided while it was running.\n" +
+                            "Its distributions were reversed and the remaining beneficiaries were not served.",
+                            "Distribution Voided", JOptionPane.WARNING_MESSAGE);
+                    } else if (result.isComplete()) {
+                        JOptionPane.showMessageDialog(BatchDistributeDialog.this,
+                            "Successfully distributed to " + result.getDistributedCount() + " beneficiaries.",
+                            "Distribution Complete", JOptionPane.INFORMATION_MESSAGE);
+                    } else {
+                        JOptionPane.showMessageDialog(BatchDistributeDialog.this,
+                            "Distributed to " + result.getDistributedCount() + " of " + result.getTotalCount() +
+                            " beneficiaries.\n" + result.getRemainingCount() + " not yet served: " +
+                            result.getErrorMessage() + "\nThe batch can be resumed from Batch Distribute.",
+                            "Distribution Incomplete", JOptionPane.WARNING_MESSAGE);
+                    }
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    statusLabel.setText("Batch distribution failed");
+                    JOptionPane.showMessageDialog(BatchDistributeDialog.this,
+                        "Batch distribution failed: " + cause.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                }
                 
                 if (onComplete != null) {
                     onComplete.run();
@@ -249,4 +317,4 @@ public class BatchDistributeDialog extends JDialog {
         
         worker.execute();
     }
-}
\ No newline at end of file
+}
@@ -381,8 +381,9 @@ public class BeneficiaryDistributionDialog extends JDialog {
             int itemCount = 0;
             
             for (DistributionItem item : dist.getItems()) {
-                // Get inventory item name
-                com.aidsync.model.InventoryItem invItem = inventoryService.getInventoryItemById(item.getInventoryId());
+                // Item name and unit come with the distribution query
+                com.aidsync.model.InventoryItem invItem = item.getInventoryItem() != null
+                    ? item.getInventoryItem() : inventoryService.getInventoryItemById(item.getInventoryId());
                 if (invItem != null) {
                     if (itemCount > 0) {
                         itemsStr.append("<br>");
@@ -9,10 +9,10 @@ import com.aidsync.util.BarangayData;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Beneficiary Management Screen
@@ -27,7 +27,7 @@ import java.util.List;
 public class BeneficiaryManagementFrame extends JFrame {
     // ==================== UI Components ====================
     private JTable beneficiaryTable;
-    private DefaultTableModel tableModel;
+    private PagedTableModel<Beneficiary> tableModel;
     private JTextField searchField;
     private JButton addButton;
     private JButton editButton;
@@ -48,6 +48,7 @@ public class BeneficiaryManagementFrame extends JFrame {
     private JCheckBox soloParentFilter;
     private JSpinner minFamilySizeFilter;
     private JSpinner maxFamilySizeFilter;
+    private JLabel resultCountLabel;
     
     // ==================== Services & Data ====================
     private BeneficiaryService beneficiaryService;
@@ -508,26 +509,49 @@ public class BeneficiaryManagementFrame extends JFrame {
         JScrollPane scrollPane = createTableScrollPane();
         tablePanel.add(scrollPane, BorderLayout.CENTER);
         
+        tablePanel.add(createResultCountPanel(), BorderLayout.SOUTH);
+        
         return tablePanel;
     }
     
+    /**
+     * Create the result count bar
+     */
+    private JPanel createResultCountPanel() {
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBackground(BACKGROUND_COLOR);
+        panel.setBorder(new EmptyBorder(PADDING_SMALL, 0, 0, 0));
+        
+        resultCountLabel = new JLabel(" ");
+        resultCountLabel.setFont(LABEL_FONT);
+        resultCountLabel.setForeground(LABEL_COLOR);
+        panel.add(resultCountLabel, BorderLayout.WEST);
+        
+        return panel;
+    }
+    
     /**
      * Create the table with scroll pane
      */
     private JScrollPane createTableScrollPane() {
         String[] columnNames = {"ID", "Name", "Barangay", "Purok", "Family Size", "Status", "Date Registered"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-            
-            @Override
-            public Class<?> getColumnClass(int column) {
-                if (column == 4) return Integer.class; // Family Size
-                return String.class;
+        // Family Size is an Integer column
+        Class<?>[] columnClasses = {String.class, String.class, String.class, String.class,
+            Integer.class, String.class, String.class};
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        tableModel = new PagedTableModel<>(columnNames, columnClasses, (b, column) -> {
+            switch (column) {
+                case 0: return b.getBeneficiaryId();
+                case 1: return b.getFullName();
+                case 2: return b.getBarangay();
+                case 3: return b.getPurok();
+                case 4: return b.getFamilySize();
+                case 5: return b.getStatus();
+                default: return b.getDateRegistered() != null ? b.getDateRegistered().format(formatter) : "";
             }
-        };
+        });
+        tableModel.setRefreshListener(() ->
+            resultCountLabel.setText(tableModel.getRowCount() + " beneficiaries"));
         
         beneficiaryTable = new JTable(tableModel);
         beneficiaryTable.setFont(TABLE_FONT);
@@ -629,32 +653,15 @@ public class BeneficiaryManagementFrame extends JFrame {
      * Load all beneficiaries into the table
      */
     private void loadBeneficiaries() {
+        // Clear search field
+        searchField.setText("");
+        
         // For staff users, automatically filter by their barangay
+        FilterCriteria criteria = new FilterCriteria();
         if (currentUser.isStaff() && currentUser.getBarangay() != null) {
-            FilterCriteria criteria = new FilterCriteria();
             criteria.setBarangay(currentUser.getBarangay());
-            loadBeneficiariesWithFilter(criteria, null);
-        } else {
-            tableModel.setRowCount(0);
-            List<Beneficiary> beneficiaries = beneficiaryService.getAllBeneficiaries();
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            
-            for (Beneficiary b : beneficiaries) {
-                Object[] row = {
-                    b.getBeneficiaryId(),
-                    b.getFullName(),
-                    b.getBarangay(),
-                    b.getPurok(),
-                    b.getFamilySize(),
-                    b.getStatus(),
-                    b.getDateRegistered() != null ? b.getDateRegistered().format(formatter) : ""
-                };
-                tableModel.addRow(row);
-            }
-            
-            // Clear search field
-            searchField.setText("");
         }
+        loadBeneficiariesWithFilter(criteria, null);
     }
     
     /**
@@ -669,26 +676,30 @@ public class BeneficiaryManagementFrame extends JFrame {
         loadBeneficiariesWithFilter(criteria, searchField.getText().trim());
     }
     
+    /**
+     * Show a new filter; rows are read in blocks as the table scrolls
+     */
     private void loadBeneficiariesWithFilter(FilterCriteria criteria, String searchTerm) {
-        tableModel.setRowCount(0);
-        
-        List<Beneficiary> beneficiaries = beneficiaryService.filterBeneficiaries(criteria, 
-            searchTerm.isEmpty() ? null : searchTerm);
-        
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        
-        for (Beneficiary b : beneficiaries) {
-            Object[] row = {
-                b.getBeneficiaryId(),
-                b.getFullName(),
-                b.getBarangay(),
-                b.getPurok(),
-                b.getFamilySize(),
-                b.getStatus(),
-                b.getDateRegistered() != null ? b.getDateRegistered().format(formatter) : ""
-            };
-            tableModel.addRow(row);
-        }
+        resultCountLabel.setText("Loading beneficiaries...");
+        tableModel.setSource(new PagedTableModel.RowSource<Beneficiary>() {
+            @Override
+            public int count() {
+                return beneficiaryService.countBeneficiaries(criteria, searchTerm);
+            }
+            
+            @Override
+            public List<Beneficiary> load(int offset, int limit, Beneficiary previous) {
+                return beneficiaryService.getBeneficiaryBlock(criteria, searchTerm, offset, limit, previous);
+            }
+        });
+    }
+    
+    /**
+     * Pass the beneficiary in a table row (null if it is gone) to action,
+     * loading its block in the background if needed
+     */
+    private void withBeneficiaryAt(int row, Consumer<Beneficiary> action) {
+        tableModel.loadRows(new int[] {row}, loaded -> action.accept(loaded.isEmpty() ? null : loaded.get(0)));
     }
     
     // ==================== Dialog Operations ====================
@@ -715,13 +726,15 @@ public class BeneficiaryManagementFrame extends JFrame {
             return;
         }
         
-        String beneficiaryId = (String) tableModel.getValueAt(selectedRow, 0);
-        Beneficiary beneficiary = beneficiaryService.getBeneficiaryByBeneficiaryId(beneficiaryId);
-        if (beneficiary != null) {
-            openAddEditDialog(beneficiary);
-        } else {
-            showErrorDialog("Error", "Beneficiary not found.");
-        }
+        withBeneficiaryAt(selectedRow, row -> {
+            // Re-read the record so the dialog edits current data
+            Beneficiary beneficiary = row != null ? beneficiaryService.getBeneficiaryByBeneficiaryId(row.getBeneficiaryId()) : null;
+            if (beneficiary != null) {
+                openAddEditDialog(beneficiary);
+            } else {
+                showErrorDialog("Error", "Beneficiary not found.");
+            }
+        });
     }
     
     /**
@@ -734,33 +747,39 @@ public class BeneficiaryManagementFrame extends JFrame {
             return;
         }
         
-        String beneficiaryId = (String) tableModel.getValueAt(selectedRow, 0);
-        String beneficiaryName = (String) tableModel.getValueAt(selectedRow, 1);
-        
-        int result = JOptionPane.showConfirmDialog(
-            this,
-            "Are you sure you want to delete this beneficiary?\n\n" +
-            "Beneficiary: " + beneficiaryName + "\n" +
-            "ID: " + beneficiaryId + "\n\n" +
-            "The record will be moved to recycle bin for 30 days.",
-            "Confirm Delete",
-            JOptionPane.YES_NO_OPTION,
-            JOptionPane.WARNING_MESSAGE
-        );
-        
-        if (result == JOptionPane.YES_OPTION) {
-            Beneficiary beneficiary = beneficiaryService.getBeneficiaryByBeneficiaryId(beneficiaryId);
-            if (beneficiary != null) {
-                if (beneficiaryService.deleteBeneficiary(beneficiary.getId(), currentUser.getUsername())) {
-                    showSuccessDialog("Success", "Beneficiary deleted successfully.");
-                    loadBeneficiaries();
+        withBeneficiaryAt(selectedRow, row -> {
+            if (row == null) {
+                showErrorDialog("Error", "Beneficiary not found.");
+                return;
+            }
+            String beneficiaryId = row.getBeneficiaryId();
+            String beneficiaryName = row.getFullName();
+            
+            int result = JOptionPane.showConfirmDialog(
+                this,
+                "Are you sure you want to delete this beneficiary?\n\n" +
+                "Beneficiary: " + beneficiaryName + "\n" +
+                "ID: " + beneficiaryId + "\n\n" +
+                "The record will be moved to recycle bin for 30 days.",
+                "Confirm Delete",
+                JOptionPane.YES_NO_OPTION,
+                JOptionPane.WARNING_MESSAGE
+            );
+            
+            if (result == JOptionPane.YES_OPTION) {
+                Beneficiary beneficiary = beneficiaryService.getBeneficiaryByBeneficiaryId(beneficiaryId);
+                if (beneficiary != null) {
+                    if (beneficiaryService.deleteBeneficiary(beneficiary.getId(), currentUser.getUsername())) {
+                        showSuccessDialog("Success", "Beneficiary deleted successfully.");
+                        loadBeneficiaries();
+                    } else {
+                        showErrorDialog("Error", "Failed to delete beneficiary.");
+                    }
                 } else {
-                    showErrorDialog("Error", "Failed to delete beneficiary.");
+                    showErrorDialog("Error", "Beneficiary not found.");
                 }
-            } else {
-                showErrorDialog("Error", "Beneficiary not found.");
             }
-        }
+        });
     }
     
     // ==================== Dialog Helpers ====================
@@ -1,6 +1,9 @@
 package com.aidsync.ui;
 
+import com.aidsync.dao.DistributionDAO;
 import com.aidsync.model.Beneficiary;
+import com.aidsync.model.DistributionBatch;
+import com.aidsync.model.FilterCriteria;
 import com.aidsync.model.User;
 import com.aidsync.service.BeneficiaryService;
 import com.aidsync.service.DistributionService;
@@ -9,10 +12,10 @@ import com.aidsync.service.InventoryService;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Distribution Management Screen
@@ -25,7 +28,7 @@ import java.util.List;
 public class DistributionFrame extends JFrame {
     // ==================== UI Components ====================
     private JTable beneficiaryTable;
-    private DefaultTableModel tableModel;
+    private PagedTableModel<BeneficiaryRow> tableModel;
     private JTextField searchField;
     private JButton searchButton;
     private JButton refreshButton;
@@ -34,13 +37,9 @@ public class DistributionFrame extends JFrame {
     private JProgressBar progressBar;
     private JLabel statusLabel;
     
-    // ==================== Pagination ====================
-    private int currentPage = 0;
-    private int pageSize = 100;
-    private int totalRecords = 0;
-    private JButton prevButton;
-    private JButton nextButton;
-    private JLabel pageLabel;
+    // ==================== Search-as-you-type ====================
+    private static final int SEARCH_DEBOUNCE_MILLIS = 250;
+    private Timer searchDebounceTimer;
     
     // ==================== Services & Data ====================
     private User currentUser;
@@ -82,6 +81,11 @@ public class DistributionFrame extends JFrame {
         initializeUI();
         initializeFilters();
         loadBeneficiaries();
+        
+        // Build the trigram index before the first keystroke
+        Thread warmUp = new Thread(beneficiaryService::warmUpSearchIndex, "search-index-warmup");
+        warmUp.setDaemon(true);
+        warmUp.start();
     }
     
     // ==================== UI Initialization ====================
@@ -155,6 +159,26 @@ public class DistributionFrame extends JFrame {
         searchField.addActionListener(e -> performSearch());
         searchPanel.add(searchField);
         
+        // Search as the user types, once they pause
+        searchDebounceTimer = new Timer(SEARCH_DEBOUNCE_MILLIS, e -> performSearch());
+        searchDebounceTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            @Override
+            public void insertUpdate(javax.swing.event.DocumentEvent e) {
+                searchDebounceTimer.restart();
+            }
+            
+            @Override
+            public void removeUpdate(javax.swing.event.DocumentEvent e) {
+                searchDebounceTimer.restart();
+            }
+            
+            @Override
+            public void changedUpdate(javax.swing.event.DocumentEvent e) {
+                searchDebounceTimer.restart();
+            }
+        });
+        
         searchButton = createSearchButton();
         searchPanel.add(searchButton);
         
@@ -200,6 +224,9 @@ public class DistributionFrame extends JFrame {
         buttonPanel.add(backButton);
         buttonPanel.add(refreshButton);
         
+        JButton voidBatchButton = createActionButton("Void Batch", BACKGROUND_COLOR, LABEL_COLOR, e -> openVoidBatchDialog());
+        buttonPanel.add(voidBatchButton);
+        
         JButton batchDistributeButton = createPrimaryButton("Batch Distribute", e -> openBatchDistributeDialog());
         JButton quickDistributeButton = createPrimaryButton("Quick Distribute", e -> openQuickDistributeDialog());
         buttonPanel.add(batchDistributeButton);
@@ -333,10 +360,6 @@ public class DistributionFrame extends JFrame {
         JScrollPane scrollPane = createTableScrollPane();
         tablePanel.add(scrollPane, BorderLayout.CENTER);
         
-        // Pagination panel
-        JPanel paginationPanel = createPaginationPanel();
-        tablePanel.add(paginationPanel, BorderLayout.SOUTH);
-        
         return tablePanel;
     }
     
@@ -345,18 +368,28 @@ public class DistributionFrame extends JFrame {
      */
     private JScrollPane createTableScrollPane() {
         String[] columnNames = {"ID", "Name", "Barangay", "Purok", "Family Size", "Distributions", "Last Distribution", "Total Items"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-            
-            @Override
-            public Class<?> getColumnClass(int column) {
-                if (column == 4 || column == 5 || column == 7) return Integer.class; // Family Size, Distributions, Total Items
-                return String.class;
+        // Family Size, Distributions and Total Items are Integer columns
+        Class<?>[] columnClasses = {String.class, String.class, String.class, String.class,
+            Integer.class, Integer.class, String.class, Integer.class};
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        tableModel = new PagedTableModel<>(columnNames, columnClasses, (row, column) -> {
+            Beneficiary b = row.beneficiary;
+            switch (column) {
+                case 0: return b.getBeneficiaryId();
+                case 1: return b.getFullName();
+                case 2: return b.getBarangay();
+                case 3: return b.getPurok();
+                case 4: return b.getFamilySize();
+                case 5: return row.stats.getDistributionCount();
+                case 6: return row.stats.getLastDistributionDate() != null ?
+                    row.stats.getLastDistributionDate().format(formatter) : "Never";
+                default: return row.stats.getTotalItemsReceived();
             }
-        };
+        });
+        tableModel.setRefreshListener(() -> {
+            progressBar.setVisible(false);
+            statusLabel.setText(tableModel.getRowCount() + " beneficiaries");
+        });
         
         beneficiaryTable = new JTable(tableModel);
         beneficiaryTable.setFont(TABLE_FONT);
@@ -468,91 +501,90 @@ public class DistributionFrame extends JFrame {
     // ==================== Data Operations ====================
     
     /**
-     * Load beneficiaries with pagination (keeps existing method for compatibility)
+     * Reload the list (keeps existing method for compatibility).
+     * Filters are re-read so search hits reflect records changed meanwhile.
      */
     private void loadBeneficiaries() {
-        loadBeneficiariesPaginated(currentPage, pageSize);
+        progressBar.setVisible(true);
+        progressBar.setIndeterminate(true);
+        statusLabel.setText("Loading beneficiaries...");
+        tableModel.setSource(createRowSource(buildFilterCriteria(), searchField.getText().trim()));
     }
     
     /**
-     * Load beneficiaries with pagination support
+     * Row source for the current filters. Rows are read in blocks as the table
+     * scrolls; each block seeks past the last row of the block before it and
+     * loads its distribution stats with one summary-table lookup.
      */
-    private void loadBeneficiariesPaginated(int page, int size) {
-        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
+    private PagedTableModel.RowSource<BeneficiaryRow> createRowSource(FilterCriteria criteria, String searchTerm) {
+        return new PagedTableModel.RowSource<BeneficiaryRow>() {
             @Override
-            protected Void doInBackground() throws Exception {
-                SwingUtilities.invokeLater(() -> {
-                    progressBar.setVisible(true);
-                    progressBar.setIndeterminate(true);
-                    statusLabel.setText("Loading beneficiaries...");
-                });
-                
-                List<Beneficiary> allBeneficiaries = beneficiaryService.getAllBeneficiaries();
-                totalRecords = allBeneficiaries.size();
-                
-                // Apply filters
-                allBeneficiaries = applyFilters(allBeneficiaries);
-                
-                // Pagination
-                int start = page * size;
-                int end = Math.min(start + size, allBeneficiaries.size());
-                List<Beneficiary> pageBeneficiaries = allBeneficiaries.subList(start, end);
+            public int count() {
+                // The search term is answered by the in-memory index once per filter;
+                // its hits then page through SQL together with the other filters
+                if (!searchTerm.isEmpty() && criteria.getBeneficiaryIds() == null) {
+                    criteria.setBeneficiaryIds(beneficiaryService.searchBeneficiaryIds(searchTerm));
+                }
+                return beneficiaryService.countBeneficiaries(criteria, null);
+            }
+            
+            @Override
+            public List<BeneficiaryRow> load(int offset, int limit, BeneficiaryRow previous) {
+                List<Beneficiary> beneficiaries = beneficiaryService.getBeneficiaryBlock(
+                    criteria, null, offset, limit, previous != null ? previous.beneficiary : null);
                 
-                SwingUtilities.invokeLater(() -> {
-                    tableModel.setRowCount(0);
-                    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-                    
-                    for (Beneficiary b : pageBeneficiaries) {
-                        com.aidsync.dao.DistributionDAO.DistributionStats stats = 
-                            distributionService.getDistributionStats(b.getId());
-                        
-                        Object[] row = {
-                            b.getBeneficiaryId(),
-                            b.getFullName(),
-                            b.getBarangay(),
-                            b.getPurok(),
-                            b.getFamilySize(),
-                            stats.getDistributionCount(),
-                            stats.getLastDistributionDate() != null ? 
-                                stats.getLastDistributionDate().format(formatter) : "Never",
-                            stats.getTotalItemsReceived()
-                        };
-                        tableModel.addRow(row);
-                    }
-                    
-                    updatePaginationControls();
-                    progressBar.setVisible(false);
-                    statusLabel.setText("Showing " + pageBeneficiaries.size() + " of " + totalRecords + " beneficiaries");
-                });
+                List<Integer> ids = new java.util.ArrayList<>(beneficiaries.size());
+                for (Beneficiary b : beneficiaries) {
+                    ids.add(b.getId());
+                }
+                java.util.Map<Integer, DistributionDAO.DistributionStats> stats =
+                    distributionService.getDistributionStats(ids);
                 
-                return null;
+                List<BeneficiaryRow> rows = new java.util.ArrayList<>(beneficiaries.size());
+                for (Beneficiary b : beneficiaries) {
+                    rows.add(new BeneficiaryRow(b, stats.get(b.getId())));
+                }
+                return rows;
             }
         };
-        worker.execute();
     }
     
     /**
      * Perform search operation with filters
      */
     private void performSearch() {
-        currentPage = 0; // Reset to first page when searching
+        searchDebounceTimer.stop();
         loadBeneficiaries();
     }
     
+    /**
+     * Beneficiary with its distribution stats, one table row
+     */
+    private static class BeneficiaryRow {
+        private final Beneficiary beneficiary;
+        private final DistributionDAO.DistributionStats stats;
+        
+        private BeneficiaryRow(Beneficiary beneficiary, DistributionDAO.DistributionStats stats) {
+            this.beneficiary = beneficiary;
+            this.stats = stats;
+        }
+    }
+    
+    /**
+     * Pass the beneficiary in a table row (null if it is gone) to action,
+     * loading its block in the background if needed
+     */
+    private void withBeneficiaryAt(int row, Consumer<Beneficiary> action) {
+        tableModel.loadRows(new int[] {row}, loaded ->
+            action.accept(loaded.isEmpty() ? null : loaded.get(0).beneficiary));
+    }
+    
     /**
      * Initialize filter dropdowns
      */
     private void initializeFilters() {
         // Load barangays
-        java.util.Set<String> barangays = new java.util.HashSet<>();
-        List<Beneficiary> allBeneficiaries = beneficiaryService.getAllBeneficiaries();
-        for (Beneficiary b : allBeneficiaries) {
-            if (b.getBarangay() != null) {
-                barangays.add(b.getBarangay());
-            }
-        }
-        
-        for (String barangay : barangays) {
+        for (String barangay : beneficiaryService.getRegisteredBarangays()) {
             barangayFilter.addItem(barangay);
         }
     }
@@ -569,24 +601,24 @@ public class DistributionFrame extends JFrame {
             return;
         }
         
-        String beneficiaryId = (String) tableModel.getValueAt(selectedRow, 0);
-        Beneficiary beneficiary = beneficiaryService.getBeneficiaryByBeneficiaryId(beneficiaryId);
-        if (beneficiary != null) {
-            SwingUtilities.invokeLater(() -> {
-                BeneficiaryDistributionDialog dialog = new BeneficiaryDistributionDialog(
-                    this,
-                    beneficiary,
-                    beneficiaryService,
-                    distributionService,
-                    inventoryService,
-                    currentUser,
-                    () -> loadBeneficiaries()
-                );
-                dialog.setVisible(true);
-            });
-        } else {
-            showErrorDialog("Error", "Beneficiary not found.");
-        }
+        withBeneficiaryAt(selectedRow, beneficiary -> {
+            if (beneficiary != null) {
+                SwingUtilities.invokeLater(() -> {
+                    BeneficiaryDistributionDialog dialog = new BeneficiaryDistributionDialog(
+                        this,
+                        beneficiary,
+                        beneficiaryService,
+                        distributionService,
+                        inventoryService,
+                        currentUser,
+                        () -> loadBeneficiaries()
+                    );
+                    dialog.setVisible(true);
+                });
+            } else {
+                showErrorDialog("Error", "Beneficiary not found.");
+            }
+        });
     }
     
     /**
@@ -599,99 +631,46 @@ public class DistributionFrame extends JFrame {
             return;
         }
         
-        String beneficiaryId = (String) tableModel.getValueAt(selectedRow, 0);
-        Beneficiary beneficiary = beneficiaryService.getBeneficiaryByBeneficiaryId(beneficiaryId);
-        
-        if (beneficiary != null) {
-            SwingUtilities.invokeLater(() -> {
-                JDialog tempDialog = new JDialog(this, true);
-                tempDialog.setVisible(false);
-                
-                DistributionItemDialog dialog = new DistributionItemDialog(
-                    tempDialog,
-                    beneficiary,
-                    distributionService,
-                    inventoryService,
-                    currentUser,
-                    () -> loadBeneficiaries()
-                );
-                dialog.setVisible(true);
-                tempDialog.dispose();
-            });
-        } else {
-            showWarningDialog("Error", "Beneficiary not found.");
-        }
-    }
-    
-    // ==================== New Efficiency Methods ====================
-    
-    /**
-     * Create pagination panel
-     */
-    private JPanel createPaginationPanel() {
-        JPanel panel = new JPanel(new FlowLayout(FlowLayout.CENTER));
-        panel.setBackground(BACKGROUND_COLOR);
-        panel.setBorder(new EmptyBorder(PADDING_SMALL, 0, 0, 0));
-        
-        prevButton = new JButton("Previous");
-        prevButton.setFont(LABEL_FONT);
-        prevButton.addActionListener(e -> {
-            if (currentPage > 0) {
-                currentPage--;
-                loadBeneficiaries();
+        withBeneficiaryAt(selectedRow, beneficiary -> {
+            if (beneficiary != null) {
+                SwingUtilities.invokeLater(() -> {
+                    JDialog tempDialog = new JDialog(this, true);
+                    tempDialog.setVisible(false);
+                    
+                    DistributionItemDialog dialog = new DistributionItemDialog(
+                        tempDialog,
+                        beneficiary,
+                        distributionService,
+                        inventoryService,
+                        currentUser,
+                        () -> loadBeneficiaries()
+                    );
+                    dialog.setVisible(true);
+                    tempDialog.dispose();
+                });
+            } else {
+                showWarningDialog("Error", "Beneficiary not found.");
             }
         });
-        
-        nextButton = new JButton("Next");
-        nextButton.setFont(LABEL_FONT);
-        nextButton.addActionListener(e -> {
-            currentPage++;
-            loadBeneficiaries();
-        });
-        
-        pageLabel = new JLabel("Page 1");
-        pageLabel.setFont(LABEL_FONT);
-        pageLabel.setBorder(new EmptyBorder(0, 20, 0, 20));
-        
-        panel.add(prevButton);
-        panel.add(pageLabel);
-        panel.add(nextButton);
-        
-        return panel;
     }
     
-    /**
-     * Update pagination controls
-     */
-    private void updatePaginationControls() {
-        int totalPages = (int) Math.ceil((double) totalRecords / pageSize);
-        pageLabel.setText("Page " + (currentPage + 1) + " of " + Math.max(1, totalPages));
-        prevButton.setEnabled(currentPage > 0);
-        nextButton.setEnabled(currentPage < totalPages - 1);
-    }
+    // ==================== New Efficiency Methods ====================
     
     /**
-     * Apply filters to beneficiary list
+     * Build filter criteria from the barangay and status filters
      */
-    private List<Beneficiary> applyFilters(List<Beneficiary> beneficiaries) {
+    private FilterCriteria buildFilterCriteria() {
         String selectedBarangay = (String) barangayFilter.getSelectedItem();
         String selectedStatus = (String) statusFilter.getSelectedItem();
-        String searchTerm = searchField.getText().trim().toLowerCase();
-        
-        return beneficiaries.stream()
-            .filter(b -> selectedBarangay.equals("All") || b.getBarangay().equals(selectedBarangay))
-            .filter(b -> {
-                if (selectedStatus.equals("All")) return true;
-                if (selectedStatus.equals("Never Distributed")) {
-                    com.aidsync.dao.DistributionDAO.DistributionStats stats = distributionService.getDistributionStats(b.getId());
-                    return stats.getDistributionCount() == 0;
-                }
-                return true;
-            })
-            .filter(b -> searchTerm.isEmpty() || 
-                b.getFullName().toLowerCase().contains(searchTerm) ||
-                b.getBeneficiaryId().toLowerCase().contains(searchTerm))
-            .collect(java.util.stream.Collectors.toList());
+        
+        FilterCriteria criteria = new FilterCriteria();
+        if (selectedBarangay != null && !selectedBarangay.equals("All")) {
+            criteria.setBarangay(selectedBarangay);
+        }
+        if ("Never Distributed".equals(selectedStatus)) {
+            criteria.setNeverDistributed(true);
+        }
+        return criteria;
     }
     
     /**
@@ -725,33 +704,160 @@ public class DistributionFrame extends JFrame {
      * Open batch distribute dialog
      */
     private void openBatchDistributeDialog() {
+        if (offerResumeOfInterruptedBatch()) {
+            return;
+        }
+        
         int[] selectedRows = beneficiaryTable.getSelectedRows();
         if (selectedRows.length == 0) {
             showWarningDialog("No Selection", "Please select beneficiaries for batch distribution.");
             return;
         }
         
-        java.util.List<Beneficiary> selectedBeneficiaries = new java.util.ArrayList<>();
-        for (int row : selectedRows) {
-            String beneficiaryId = (String) tableModel.getValueAt(row, 0);
-            Beneficiary beneficiary = beneficiaryService.getBeneficiaryByBeneficiaryId(beneficiaryId);
-            if (beneficiary != null) {
-                selectedBeneficiaries.add(beneficiary);
+        // The selection can reach past the cached blocks; those are loaded in the background
+        tableModel.loadRows(selectedRows, rows -> {
+            java.util.List<Beneficiary> selectedBeneficiaries = new java.util.ArrayList<>();
+            for (BeneficiaryRow row : rows) {
+                selectedBeneficiaries.add(row.beneficiary);
             }
+            
+            if (!selectedBeneficiaries.isEmpty()) {
+                SwingUtilities.invokeLater(() -> {
+                    BatchDistributeDialog dialog = new BatchDistributeDialog(
+                        this,
+                        selectedBeneficiaries,
+                        distributionService,
+                        inventoryService,
+                        currentUser,
+                        () -> loadBeneficiaries()
+                    );
+                    dialog.setVisible(true);
+                });
+            }
+        });
+    }
+    
+    /**
+     * Offer to resume the most recent batch run that did not finish, or to abandon it
+     * so it is not offered again. Returns true if a resume dialog was opened.
+     */
+    private boolean offerResumeOfInterruptedBatch() {
+        List<DistributionBatch> incomplete = distributionService.getIncompleteBatches();
+        if (incomplete.isEmpty()) {
+            return false;
+        }
+        
+        DistributionBatch batch = incomplete.get(0);
+        String[] options = {"Resume", "Abandon", "Not Now"};
+        int choice = JOptionPane.showOptionDialog(
+            this,
+            "Batch distribution #" + batch.getId() + " did not finish (" + batch.getProcessedCount() + " of " +
+                batch.getTotalCount() + " beneficiaries served).\nResume it now?\n\n" +
+                "Abandon keeps the distributions already made and stops offering this batch.",
+            "Interrupted Batch",
+            JOptionPane.YES_NO_CANCEL_OPTION,
+            JOptionPane.QUESTION_MESSAGE,
+            null,
+            options,
+            options[0]
+        );
+        if (choice == 1) {
+            abandonBatch(batch);
+            return false;
+        }
+        if (choice != 0) {
+            return false;
         }
         
-        if (!selectedBeneficiaries.isEmpty()) {
-            SwingUtilities.invokeLater(() -> {
-                BatchDistributeDialog dialog = new BatchDistributeDialog(
-                    this,
-                    selectedBeneficiaries,
-                    distributionService,
-                    inventoryService,
-                    currentUser,
-                    () -> loadBeneficiaries()
-                );
-                dialog.setVisible(true);
-            });
+        SwingUtilities.invokeLater(() -> {
+            BatchDistributeDialog dialog = new BatchDistributeDialog(
+                this,
+                batch,
+                distributionService,
+                inventoryService,
+                currentUser,
+                () -> loadBeneficiaries()
+            );
+            dialog.setVisible(true);
+        });
+        return true;
+    }
+    
+    /**
+     * Mark an interrupted batch run as abandoned after the user confirms
+     */
+    private void abandonBatch(DistributionBatch batch) {
+        int choice = JOptionPane.showConfirmDialog(
+            this,
+            "Abandon batch distribution #" + batch.getId() + "?\nThe remaining " + batch.getRemainingCount() +
+                " beneficiaries will not be served by this batch.",
+            "Confirm Abandon",
+            JOptionPane.YES_NO_OPTION,
+            JOptionPane.WARNING_MESSAGE
+        );
+        if (choice != JOptionPane.YES_OPTION) {
+            return;
+        }
+        
+        try {
+            if (!distributionService.abandonBatch(batch.getId())) {
+                showErrorDialog("Error", "Failed to abandon batch distribution.");
+            }
+        } catch (IllegalArgumentException e) {
+            showErrorDialog("Error", e.getMessage());
+        }
+    }
+    
+    /**
+     * Let the user pick a recent batch run and void all of its distributions
+     */
+    private void openVoidBatchDialog() {
+        List<DistributionBatch> batches = distributionService.getActiveBatches(50);
+        if (batches.isEmpty()) {
+            showWarningDialog("No Batches", "There are no batch distributions to void.");
+            return;
+        }
+        
+        DistributionBatch batch = (DistributionBatch) JOptionPane.showInputDialog(
+            this,
+            "Select the batch distribution to void:",
+            "Void Batch",
+            JOptionPane.PLAIN_MESSAGE,
+            null,
+            batches.toArray(),
+            batches.get(0)
+        );
+        if (batch == null) {
+            return;
+        }
+        
+        int choice = JOptionPane.showConfirmDialog(
+            this,
+            "Void all " + batch.getProcessedCount() + " distributions of batch #" + batch.getId() + 
+                "?\nThe distributed items will be returned to inventory.",
+            "Confirm Void",
+            JOptionPane.YES_NO_OPTION,
+            JOptionPane.WARNING_MESSAGE
+        );
+        if (choice != JOptionPane.YES_OPTION) {
+            return;
+        }
+        
+        try {
+            int voided = distributionService.voidBatch(batch.getId(), currentUser.getId());
+            if (voided < 0) {
+                showErrorDialog("Error", "Failed to void batch distribution.");
+                return;
+            }
+            JOptionPane.showMessageDialog(
+                this,
+                voided + " distributions voided and inventory restored.",
+                "Batch Voided",
+                JOptionPane.INFORMATION_MESSAGE
+            );
+            loadBeneficiaries();
+        } catch (IllegalArgumentException e) {
+            showErrorDialog("Error", e.getMessage());
         }
     }
     
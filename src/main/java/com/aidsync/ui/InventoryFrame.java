@@ -2,6 +2,7 @@ package com.aidsync.ui;
 
 import com.aidsync.model.InventoryItem;
 import com.aidsync.model.User;
+import com.aidsync.service.InventoryReconciliationService;
 import com.aidsync.service.InventoryService;
 
 import javax.swing.*;
@@ -34,6 +35,7 @@ public class InventoryFrame extends JFrame {
     
     // ==================== Services & Data ====================
     private InventoryService inventoryService;
+    private InventoryReconciliationService reconciliationService;
     private User currentUser;
     
     // ==================== Color Constants ====================
@@ -68,6 +70,7 @@ public class InventoryFrame extends JFrame {
     public InventoryFrame(User user) {
         this.currentUser = user;
         this.inventoryService = new InventoryService();
+        this.reconciliationService = new InventoryReconciliationService();
         initializeUI();
         loadInventory();
         checkLowStockQuietly(); // Check but don't show popup immediately
@@ -172,6 +175,9 @@ public class InventoryFrame extends JFrame {
         JButton transactionHistoryButton = createSecondaryButton("Transaction History", e -> openTransactionHistory());
         buttonPanel.add(transactionHistoryButton);
         
+        JButton reconcileButton = createSecondaryButton("Reconcile", e -> runReconciliation((JButton) e.getSource()));
+        buttonPanel.add(reconcileButton);
+        
         // Edit button (secondary action)
         editButton = createSecondaryButton("Edit", e -> editSelectedItem());
         buttonPanel.add(editButton);
@@ -586,6 +592,115 @@ public class InventoryFrame extends JFrame {
         );
     }
     
+    /**
+     * Check stock against the transaction ledger in the background, show the
+     * discrepancy report and offer to append adjusting entries for drifted items
+     */
+    private void runReconciliation(JButton reconcileButton) {
+        reconcileButton.setEnabled(false);
+        new SwingWorker<InventoryReconciliationService.ReconciliationReport, Void>() {
+            @Override
+            protected InventoryReconciliationService.ReconciliationReport doInBackground() {
+                return reconciliationService.reconcile();
+            }
+            
+            @Override
+            protected void done() {
+                InventoryReconciliationService.ReconciliationReport report;
+                try {
+                    report = get();
+                } catch (Exception e) {
+                    reconcileButton.setEnabled(true);
+                    showErrorDialog("Error", "Reconciliation failed: " + e.getMessage());
+                    return;
+                }
+                showReconciliationReport(report, reconcileButton);
+            }
+        }.execute();
+    }
+    
+    /**
+     * Show a reconciliation report and offer the repair. The button stays
+     * disabled until the report is closed or the repair has finished.
+     */
+    private void showReconciliationReport(InventoryReconciliationService.ReconciliationReport report,
+                                          JButton reconcileButton) {
+        StringBuilder text = new StringBuilder();
+        text.append("Items checked: ").append(report.getResults().size())
+            .append("\nDiscrepancies: ").append(report.getDiscrepancyCount());
+        if (report.getFailedItems() > 0) {
+            text.append("\nItems that could not be checked: ").append(report.getFailedItems());
+        }
+        for (InventoryReconciliationService.ItemResult result : report.getResults()) {
+            if (result.getDiscrepancyCount() == 0) {
+                continue;
+            }
+            text.append("\n\n").append(result.getItemName())
+                .append(" (stock ").append(result.getInventoryQuantity())
+                .append(", ledger ").append(result.getLedgerQuantity() != null ? result.getLedgerQuantity() : "-")
+                .append(", ").append(result.getLedgerRows()).append(" entries)");
+            for (InventoryReconciliationService.Discrepancy discrepancy : result.getDiscrepancies()) {
+                text.append("\n  ").append(discrepancy);
+            }
+            int hidden = result.getDiscrepancyCount() - result.getDiscrepancies().size();
+            if (hidden > 0) {
+                text.append("\n  ... and ").append(hidden).append(" more");
+            }
+        }
+        
+        JTextArea reportArea = new JTextArea(text.toString(), 20, 60);
+        reportArea.setEditable(false);
+        reportArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        JScrollPane scrollPane = new JScrollPane(reportArea);
+        
+        int drifted = report.getDriftedItems().size();
+        if (drifted == 0) {
+            JOptionPane.showMessageDialog(this, scrollPane, "Inventory Reconciliation", JOptionPane.INFORMATION_MESSAGE);
+            reconcileButton.setEnabled(true);
+            return;
+        }
+        
+        int choice = JOptionPane.showConfirmDialog(
+            this,
+            new Object[] {scrollPane, drifted + " item(s) have a ledger that does not end at the current stock.\n" +
+                "Append adjusting ledger entries so the ledger matches the stock?"},
+            "Inventory Reconciliation",
+            JOptionPane.YES_NO_OPTION,
+            JOptionPane.WARNING_MESSAGE
+        );
+        if (choice != JOptionPane.YES_OPTION) {
+            reconcileButton.setEnabled(true);
+            return;
+        }
+        
+        // The repair waits for the writer connection, which a running batch can hold
+        Integer userId = currentUser != null ? currentUser.getId() : null;
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() {
+                return reconciliationService.repair(report, userId);
+            }
+            
+            @Override
+            protected void done() {
+                reconcileButton.setEnabled(true);
+                int repaired;
+                try {
+                    repaired = get();
+                } catch (Exception e) {
+                    repaired = -1;
+                }
+                if (repaired < 0) {
+                    showErrorDialog("Error", "Failed to write the adjusting entries.");
+                } else {
+                    JOptionPane.showMessageDialog(InventoryFrame.this,
+                        repaired + " adjusting entr" + (repaired == 1 ? "y" : "ies") + " added.",
+                        "Inventory Reconciliation", JOptionPane.INFORMATION_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+    
     /**
      * Open transaction history frame
      */
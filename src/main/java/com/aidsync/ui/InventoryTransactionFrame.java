@@ -1,5 +1,6 @@
 package com.aidsync.ui;
 
+import com.aidsync.dao.InventoryTransactionDAO;
 import com.aidsync.model.InventoryItem;
 import com.aidsync.model.InventoryTransaction;
 import com.aidsync.model.User;
@@ -8,8 +9,8 @@ import com.aidsync.service.InventoryService;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -27,10 +28,11 @@ import javax.swing.SpinnerDateModel;
 public class InventoryTransactionFrame extends JFrame {
     // ==================== UI Components ====================
     private JTable transactionTable;
-    private DefaultTableModel tableModel;
+    private PagedTableModel<InventoryTransaction> tableModel;
     private JComboBox<InventoryItem> itemFilterComboBox;
     private JComboBox<String> typeFilterComboBox;
     private JComboBox<String> userFilterComboBox;
+    private final List<Integer> userFilterIds = new java.util.ArrayList<>(); // follows "All Users" and "System"
     private JSpinner startDateSpinner;
     private JSpinner endDateSpinner;
     private JButton applyFilterButton;
@@ -41,6 +43,9 @@ public class InventoryTransactionFrame extends JFrame {
     private InventoryService inventoryService;
     private com.aidsync.service.UserService userService;
     
+    // ==================== User Filter Positions ====================
+    private static final int SYSTEM_USER_INDEX = 1;
+    
     // ==================== Color Constants ====================
     private static final Color PRIMARY_COLOR = new Color(0, 102, 204);
     private static final Color PRIMARY_DARK = new Color(0, 82, 164);
@@ -66,6 +71,8 @@ public class InventoryTransactionFrame extends JFrame {
     private static final int BUTTON_HEIGHT = 38;
     private static final int BUTTON_WIDTH = 120;
     
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
     // ==================== Constructor ====================
     public InventoryTransactionFrame(User user) {
         this.inventoryService = new InventoryService();
@@ -205,6 +212,7 @@ public class InventoryTransactionFrame extends JFrame {
         userFilterComboBox.setFont(LABEL_FONT);
         userFilterComboBox.setPreferredSize(new Dimension(150, 30));
         userFilterComboBox.addItem("All Users");
+        userFilterComboBox.addItem("System");
         filterPanel.add(userFilterComboBox);
         
         // Date range
@@ -245,12 +253,7 @@ public class InventoryTransactionFrame extends JFrame {
         
         String[] columnNames = {"Date/Time", "Item", "Transaction Type", "User", "Quantity Change", 
                                "Quantity Before", "Quantity After", "Notes", "Reference"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new PagedTableModel<>(columnNames, null, this::getCellValue);
         
         transactionTable = new JTable(tableModel);
         transactionTable.setFont(TABLE_FONT);
@@ -426,88 +429,79 @@ public class InventoryTransactionFrame extends JFrame {
                 ? user.getFullName() 
                 : user.getUsername();
             userFilterComboBox.addItem(displayName);
+            userFilterIds.add(user.getId());
         }
     }
     
     /**
-     * Load transactions with filters
+     * Load transactions with filters. Filtering happens in SQL and rows are read
+     * in keyset pages as the table scrolls.
      */
     private void loadTransactions() {
-        tableModel.setRowCount(0);
-        
-        List<InventoryTransaction> transactions = inventoryService.getAllTransactions();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        
-        // Apply filters
         InventoryItem selectedItem = (InventoryItem) itemFilterComboBox.getSelectedItem();
         String selectedType = (String) typeFilterComboBox.getSelectedItem();
-        String selectedUser = (String) userFilterComboBox.getSelectedItem();
+        int selectedUserIndex = userFilterComboBox.getSelectedIndex();
         java.util.Date startDate = startDateSpinner != null ? ((SpinnerDateModel) startDateSpinner.getModel()).getDate() : null;
         java.util.Date endDate = endDateSpinner != null ? ((SpinnerDateModel) endDateSpinner.getModel()).getDate() : null;
         
-        for (InventoryTransaction transaction : transactions) {
-            // Item filter
-            if (selectedItem != null && transaction.getInventoryId() != selectedItem.getId()) {
-                continue;
-            }
-            
-            // Type filter
-            if (selectedType != null && !selectedType.equals("All Types") && 
-                !transaction.getTransactionType().equals(selectedType)) {
-                continue;
+        Integer inventoryId = selectedItem != null ? selectedItem.getId() : null;
+        String transactionType = selectedType != null && !selectedType.equals("All Types") ? selectedType : null;
+        LocalDate fromDate = startDate != null ? startDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate() : null;
+        LocalDate toDate = endDate != null ? endDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate() : null;
+        
+        InventoryTransactionDAO.LedgerFilter filter;
+        if (selectedUserIndex == SYSTEM_USER_INDEX) {
+            filter = InventoryTransactionDAO.LedgerFilter.systemOnly(inventoryId, transactionType, fromDate, toDate);
+        } else {
+            Integer userId = selectedUserIndex > SYSTEM_USER_INDEX
+                ? userFilterIds.get(selectedUserIndex - SYSTEM_USER_INDEX - 1) : null;
+            filter = new InventoryTransactionDAO.LedgerFilter(inventoryId, transactionType, userId, fromDate, toDate);
+        }
+        
+        tableModel.setSource(new PagedTableModel.RowSource<InventoryTransaction>() {
+            @Override
+            public int count() {
+                return inventoryService.countTransactions(filter);
             }
             
-            // User filter
-            if (selectedUser != null && !selectedUser.equals("All Users")) {
-                String transactionUser = transaction.getUserName() != null ? transaction.getUserName() : "System";
-                if (!transactionUser.equals(selectedUser)) {
-                    continue;
-                }
+            @Override
+            public List<InventoryTransaction> load(int offset, int limit, InventoryTransaction previous) {
+                return inventoryService.getTransactionPage(filter, previous, offset, limit);
             }
-            
-            // Date filter
-            if (transaction.getCreatedAt() != null) {
-                if (startDate != null) {
-                    java.time.LocalDate startLocalDate = startDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-                    if (transaction.getCreatedAt().toLocalDate().isBefore(startLocalDate)) {
-                        continue;
-                    }
-                }
-                if (endDate != null) {
-                    java.time.LocalDate endLocalDate = endDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-                    if (transaction.getCreatedAt().toLocalDate().isAfter(endLocalDate)) {
-                        continue;
-                    }
+        });
+    }
+    
+    /**
+     * Cell value of a transaction row
+     */
+    private Object getCellValue(InventoryTransaction transaction, int column) {
+        switch (column) {
+            case 0:
+                return transaction.getCreatedAt() != null ? transaction.getCreatedAt().format(DATE_TIME_FORMATTER) : "-";
+            case 1:
+                return transaction.getInventoryItemName() != null
+                    ? transaction.getInventoryItemName() : "Item ID: " + transaction.getInventoryId();
+            case 2:
+                return transaction.getTransactionType();
+            case 3:
+                return transaction.getUserName() != null && !transaction.getUserName().trim().isEmpty() 
+                    ? transaction.getUserName() 
+                    : (transaction.getUserId() != null ? "User ID: " + transaction.getUserId() : "System");
+            case 4:
+                return transaction.getQuantityChange();
+            case 5:
+                return transaction.getQuantityBefore();
+            case 6:
+                return transaction.getQuantityAfter();
+            case 7:
+                return transaction.getNotes() != null && !transaction.getNotes().trim().isEmpty() 
+                    ? transaction.getNotes() : "-";
+            default:
+                // Build reference string
+                if (transaction.getReferenceId() != null && transaction.getReferenceType() != null) {
+                    return transaction.getReferenceType() + " #" + transaction.getReferenceId();
                 }
-            }
-            
-            // Build reference string
-            String reference = "-";
-            if (transaction.getReferenceId() != null && transaction.getReferenceType() != null) {
-                reference = transaction.getReferenceType() + " #" + transaction.getReferenceId();
-            }
-            
-            String notes = transaction.getNotes() != null && !transaction.getNotes().trim().isEmpty() 
-                ? transaction.getNotes() : "-";
-            
-            String userName = transaction.getUserName() != null && !transaction.getUserName().trim().isEmpty() 
-                ? transaction.getUserName() 
-                : (transaction.getUserId() != null ? "User ID: " + transaction.getUserId() : "System");
-            String itemName = transaction.getInventoryItemName() != null ? transaction.getInventoryItemName() : "Item ID: " + transaction.getInventoryId();
-            
-            Object[] row = {
-                transaction.getCreatedAt() != null ? transaction.getCreatedAt().format(formatter) : "-",
-                itemName,
-                transaction.getTransactionType(),
-                userName,
-                transaction.getQuantityChange(),
-                transaction.getQuantityBefore(),
-                transaction.getQuantityAfter(),
-                notes,
-                reference
-            };
-            tableModel.addRow(row);
+                return "-";
         }
     }
 }
-
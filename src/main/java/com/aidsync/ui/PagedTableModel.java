@@ -0,0 +1,360 @@
+package com.aidsync.ui;
+
+import javax.swing.SwingWorker;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Virtualized table model over a paged data source.
+ *
+ * Only the row count is known up front; rows are fetched in fixed-size blocks
+ * off the EDT when the table first paints them, and only a few blocks are kept
+ * in memory. Cells of a block still loading read as null. The last row of each
+ * loaded block is remembered so the source can seek to the next block with a
+ * keyset query instead of an OFFSET scan.
+ *
+ * Loads for blocks the user has scrolled well past are cancelled, so fast
+ * scrolling does not queue one query per block passed. A block that comes back
+ * shorter than expected means rows were deleted since the count; the model then
+ * shrinks to the rows that still exist.
+ */
+public class PagedTableModel<T> extends AbstractTableModel {
+    private static final int DEFAULT_BLOCK_SIZE = 200;
+    private static final int DEFAULT_CACHED_BLOCKS = 8;
+    // Pending loads further than this many blocks from the last requested one are dropped
+    private static final int KEEP_PENDING_DISTANCE = 1;
+    
+    /**
+     * Paged data source for the table
+     */
+    public interface RowSource<T> {
+        /**
+         * Total number of rows (called off the EDT)
+         */
+        int count();
+        
+        /**
+         * Load rows [offset, offset + limit) (called off the EDT).
+         * previous is the row just before offset when it is known, else null.
+         */
+        List<T> load(int offset, int limit, T previous);
+    }
+    
+    /**
+     * Cell value of a row for a column
+     */
+    public interface ColumnMapper<T> {
+        Object valueAt(T row, int column);
+    }
+    
+    private final String[] columnNames;
+    private final Class<?>[] columnClasses;
+    private final ColumnMapper<T> mapper;
+    private final int blockSize;
+    private final Map<Integer, List<T>> blocks;
+    private final Map<Integer, T> blockTails = new HashMap<>();
+    private final Map<Integer, SwingWorker<List<T>, Void>> pendingBlocks = new HashMap<>();
+    
+    private RowSource<T> source;
+    private int rowCount;
+    private boolean counting;
+    private int generation;
+    private volatile int lastRequestedBlock;
+    private SwingWorker<Integer, Void> countWorker;
+    private Runnable refreshListener;
+    
+    public PagedTableModel(String[] columnNames, Class<?>[] columnClasses, ColumnMapper<T> mapper) {
+        this(columnNames, columnClasses, mapper, DEFAULT_BLOCK_SIZE, DEFAULT_CACHED_BLOCKS);
+    }
+    
+    public PagedTableModel(String[] columnNames, Class<?>[] columnClasses, ColumnMapper<T> mapper,
+                           int blockSize, int maxCachedBlocks) {
+        this.columnNames = columnNames;
+        this.columnClasses = columnClasses;
+        this.mapper = mapper;
+        this.blockSize = blockSize;
+        this.blocks = new LinkedHashMap<Integer, List<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > maxCachedBlocks;
+            }
+        };
+    }
+    
+    /**
+     * Called on the EDT after each refresh has counted the rows
+     */
+    public void setRefreshListener(Runnable refreshListener) {
+        this.refreshListener = refreshListener;
+    }
+    
+    /**
+     * Switch to a new source (e.g. new filters) and reload
+     */
+    public void setSource(RowSource<T> source) {
+        this.source = source;
+        refresh();
+    }
+    
+    /**
+     * Drop cached rows and recount in the background. Loads still running for
+     * the previous state are ignored when they finish, and no block is fetched
+     * from the source until its count is in.
+     */
+    public void refresh() {
+        int refreshGeneration = ++generation;
+        blocks.clear();
+        blockTails.clear();
+        cancelPendingBlocks(-1);
+        if (countWorker != null) {
+            countWorker.cancel(false);
+        }
+        if (source == null) {
+            return;
+        }
+        
+        counting = true;
+        RowSource<T> countSource = source;
+        countWorker = new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() {
+                return countSource.count();
+            }
+            
+            @Override
+            protected void done() {
+                if (isCancelled() || refreshGeneration != generation) {
+                    return;
+                }
+                counting = false;
+                try {
+                    rowCount = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Error counting table rows: " + e.getMessage());
+                    rowCount = 0;
+                }
+                fireTableDataChanged();
+                if (refreshListener != null) {
+                    refreshListener.run();
+                }
+            }
+        };
+        countWorker.execute();
+    }
+    
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+    
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+    
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+    
+    @Override
+    public Class<?> getColumnClass(int column) {
+        if (columnClasses != null && columnClasses[column] != null) {
+            return columnClasses[column];
+        }
+        return Object.class;
+    }
+    
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+    
+    @Override
+    public Object getValueAt(int row, int column) {
+        T value = getRow(row);
+        if (value == null) {
+            requestBlock(row / blockSize);
+            return null;
+        }
+        return mapper.valueAt(value, column);
+    }
+    
+    /**
+     * Row object if its block is loaded, else null
+     */
+    public T getRow(int row) {
+        List<T> block = blocks.get(row / blockSize);
+        if (block == null) {
+            return null;
+        }
+        int index = row % blockSize;
+        return index < block.size() ? block.get(index) : null;
+    }
+    
+    /**
+     * Pass the row objects for the given rows to action on the EDT (for actions
+     * on a selection that may extend past the cache). Cached rows are passed
+     * right away; otherwise the missing blocks are loaded in the background
+     * first. The action is dropped if the table is refreshed meanwhile.
+     */
+    public void loadRows(int[] rows, Consumer<List<T>> action) {
+        TreeSet<Integer> missing = new TreeSet<>();
+        for (int row : rows) {
+            if (!blocks.containsKey(row / blockSize)) {
+                missing.add(row / blockSize);
+            }
+        }
+        if (missing.isEmpty() || source == null) {
+            action.accept(collectRows(rows, blocks));
+            return;
+        }
+        
+        int loadGeneration = generation;
+        RowSource<T> loadSource = source;
+        Map<Integer, T> tails = new HashMap<>(blockTails);
+        new SwingWorker<Map<Integer, List<T>>, Void>() {
+            @Override
+            protected Map<Integer, List<T>> doInBackground() {
+                // In ascending order, so each block can seek from the one before
+                Map<Integer, List<T>> loaded = new HashMap<>();
+                for (int blockIndex : missing) {
+                    List<T> block = loadSource.load(blockIndex * blockSize, blockSize, tails.get(blockIndex - 1));
+                    loaded.put(blockIndex, block);
+                    if (!block.isEmpty()) {
+                        tails.put(blockIndex, block.get(block.size() - 1));
+                    }
+                }
+                return loaded;
+            }
+            
+            @Override
+            protected void done() {
+                if (loadGeneration != generation) {
+                    return; // stale
+                }
+                Map<Integer, List<T>> available;
+                try {
+                    available = new HashMap<>(get());
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Error loading table rows: " + e.getMessage());
+                    return;
+                }
+                available.putAll(blocks);
+                action.accept(collectRows(rows, available));
+            }
+        }.execute();
+    }
+    
+    private List<T> collectRows(int[] rows, Map<Integer, List<T>> available) {
+        List<T> result = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            List<T> block = available.get(row / blockSize);
+            int index = row % blockSize;
+            if (block != null && index < block.size()) {
+                result.add(block.get(index));
+            }
+        }
+        return result;
+    }
+    
+    private void requestBlock(int blockIndex) {
+        if (source == null || counting) {
+            return;
+        }
+        lastRequestedBlock = blockIndex;
+        cancelPendingBlocks(blockIndex);
+        if (pendingBlocks.containsKey(blockIndex)) {
+            return;
+        }
+        
+        int loadGeneration = generation;
+        RowSource<T> loadSource = source;
+        int offset = blockIndex * blockSize;
+        int limit = Math.min(blockSize, rowCount - offset);
+        T previous = blockTails.get(blockIndex - 1);
+        
+        SwingWorker<List<T>, Void> worker = new SwingWorker<List<T>, Void>() {
+            @Override
+            protected List<T> doInBackground() {
+                if (!isWanted(blockIndex)) {
+                    return null; // scrolled past before the load started
+                }
+                return loadSource.load(offset, limit, previous);
+            }
+            
+            @Override
+            protected void done() {
+                if (loadGeneration != generation || pendingBlocks.get(blockIndex) != this) {
+                    return; // stale or cancelled
+                }
+                pendingBlocks.remove(blockIndex);
+                List<T> rows;
+                try {
+                    rows = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Error loading table rows: " + e.getMessage());
+                    return;
+                }
+                if (rows == null) {
+                    return; // skipped; requested again if it is painted
+                }
+                
+                blocks.put(blockIndex, rows);
+                if (!rows.isEmpty()) {
+                    blockTails.put(blockIndex, rows.get(rows.size() - 1));
+                }
+                if (rows.size() < limit) {
+                    truncate(offset + rows.size());
+                }
+                int last = Math.min(offset + rows.size(), rowCount) - 1;
+                if (last >= offset) {
+                    fireTableRowsUpdated(offset, last);
+                }
+            }
+        };
+        pendingBlocks.put(blockIndex, worker);
+        worker.execute();
+    }
+    
+    private boolean isWanted(int blockIndex) {
+        return Math.abs(blockIndex - lastRequestedBlock) <= KEEP_PENDING_DISTANCE;
+    }
+    
+    /**
+     * Cancel pending loads that are no longer wanted near blockIndex (all of them for -1)
+     */
+    private void cancelPendingBlocks(int blockIndex) {
+        pendingBlocks.entrySet().removeIf(entry -> {
+            if (blockIndex >= 0 && Math.abs(entry.getKey() - blockIndex) <= KEEP_PENDING_DISTANCE) {
+                return false;
+            }
+            entry.getValue().cancel(false);
+            return true;
+        });
+    }
+    
+    /**
+     * Rows were deleted since the count: end the table at newCount so the
+     * missing tail is not requested over and over
+     */
+    private void truncate(int newCount) {
+        int oldCount = rowCount;
+        if (newCount >= oldCount) {
+            return;
+        }
+        rowCount = newCount;
+        int lastBlock = newCount == 0 ? -1 : (newCount - 1) / blockSize;
+        blocks.keySet().removeIf(index -> index > lastBlock);
+        blockTails.keySet().removeIf(index -> index > lastBlock);
+        cancelPendingBlocks(-1);
+        fireTableRowsDeleted(newCount, oldCount - 1);
+    }
+}
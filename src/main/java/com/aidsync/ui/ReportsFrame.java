@@ -1,5 +1,6 @@
 package com.aidsync.ui;
 
+import com.aidsync.dao.ReportDAO;
 import com.aidsync.model.*;
 import com.aidsync.service.*;
 
@@ -8,12 +9,10 @@ import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.List;
-import java.util.stream.Collectors;
 import javax.swing.SpinnerDateModel;
 
 /**
@@ -56,12 +55,16 @@ public class ReportsFrame extends JFrame {
     private DefaultTableModel beneficiaryTableModel;
     private JComboBox<String> beneficiaryFilterComboBox;
     
+    // Report cache metrics (shown to admins)
+    private JLabel cacheStatusLabel;
+    
     // ==================== Services ====================
     private BeneficiaryService beneficiaryService;
     private DistributionService distributionService;
     private InventoryService inventoryService;
     private CalamityService calamityService;
-    private UserService userService;
+    private ReportService reportService;
+    private User currentUser;
     
     // ==================== Color Constants ====================
     private static final Color PRIMARY_COLOR = new Color(0, 102, 204);
@@ -85,13 +88,17 @@ public class ReportsFrame extends JFrame {
     private static final int PADDING_MEDIUM = 15;
     private static final int PADDING_SMALL = 10;
     
+    // Period of the stock movement columns in the inventory report
+    private static final int MOVEMENT_DAYS = 30;
+    
     // ==================== Constructor ====================
     public ReportsFrame(User user) {
+        this.currentUser = user;
         this.beneficiaryService = new BeneficiaryService();
         this.distributionService = new DistributionService();
         this.inventoryService = new InventoryService();
         this.calamityService = new CalamityService();
-        this.userService = new UserService();
+        this.reportService = new ReportService();
         initializeUI();
         loadAllReports();
     }
@@ -141,6 +148,14 @@ public class ReportsFrame extends JFrame {
         
         mainPanel.add(tabbedPane, BorderLayout.CENTER);
         
+        if (currentUser != null && currentUser.isAdmin()) {
+            cacheStatusLabel = new JLabel(" ");
+            cacheStatusLabel.setFont(STAT_LABEL_FONT);
+            cacheStatusLabel.setForeground(LABEL_COLOR);
+            cacheStatusLabel.setBorder(new EmptyBorder(PADDING_SMALL, 0, 0, 0));
+            mainPanel.add(cacheStatusLabel, BorderLayout.SOUTH);
+        }
+        
         return mainPanel;
     }
     
@@ -484,7 +499,8 @@ public class ReportsFrame extends JFrame {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBackground(BACKGROUND_COLOR);
         
-        String[] columnNames = {"Item Name", "Category", "Quantity", "Unit", "Low Stock Threshold", "Status"};
+        String[] columnNames = {"Item Name", "Category", "Quantity", "Unit", "Low Stock Threshold", "Status",
+            "Restocked (" + MOVEMENT_DAYS + " Days)", "Distributed (" + MOVEMENT_DAYS + " Days)"};
         inventoryTableModel = new DefaultTableModel(columnNames, 0) {
             @Override
             public boolean isCellEditable(int row, int column) {
@@ -713,42 +729,31 @@ public class ReportsFrame extends JFrame {
         loadDistributionReports();
         loadInventoryReports();
         loadBeneficiaryReports();
+        updateCacheStatus();
+    }
+    
+    /**
+     * Show the report cache hit metrics (admins only)
+     */
+    private void updateCacheStatus() {
+        if (cacheStatusLabel != null) {
+            cacheStatusLabel.setText("Report cache: " + ReportService.getCacheStats());
+        }
     }
     
     /**
      * Load summary dashboard data
      */
     private void loadSummaryDashboard() {
-        // Total beneficiaries
-        List<Beneficiary> beneficiaries = beneficiaryService.getAllBeneficiaries();
-        updateStatCard(totalBeneficiariesLabel, String.valueOf(beneficiaries.size()));
-        
-        // Total distributions
-        List<Distribution> distributions = distributionService.getAllDistributions();
-        updateStatCard(totalDistributionsLabel, String.valueOf(distributions.size()));
-        
-        // Total items distributed
-        int totalItems = 0;
-        for (Distribution dist : distributions) {
-            for (DistributionItem item : dist.getItems()) {
-                totalItems += item.getQuantity();
-            }
-        }
-        updateStatCard(totalItemsDistributedLabel, String.valueOf(totalItems));
-        
-        // Inventory items
-        List<InventoryItem> inventoryItems = inventoryService.getAllInventoryItems();
-        updateStatCard(totalInventoryItemsLabel, String.valueOf(inventoryItems.size()));
-        
-        // Low stock items
-        List<InventoryItem> lowStockItems = inventoryService.getLowStockItems();
-        updateStatCard(lowStockCountLabel, String.valueOf(lowStockItems.size()));
-        
-        // Top items
-        loadTopItems(distributions);
+        ReportDAO.SummaryTotals totals = reportService.getSummaryTotals();
+        updateStatCard(totalBeneficiariesLabel, String.valueOf(totals.getBeneficiaries()));
+        updateStatCard(totalDistributionsLabel, String.valueOf(totals.getDistributions()));
+        updateStatCard(totalItemsDistributedLabel, String.valueOf(totals.getItemsDistributed()));
+        updateStatCard(totalInventoryItemsLabel, String.valueOf(totals.getInventoryItems()));
+        updateStatCard(lowStockCountLabel, String.valueOf(totals.getLowStockItems()));
         
-        // Top calamities
-        loadTopCalamities(distributions);
+        loadTopItems();
+        loadTopCalamities();
     }
     
     /**
@@ -765,83 +770,33 @@ public class ReportsFrame extends JFrame {
     /**
      * Load top items
      */
-    private void loadTopItems(List<Distribution> distributions) {
+    private void loadTopItems() {
         DefaultTableModel model = (DefaultTableModel) topItemsTable.getModel();
         model.setRowCount(0);
         
-        Map<Integer, Integer> itemCounts = new HashMap<>();
-        Map<Integer, InventoryItem> itemMap = new HashMap<>();
-        
-        for (Distribution dist : distributions) {
-            for (DistributionItem di : dist.getItems()) {
-                itemCounts.put(di.getInventoryId(), 
-                    itemCounts.getOrDefault(di.getInventoryId(), 0) + di.getQuantity());
-                if (!itemMap.containsKey(di.getInventoryId())) {
-                    itemMap.put(di.getInventoryId(), inventoryService.getInventoryItemById(di.getInventoryId()));
-                }
-            }
-        }
-        
-        List<Map.Entry<Integer, Integer>> sorted = itemCounts.entrySet().stream()
-            .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed())
-            .limit(10)
-            .collect(Collectors.toList());
-        
-        for (Map.Entry<Integer, Integer> entry : sorted) {
-            InventoryItem item = itemMap.get(entry.getKey());
-            if (item != null) {
-                model.addRow(new Object[]{
-                    item.getItemName(),
-                    item.getCategory(),
-                    entry.getValue(),
-                    item.getUnit()
-                });
-            }
+        for (ReportDAO.TopItemRow row : reportService.getTopItems()) {
+            model.addRow(new Object[]{
+                row.getItemName(),
+                row.getCategory(),
+                row.getTotalDistributed(),
+                row.getUnit()
+            });
         }
     }
     
     /**
      * Load top calamities
      */
-    private void loadTopCalamities(List<Distribution> distributions) {
+    private void loadTopCalamities() {
         DefaultTableModel model = (DefaultTableModel) topCalamitiesTable.getModel();
         model.setRowCount(0);
         
-        Map<Integer, Integer> calamityCounts = new HashMap<>();
-        Map<Integer, Integer> calamityItemCounts = new HashMap<>();
-        Map<Integer, Calamity> calamityMap = new HashMap<>();
-        
-        for (Distribution dist : distributions) {
-            if (dist.getCalamityId() != null) {
-                calamityCounts.put(dist.getCalamityId(), 
-                    calamityCounts.getOrDefault(dist.getCalamityId(), 0) + 1);
-                
-                int itemCount = dist.getItems().stream()
-                    .mapToInt(DistributionItem::getQuantity)
-                    .sum();
-                calamityItemCounts.put(dist.getCalamityId(),
-                    calamityItemCounts.getOrDefault(dist.getCalamityId(), 0) + itemCount);
-                
-                if (!calamityMap.containsKey(dist.getCalamityId())) {
-                    calamityMap.put(dist.getCalamityId(), calamityService.getCalamityById(dist.getCalamityId()));
-                }
-            }
-        }
-        
-        List<Map.Entry<Integer, Integer>> sorted = calamityCounts.entrySet().stream()
-            .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed())
-            .limit(10)
-            .collect(Collectors.toList());
-        
-        for (Map.Entry<Integer, Integer> entry : sorted) {
-            Calamity calamity = calamityMap.get(entry.getKey());
-            if (calamity != null) {
-                model.addRow(new Object[]{
-                    calamity.getName(),
-                    entry.getValue(),
-                    calamityItemCounts.getOrDefault(entry.getKey(), 0)
-                });
-            }
+        for (ReportDAO.TopCalamityRow row : reportService.getTopCalamities()) {
+            model.addRow(new Object[]{
+                row.getCalamityName(),
+                row.getDistributionCount(),
+                row.getTotalItems()
+            });
         }
     }
     
@@ -851,90 +806,46 @@ public class ReportsFrame extends JFrame {
     private void loadDistributionReports() {
         distributionTableModel.setRowCount(0);
         
-        List<Distribution> distributions = distributionService.getAllDistributions();
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
         
-        // Apply filters
+        // Filters are applied by the report query
         Date startDate = startDateSpinner != null ? ((SpinnerDateModel) startDateSpinner.getModel()).getDate() : null;
         Date endDate = endDateSpinner != null ? ((SpinnerDateModel) endDateSpinner.getModel()).getDate() : null;
         String selectedCalamity = (String) (calamityFilterComboBox != null ? calamityFilterComboBox.getSelectedItem() : null);
         String selectedBarangay = (String) (barangayFilterComboBox != null ? barangayFilterComboBox.getSelectedItem() : null);
         
-        for (Distribution dist : distributions) {
-            // Date filter
-            if (startDate != null) {
-                LocalDate startLocalDate = startDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-                if (dist.getDistributionDate().toLocalDate().isBefore(startLocalDate)) {
-                    continue;
-                }
-            }
-            if (endDate != null) {
-                LocalDate endLocalDate = endDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-                if (dist.getDistributionDate().toLocalDate().isAfter(endLocalDate)) {
-                    continue;
-                }
-            }
-            
-            // Calamity filter
-            if (selectedCalamity != null && !selectedCalamity.equals("All Calamities")) {
-                Calamity calamity = dist.getCalamityId() != null ? calamityService.getCalamityById(dist.getCalamityId()) : null;
-                if (calamity == null || !calamity.getName().equals(selectedCalamity)) {
-                    continue;
-                }
-            }
-            
-            // Get beneficiary info
-            Beneficiary beneficiary = beneficiaryService.getBeneficiaryById(dist.getBeneficiaryId());
-            if (beneficiary == null) continue;
-            
-            // Barangay filter
-            if (selectedBarangay != null && !selectedBarangay.equals("All Barangays")) {
-                if (!beneficiary.getBarangay().equals(selectedBarangay)) {
-                    continue;
-                }
-            }
-            
+        ReportDAO.DistributionReportFilter filter = new ReportDAO.DistributionReportFilter(
+            startDate != null ? startDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate() : null,
+            endDate != null ? endDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate() : null,
+            selectedCalamity != null && !selectedCalamity.equals("All Calamities") ? selectedCalamity : null,
+            selectedBarangay != null && !selectedBarangay.equals("All Barangays") ? selectedBarangay : null);
+        
+        reportService.streamDistributionReport(filter, row -> {
             // Build items string
             StringBuilder itemsStr = new StringBuilder("<html>");
-            int totalQuantity = 0;
             int itemCount = 0;
-            for (DistributionItem item : dist.getItems()) {
-                InventoryItem invItem = inventoryService.getInventoryItemById(item.getInventoryId());
-                if (invItem != null) {
-                    if (itemCount > 0) itemsStr.append("<br>");
-                    itemsStr.append("• ").append(invItem.getItemName())
-                             .append(" (").append(item.getQuantity())
-                             .append(" ").append(invItem.getUnit()).append(")");
-                    totalQuantity += item.getQuantity();
-                    itemCount++;
-                }
+            for (ReportDAO.ItemLine item : row.getItems()) {
+                if (itemCount > 0) itemsStr.append("<br>");
+                itemsStr.append("• ").append(item.getItemName())
+                         .append(" (").append(item.getQuantity())
+                         .append(" ").append(item.getUnit()).append(")");
+                itemCount++;
             }
             itemsStr.append("</html>");
             String itemsDisplay = itemCount > 0 ? itemsStr.toString() : "<html>No items</html>";
             
-            // Get user name
-            String distributedByName = getUserDisplayName(dist.getDistributedBy());
-            
-            // Get calamity name
-            String calamityName = "-";
-            if (dist.getCalamityId() != null) {
-                Calamity calamity = calamityService.getCalamityById(dist.getCalamityId());
-                if (calamity != null) {
-                    calamityName = calamity.getName();
-                }
-            }
-            
-            String notes = dist.getNotes() != null && !dist.getNotes().trim().isEmpty() ? dist.getNotes() : "-";
+            String calamityName = row.getCalamityName() != null ? row.getCalamityName() : "-";
+            String notes = row.getNotes() != null && !row.getNotes().trim().isEmpty() ? row.getNotes() : "-";
             
             distributionTableModel.addRow(new Object[]{
-                dist.getDistributionDate().format(formatter),
-                beneficiary.getFullName(),
-                beneficiary.getBarangay(),
-                beneficiary.getPurok(),
+                row.getDistributionDate().format(formatter),
+                row.getBeneficiaryName(),
+                row.getBarangay(),
+                row.getPurok(),
                 calamityName,
                 itemsDisplay,
-                totalQuantity,
-                distributedByName,
+                row.getTotalQuantity(),
+                row.getDistributedByName(),
                 notes
             });
             
@@ -944,7 +855,8 @@ public class ReportsFrame extends JFrame {
             int itemHeight = 20;
             int calculatedHeight = baseHeight + (itemCount * itemHeight);
             distributionTable.setRowHeight(rowIndex, Math.max(calculatedHeight, baseHeight));
-        }
+        });
+        updateCacheStatus();
     }
     
     /**
@@ -954,6 +866,7 @@ public class ReportsFrame extends JFrame {
         inventoryTableModel.setRowCount(0);
         
         List<InventoryItem> items = inventoryService.getAllInventoryItems();
+        Map<Integer, ReportDAO.StockMovement> movement = reportService.getRecentStockMovement(MOVEMENT_DAYS);
         boolean lowStockOnly = lowStockOnlyCheckBox != null && lowStockOnlyCheckBox.isSelected();
         
         for (InventoryItem item : items) {
@@ -962,6 +875,7 @@ public class ReportsFrame extends JFrame {
             }
             
             String status = item.getQuantity() <= item.getLowStockThreshold() ? "Low Stock" : "In Stock";
+            ReportDAO.StockMovement itemMovement = movement.get(item.getId());
             
             inventoryTableModel.addRow(new Object[]{
                 item.getItemName(),
@@ -969,7 +883,9 @@ public class ReportsFrame extends JFrame {
                 item.getQuantity(),
                 item.getUnit(),
                 item.getLowStockThreshold(),
-                status
+                status,
+                itemMovement != null ? itemMovement.getRestocked() : 0,
+                itemMovement != null ? itemMovement.getDistributed() : 0
             });
         }
     }
@@ -982,15 +898,26 @@ public class ReportsFrame extends JFrame {
         
         List<Beneficiary> beneficiaries = beneficiaryService.getAllBeneficiaries();
         String selectedBarangay = (String) (beneficiaryFilterComboBox != null ? beneficiaryFilterComboBox.getSelectedItem() : null);
+        boolean filterByBarangay = selectedBarangay != null && !selectedBarangay.equals("All Barangays");
         
+        List<Beneficiary> filtered = new java.util.ArrayList<>();
+        List<Integer> filteredIds = new java.util.ArrayList<>();
         for (Beneficiary beneficiary : beneficiaries) {
-            if (selectedBarangay != null && !selectedBarangay.equals("All Barangays")) {
-                if (!beneficiary.getBarangay().equals(selectedBarangay)) {
-                    continue;
-                }
+            if (filterByBarangay && !beneficiary.getBarangay().equals(selectedBarangay)) {
+                continue;
             }
-            
-            com.aidsync.dao.DistributionDAO.DistributionStats stats = distributionService.getDistributionStats(beneficiary.getId());
+            filtered.add(beneficiary);
+            filteredIds.add(beneficiary.getId());
+        }
+        
+        // Stats for every row come from the per-beneficiary summary table
+        java.util.Map<Integer, com.aidsync.dao.DistributionDAO.DistributionStats> statsById = filterByBarangay
+            ? distributionService.getDistributionStats(filteredIds)
+            : distributionService.getAllDistributionStats();
+        
+        for (Beneficiary beneficiary : filtered) {
+            com.aidsync.dao.DistributionDAO.DistributionStats stats = statsById.getOrDefault(
+                beneficiary.getId(), new com.aidsync.dao.DistributionDAO.DistributionStats());
             String lastDist = stats.getLastDistributionDate() != null ? 
                 stats.getLastDistributionDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")) : "Never";
             
@@ -1007,20 +934,6 @@ public class ReportsFrame extends JFrame {
         }
     }
     
-    /**
-     * Get user display name
-     */
-    private String getUserDisplayName(int userId) {
-        User user = userService.getUserById(userId);
-        if (user != null) {
-            if (user.getFullName() != null && !user.getFullName().trim().isEmpty()) {
-                return user.getFullName();
-            }
-            return user.getUsername();
-        }
-        return "User ID: " + userId;
-    }
-    
     /**
      * Initialize filter dropdowns
      */
@@ -0,0 +1,48 @@
+package com.aidsync.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory change counters per table.
+ *
+ * DAOs mark a table changed when they write to it; inside a unit of work the
+ * counter moves only after the commit, so a version read before a computation
+ * never covers uncommitted data. Counters start at zero on each run, which is
+ * fine for caches that live no longer than the process.
+ */
+public final class ChangeTracker {
+    public static final String BENEFICIARIES = "beneficiaries";
+    public static final String CALAMITIES = "calamities";
+    public static final String DISTRIBUTIONS = "distributions";
+    public static final String INVENTORY = "inventory";
+    public static final String INVENTORY_TRANSACTIONS = "inventory_transactions";
+    public static final String USERS = "users";
+    
+    private static final ConcurrentHashMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    
+    private ChangeTracker() {
+    }
+    
+    /**
+     * Record a write to a table (applied when the current unit of work commits)
+     */
+    public static void markChanged(String table) {
+        TransactionTemplate.afterCommit(() ->
+            versions.computeIfAbsent(table, key -> new AtomicLong()).incrementAndGet());
+    }
+    
+    /**
+     * Combined version of some tables; it changes whenever any of them changes
+     */
+    public static long getVersion(String... tables) {
+        long version = 0;
+        for (String table : tables) {
+            AtomicLong counter = versions.get(table);
+            if (counter != null) {
+                version += counter.get();
+            }
+        }
+        return version;
+    }
+}
@@ -0,0 +1,428 @@
+package com.aidsync.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Pool of long-lived JDBC connections.
+ *
+ * Connections are leased per thread: nested getConnection() calls on the same
+ * thread receive the same physical connection, and closing the returned handle
+ * gives the connection back to the pool instead of closing it. Each physical
+ * connection keeps its own prepared statement cache.
+ */
+public class ConnectionPool {
+    private static final long BORROW_TIMEOUT_MILLIS = 30_000;
+    private static final long VALIDATION_INTERVAL_MILLIS = 60_000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String name;
+    private final String url;
+    private final int maxSize;
+    private final int statementCacheSize;
+    private final ConnectionCustomizer customizer;
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final List<PooledConnection> open = new ArrayList<>();
+    private final ThreadLocal<Lease> leases = new ThreadLocal<>();
+
+    private int totalConnections;
+    private long borrowCount;
+    private long createdCount;
+    private long discardedCount;
+    private long waitCount;
+    private long retiredStatementHits;
+    private long retiredStatementMisses;
+    private long retiredStatementEvictions;
+    private boolean shutdown;
+
+    /**
+     * Configures a freshly opened physical connection (pragmas, read-only mode, etc.)
+     */
+    public interface ConnectionCustomizer {
+        void customize(Connection conn) throws SQLException;
+    }
+
+    public ConnectionPool(String name, String url, int maxSize, int statementCacheSize,
+                          ConnectionCustomizer customizer) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.name = name;
+        this.url = url;
+        this.maxSize = maxSize;
+        this.statementCacheSize = statementCacheSize;
+        this.customizer = customizer;
+    }
+
+    /**
+     * Borrow a connection. Close the returned handle to give it back.
+     */
+    public Connection getConnection() throws SQLException {
+        Lease lease = leases.get();
+        if (lease == null) {
+            lease = new Lease(acquire());
+            leases.set(lease);
+        }
+        lease.depth++;
+        return lease.connection.newHandle(lease);
+    }
+
+    /**
+     * Check whether the calling thread currently holds a connection from this pool
+     */
+    public boolean isHeldByCurrentThread() {
+        return leases.get() != null;
+    }
+
+    private synchronized PooledConnection acquire() throws SQLException {
+        long deadline = System.currentTimeMillis() + BORROW_TIMEOUT_MILLIS;
+        boolean waited = false;
+
+        while (true) {
+            if (shutdown) {
+                throw new SQLException("Connection pool '" + name + "' has been shut down");
+            }
+
+            PooledConnection pooled = idle.pollFirst();
+            if (pooled != null) {
+                if (isHealthy(pooled)) {
+                    borrowCount++;
+                    return pooled;
+                }
+                discard(pooled);
+                continue;
+            }
+
+            if (totalConnections < maxSize) {
+                pooled = new PooledConnection(openPhysicalConnection());
+                open.add(pooled);
+                totalConnections++;
+                createdCount++;
+                borrowCount++;
+                return pooled;
+            }
+
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new SQLException("Timed out waiting for a connection from pool '" + name + "'");
+            }
+            if (!waited) {
+                waitCount++;
+                waited = true;
+            }
+            try {
+                wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection", e);
+            }
+        }
+    }
+
+    private Connection openPhysicalConnection() throws SQLException {
+        Connection conn = DriverManager.getConnection(url);
+        try {
+            conn.setAutoCommit(true);
+            if (customizer != null) {
+                customizer.customize(conn);
+            }
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return conn;
+    }
+
+    /**
+     * Health check: connections idle for a while are validated before reuse
+     */
+    private boolean isHealthy(PooledConnection pooled) {
+        try {
+            if (pooled.physical.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - pooled.lastUsed < VALIDATION_INTERVAL_MILLIS) {
+                return true;
+            }
+            return pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        open.remove(pooled);
+        totalConnections--;
+        discardedCount++;
+        retiredStatementHits += pooled.statements.getHits();
+        retiredStatementMisses += pooled.statements.getMisses();
+        retiredStatementEvictions += pooled.statements.getEvictions();
+        pooled.statements.clear();
+        closeQuietly(pooled.physical);
+    }
+
+    private void release(Lease lease) {
+        if (--lease.depth > 0) {
+            return;
+        }
+        if (leases.get() == lease) {
+            leases.remove();
+        }
+
+        PooledConnection pooled = lease.connection;
+        boolean reusable = resetState(pooled.physical);
+
+        synchronized (this) {
+            if (!reusable || shutdown) {
+                discard(pooled);
+            } else {
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.addFirst(pooled);
+            }
+            notifyAll();
+        }
+    }
+
+    /**
+     * Roll back anything left open by the borrower so the next one starts clean
+     */
+    private boolean resetState(Connection conn) {
+        try {
+            if (conn.isClosed()) {
+                return false;
+            }
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Discarding pooled connection: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Close all idle connections; leased connections are closed when returned
+     */
+    public synchronized void shutdown() {
+        shutdown = true;
+        while (!idle.isEmpty()) {
+            discard(idle.pollFirst());
+        }
+        notifyAll();
+    }
+
+    /**
+     * Snapshot of pool usage counters
+     */
+    public synchronized PoolStats getStats() {
+        PoolStats stats = new PoolStats();
+        stats.name = name;
+        stats.maxSize = maxSize;
+        stats.totalConnections = totalConnections;
+        stats.idleConnections = idle.size();
+        stats.activeConnections = totalConnections - idle.size();
+        stats.borrowCount = borrowCount;
+        stats.createdCount = createdCount;
+        stats.discardedCount = discardedCount;
+        stats.waitCount = waitCount;
+        stats.statementCacheHits = retiredStatementHits;
+        stats.statementCacheMisses = retiredStatementMisses;
+        stats.statementCacheEvictions = retiredStatementEvictions;
+        for (PooledConnection pooled : open) {
+            stats.cachedStatements += pooled.statements.size();
+            stats.statementCacheHits += pooled.statements.getHits();
+            stats.statementCacheMisses += pooled.statements.getMisses();
+            stats.statementCacheEvictions += pooled.statements.getEvictions();
+        }
+        return stats;
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Per-thread lease on a physical connection
+     */
+    private static class Lease {
+        private final PooledConnection connection;
+        private int depth;
+
+        private Lease(PooledConnection connection) {
+            this.connection = connection;
+        }
+    }
+
+    /**
+     * Physical connection owned by the pool
+     */
+    private class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statements;
+        private long lastUsed = System.currentTimeMillis();
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = new StatementCache(physical, statementCacheSize);
+        }
+
+        private Connection newHandle(Lease lease) {
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new HandleInvocationHandler(this, lease));
+        }
+    }
+
+    /**
+     * Borrower-facing handle: close() returns the lease instead of closing the connection
+     */
+    private class HandleInvocationHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final Lease lease;
+        private boolean closed;
+
+        private HandleInvocationHandler(PooledConnection pooled, Lease lease) {
+            this.pooled = pooled;
+            this.lease = lease;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(lease);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + name + "] " + pooled.physical;
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection handle has already been returned to the pool");
+            }
+
+            if (method.getName().equals("prepareStatement")) {
+                Class<?>[] params = method.getParameterTypes();
+                if (params.length == 1) {
+                    return pooled.statements.prepare((String) args[0], Statement.NO_GENERATED_KEYS);
+                }
+                if (params.length == 2 && params[1] == int.class) {
+                    return pooled.statements.prepare((String) args[0], (Integer) args[1]);
+                }
+            }
+
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Pool statistics helper class
+     */
+    public static class PoolStats {
+        private String name;
+        private int maxSize;
+        private int totalConnections;
+        private int idleConnections;
+        private int activeConnections;
+        private long borrowCount;
+        private long createdCount;
+        private long discardedCount;
+        private long waitCount;
+        private int cachedStatements;
+        private long statementCacheHits;
+        private long statementCacheMisses;
+        private long statementCacheEvictions;
+
+        public String getName() {
+            return name;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public int getTotalConnections() {
+            return totalConnections;
+        }
+
+        public int getIdleConnections() {
+            return idleConnections;
+        }
+
+        public int getActiveConnections() {
+            return activeConnections;
+        }
+
+        public long getBorrowCount() {
+            return borrowCount;
+        }
+
+        public long getCreatedCount() {
+            return createdCount;
+        }
+
+        public long getDiscardedCount() {
+            return discardedCount;
+        }
+
+        public long getWaitCount() {
+            return waitCount;
+        }
+
+        public int getCachedStatements() {
+            return cachedStatements;
+        }
+
+        public long getStatementCacheHits() {
+            return statementCacheHits;
+        }
+
+        public long getStatementCacheMisses() {
+            return statementCacheMisses;
+        }
+
+        public long getStatementCacheEvictions() {
+            return statementCacheEvictions;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + activeConnections + " active, " + idleConnections + " idle, " +
+                totalConnections + "/" + maxSize + " open, " + borrowCount + " borrows, " +
+                createdCount + " created, " + discardedCount + " discarded, " + waitCount + " waits, " +
+                "statement cache " + statementCacheHits + " hits / " + statementCacheMisses + " misses / " +
+                statementCacheEvictions + " evictions (" + cachedStatements + " cached)";
+        }
+    }
+}
@@ -2,31 +2,90 @@ package com.aidsync.util;
 
 import java.sql.*;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * Manages database connection and initialization
+ * Manages database connections and initialization
  */
 public class DatabaseManager {
-    private static final String DB_NAME = "aidsync.db";
-    private static final String DB_URL = "jdbc:sqlite:" + DB_NAME;
-    private static Connection connection;
+    private static final String DEFAULT_DB_NAME = "aidsync.db";
+    private static final int DEFAULT_POOL_SIZE = 4;
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+    private static final int BUSY_TIMEOUT_MILLIS = 5000;
 
     /**
-     * Initialize database and create tables if they don't exist
+     * How SQLite journals writes.
+     * WAL keeps one dedicated writer connection and a pool of read-only readers,
+     * so long report scans never block inserts. ROLLBACK_JOURNAL shares a single
+     * read/write pool.
+     */
+    public enum StorageMode {
+        WAL,
+        ROLLBACK_JOURNAL
+    }
+
+    private static StorageMode storageMode = StorageMode.valueOf(
+        System.getProperty("aidsync.db.storageMode", StorageMode.WAL.name()));
+    private static String dbPath = System.getProperty("aidsync.db.path", DEFAULT_DB_NAME);
+    private static int poolSize = Integer.getInteger("aidsync.db.poolSize", DEFAULT_POOL_SIZE);
+    private static int statementCacheSize = Integer.getInteger("aidsync.db.statementCacheSize",
+        DEFAULT_STATEMENT_CACHE_SIZE);
+    private static ConnectionPool writerPool;
+    private static ConnectionPool readerPool;
+
+    /**
+     * Set the maximum number of pooled connections (call before initialize).
+     * In WAL mode this is the number of reader connections.
+     */
+    public static synchronized void configurePool(int maxSize) {
+        if (writerPool != null) {
+            throw new IllegalStateException("Connection pool is already running");
+        }
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        poolSize = maxSize;
+    }
+
+    /**
+     * Set the database file (call before initialize, or after close)
+     */
+    public static synchronized void configureDatabasePath(String path) {
+        if (writerPool != null) {
+            throw new IllegalStateException("Connection pool is already running");
+        }
+        dbPath = path;
+    }
+
+    /**
+     * Set the storage mode (call before initialize)
+     */
+    public static synchronized void configureStorageMode(StorageMode mode) {
+        if (writerPool != null) {
+            throw new IllegalStateException("Connection pool is already running");
+        }
+        storageMode = mode;
+    }
+
+    public static StorageMode getStorageMode() {
+        return storageMode;
+    }
+
+    /**
+     * Initialize database and apply pending schema migrations
      */
     public static void initialize() {
         try {
             // Create database file if it doesn't exist
-            File dbFile = new File(DB_NAME);
+            File dbFile = new File(dbPath);
             if (!dbFile.exists()) {
                 dbFile.createNewFile();
             }
             
-            connection = DriverManager.getConnection(DB_URL);
-            connection.setAutoCommit(true);
-            
-            createTables();
-            initializeData();
+            try (Connection conn = getConnection()) {
+                SchemaMigrator.migrate(conn);
+            }
             
             System.out.println("Database initialized successfully");
         } catch (SQLException e) {
@@ -39,271 +98,115 @@ public class DatabaseManager {
     }
 
     /**
-     * Get database connection
+     * Borrow a pooled connection for writing.
+     * Closing the returned connection gives it back to the pool; nested calls on
+     * the same thread share one connection.
      */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(DB_URL);
-            connection.setAutoCommit(true);
-        }
-        return connection;
+        return getWriterPool().getConnection();
     }
 
     /**
-     * Create all required tables
+     * Borrow a pooled connection for reading.
+     * In WAL mode this is a read-only connection that never waits on the writer,
+     * unless the calling thread already holds the writer (so it sees its own changes).
      */
-    private static void createTables() throws SQLException {
-        // Users table
-        String createUsersTable = "CREATE TABLE IF NOT EXISTS users (" +
-            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-            "username TEXT UNIQUE NOT NULL, " +
-            "password TEXT NOT NULL, " +
-            "full_name TEXT, " +
-            "email TEXT, " +
-            "phone TEXT, " +
-            "role TEXT NOT NULL CHECK(role IN ('Admin', 'Staff')), " +
-            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
-            "last_login TIMESTAMP)";
-        
-        // Beneficiaries table
-        String createBeneficiariesTable = "CREATE TABLE IF NOT EXISTS beneficiaries (" +
-            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-            "beneficiary_id TEXT UNIQUE NOT NULL, " +
-            "full_name TEXT NOT NULL, " +
-            "birth_date DATE, " +
-            "gender TEXT, " +
-            "contact_number TEXT, " +
-            "barangay TEXT NOT NULL, " +
-            "purok TEXT NOT NULL, " +
-            "street_address TEXT, " +
-            "family_size INTEGER NOT NULL CHECK(family_size >= 1 AND family_size <= 20), " +
-            "is_household_head INTEGER DEFAULT 0, " +
-            "is_pwd INTEGER DEFAULT 0, " +
-            "is_senior_citizen INTEGER DEFAULT 0, " +
-            "is_pregnant INTEGER DEFAULT 0, " +
-            "is_solo_parent INTEGER DEFAULT 0, " +
-            "date_registered TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
-            "status TEXT DEFAULT 'Active' CHECK(status IN ('Active', 'Inactive')), " +
-            "deleted INTEGER DEFAULT 0, " +
-            "deleted_at TIMESTAMP, " +
-            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
-            "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
-        
-        // Inventory table
-        String createInventoryTable = "CREATE TABLE IF NOT EXISTS inventory (" +
-            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-            "item_name TEXT UNIQUE NOT NULL, " +
-            "category TEXT, " +
-            "quantity INTEGER NOT NULL DEFAULT 0 CHECK(quantity >= 0), " +
-            "unit TEXT, " +
-            "low_stock_threshold INTEGER DEFAULT 10, " +
-            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
-            "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
-        
-        // Calamities table
-        String createCalamitiesTable = "CREATE TABLE IF NOT EXISTS calamities (" +
-            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-            "name TEXT UNIQUE NOT NULL, " +
-            "description TEXT, " +
-            "status TEXT DEFAULT 'Active' CHECK(status IN ('Active', 'Inactive')), " +
-            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
-        
-        // Calamity items table (many-to-many: calamity -> inventory items)
-        String createCalamityItemsTable = "CREATE TABLE IF NOT EXISTS calamity_items (" +
-            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-            "calamity_id INTEGER NOT NULL, " +
-            "inventory_id INTEGER NOT NULL, " +
-            "standard_quantity INTEGER NOT NULL CHECK(standard_quantity > 0), " +
-            "FOREIGN KEY (calamity_id) REFERENCES calamities(id) ON DELETE CASCADE, " +
-            "FOREIGN KEY (inventory_id) REFERENCES inventory(id), " +
-            "UNIQUE(calamity_id, inventory_id))";
-        
-        // Distributions table
-        String createDistributionsTable = "CREATE TABLE IF NOT EXISTS distributions (" +
-            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-            "beneficiary_id INTEGER NOT NULL, " +
-            "calamity_id INTEGER, " +
-            "distribution_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
-            "distributed_by INTEGER NOT NULL, " +
-            "notes TEXT, " +
-            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
-            "FOREIGN KEY (beneficiary_id) REFERENCES beneficiaries(id), " +
-            "FOREIGN KEY (calamity_id) REFERENCES calamities(id), " +
-            "FOREIGN KEY (distributed_by) REFERENCES users(id))";
-        
-        // Distribution items table (many-to-many relationship)
-        String createDistributionItemsTable = "CREATE TABLE IF NOT EXISTS distribution_items (" +
-            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-            "distribution_id INTEGER NOT NULL, " +
-            "inventory_id INTEGER NOT NULL, " +
-            "quantity INTEGER NOT NULL CHECK(quantity > 0), " +
-            "FOREIGN KEY (distribution_id) REFERENCES distributions(id) ON DELETE CASCADE, " +
-            "FOREIGN KEY (inventory_id) REFERENCES inventory(id))";
-        
-        // Activity log table
-        String createActivityLogTable = "CREATE TABLE IF NOT EXISTS activity_log (" +
-            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-            "user_id INTEGER, " +
-            "action TEXT NOT NULL, " +
-            "entity_type TEXT, " +
-            "entity_id INTEGER, " +
-            "details TEXT, " +
-            "timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
-            "FOREIGN KEY (user_id) REFERENCES users(id))";
-        
-        // Inventory transactions table (audit trail)
-        String createInventoryTransactionsTable = "CREATE TABLE IF NOT EXISTS inventory_transactions (" +
-            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-            "inventory_id INTEGER NOT NULL, " +
-            "user_id INTEGER, " +
-            "transaction_type TEXT NOT NULL CHECK(transaction_type IN ('Restock', 'Set Quantity', 'Distribution', 'Void Distribution')), " +
-            "quantity_change INTEGER NOT NULL, " +
-            "quantity_before INTEGER NOT NULL, " +
-            "quantity_after INTEGER NOT NULL, " +
-            "notes TEXT, " +
-            "reference_id INTEGER, " +
-            "reference_type TEXT, " +
-            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
-            "FOREIGN KEY (inventory_id) REFERENCES inventory(id), " +
-            "FOREIGN KEY (user_id) REFERENCES users(id))";
-        
-        try (Statement stmt = connection.createStatement()) {
-            stmt.execute(createUsersTable);
-            stmt.execute(createBeneficiariesTable);
-            stmt.execute(createInventoryTable);
-            stmt.execute(createCalamitiesTable);
-            stmt.execute(createCalamityItemsTable);
-            stmt.execute(createDistributionsTable);
-            stmt.execute(createDistributionItemsTable);
-            stmt.execute(createActivityLogTable);
-            stmt.execute(createInventoryTransactionsTable);
-            
-            // Migrate existing users table to add new columns if they don't exist
-            migrateUsersTable();
-            
-            // Migrate existing distributions table to add calamity_id if it doesn't exist
-            migrateDistributionsTable();
-            
-            // Create indexes for better performance
-            stmt.execute("CREATE INDEX IF NOT EXISTS idx_beneficiaries_beneficiary_id ON beneficiaries(beneficiary_id)");
-            stmt.execute("CREATE INDEX IF NOT EXISTS idx_beneficiaries_name ON beneficiaries(full_name)");
-            stmt.execute("CREATE INDEX IF NOT EXISTS idx_beneficiaries_barangay ON beneficiaries(barangay)");
-            stmt.execute("CREATE INDEX IF NOT EXISTS idx_beneficiaries_status ON beneficiaries(status)");
-            stmt.execute("CREATE INDEX IF NOT EXISTS idx_distributions_beneficiary ON distributions(beneficiary_id)");
-            stmt.execute("CREATE INDEX IF NOT EXISTS idx_distributions_date ON distributions(distribution_date)");
-            stmt.execute("CREATE INDEX IF NOT EXISTS idx_distributions_calamity ON distributions(calamity_id)");
-            stmt.execute("CREATE INDEX IF NOT EXISTS idx_calamity_items_calamity ON calamity_items(calamity_id)");
-            stmt.execute("CREATE INDEX IF NOT EXISTS idx_calamity_items_inventory ON calamity_items(inventory_id)");
+    public static Connection getReadConnection() throws SQLException {
+        ConnectionPool writer = getWriterPool();
+        if (readerPool == null || writer.isHeldByCurrentThread()) {
+            return writer.getConnection();
         }
+        return readerPool.getConnection();
     }
 
     /**
-     * Migrate users table to add new columns if they don't exist
+     * Get connection pool statistics (writer first, then readers in WAL mode)
      */
-    private static void migrateUsersTable() throws SQLException {
-        try (Statement stmt = connection.createStatement()) {
-            // Check if full_name column exists, if not add it
-            try {
-                stmt.executeQuery("SELECT full_name FROM users LIMIT 1");
-            } catch (SQLException e) {
-                // Column doesn't exist, add it
-                stmt.execute("ALTER TABLE users ADD COLUMN full_name TEXT");
-            }
-            
-            // Check if email column exists, if not add it
-            try {
-                stmt.executeQuery("SELECT email FROM users LIMIT 1");
-            } catch (SQLException e) {
-                // Column doesn't exist, add it
-                stmt.execute("ALTER TABLE users ADD COLUMN email TEXT");
-            }
-            
-            // Check if phone column exists, if not add it
-            try {
-                stmt.executeQuery("SELECT phone FROM users LIMIT 1");
-            } catch (SQLException e) {
-                // Column doesn't exist, add it
-                stmt.execute("ALTER TABLE users ADD COLUMN phone TEXT");
+    public static synchronized List<ConnectionPool.PoolStats> getPoolStats() {
+        List<ConnectionPool.PoolStats> stats = new ArrayList<>();
+        if (writerPool != null) {
+            stats.add(writerPool.getStats());
+        }
+        if (readerPool != null) {
+            stats.add(readerPool.getStats());
+        }
+        return stats;
+    }
+
+    private static synchronized ConnectionPool getWriterPool() {
+        if (writerPool == null) {
+            String url = "jdbc:sqlite:" + dbPath;
+            if (storageMode == StorageMode.WAL) {
+                writerPool = new ConnectionPool("writer", url, 1, statementCacheSize,
+                    DatabaseManager::configureWriter);
+                readerPool = new ConnectionPool("reader", url, poolSize, statementCacheSize,
+                    DatabaseManager::configureReader);
+            } else {
+                writerPool = new ConnectionPool("aidsync", url, poolSize, statementCacheSize,
+                    DatabaseManager::configureRollbackJournal);
             }
         }
+        return writerPool;
     }
 
     /**
-     * Migrate distributions table to add calamity_id column if it doesn't exist
+     * Per-connection settings applied when the pool opens a connection
      */
-    private static void migrateDistributionsTable() throws SQLException {
-        try (Statement stmt = connection.createStatement()) {
-            // Check if calamity_id column exists, if not add it
-            try {
-                stmt.executeQuery("SELECT calamity_id FROM distributions LIMIT 1");
-            } catch (SQLException e) {
-                // Column doesn't exist, add it
-                stmt.execute("ALTER TABLE distributions ADD COLUMN calamity_id INTEGER");
-                // Add foreign key constraint if possible (SQLite has limited ALTER TABLE support)
-                // Note: SQLite doesn't support adding foreign keys via ALTER TABLE, so this is handled in CREATE TABLE
-            }
+    private static void configureConnection(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS);
         }
     }
 
     /**
-     * Initialize default data (barangays, puroks, default admin user)
+     * Rollback journal: journal_mode is stored in the database file, so a file
+     * that was opened in WAL mode before has to be switched back explicitly
      */
-    private static void initializeData() throws SQLException {
-        // Check if data already exists
-        try (PreparedStatement stmt = connection.prepareStatement("SELECT COUNT(*) FROM users")) {
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next() && rs.getInt(1) > 0) {
-                return; // Data already initialized
+    private static void configureRollbackJournal(Connection conn) throws SQLException {
+        configureConnection(conn);
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA journal_mode = DELETE")) {
+            String mode = rs.next() ? rs.getString(1) : null;
+            if (!"delete".equalsIgnoreCase(mode)) {
+                // Leaving WAL needs the only connection to the file; another process may hold it
+                System.err.println("Could not switch database to rollback journal mode (still " + mode + ")");
             }
         }
-        
-        // Create default admin user (username: admin, password: admin123)
-        String defaultPassword = "admin123"; // In production, this should be hashed
-        try (PreparedStatement stmt = connection.prepareStatement(
-                "INSERT INTO users (username, password, role) VALUES (?, ?, ?)")) {
-            stmt.setString(1, "admin");
-            stmt.setString(2, defaultPassword);
-            stmt.setString(3, "Admin");
-            stmt.executeUpdate();
+    }
+
+    /**
+     * WAL writer: switches the database file to WAL (persistent) and relaxes fsync
+     * to checkpoints, which is still durable against application crashes
+     */
+    private static void configureWriter(Connection conn) throws SQLException {
+        configureConnection(conn);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA journal_mode = WAL");
+            stmt.execute("PRAGMA synchronous = NORMAL");
         }
-        
-        // Initialize barangay and purok data (stored in BarangayData class)
-        BarangayData.initializeBarangays(connection);
-        
-        // Initialize some default inventory items
-        initializeDefaultInventory();
     }
 
     /**
-     * Initialize default inventory items
+     * WAL reader: rejects writes so misrouted DAO calls fail loudly
      */
-    private static void initializeDefaultInventory() throws SQLException {
-        String[] defaultItems = {
-            "INSERT OR IGNORE INTO inventory (item_name, category, quantity, unit, low_stock_threshold) VALUES ('Rice', 'Food', 100, 'kg', 20)",
-            "INSERT OR IGNORE INTO inventory (item_name, category, quantity, unit, low_stock_threshold) VALUES ('Canned Goods', 'Food', 200, 'cans', 50)",
-            "INSERT OR IGNORE INTO inventory (item_name, category, quantity, unit, low_stock_threshold) VALUES ('Water', 'Beverage', 150, 'bottles', 30)",
-            "INSERT OR IGNORE INTO inventory (item_name, category, quantity, unit, low_stock_threshold) VALUES ('Blankets', 'Shelter', 50, 'pieces', 10)",
-            "INSERT OR IGNORE INTO inventory (item_name, category, quantity, unit, low_stock_threshold) VALUES ('Hygiene Kit', 'Personal Care', 75, 'kits', 15)"
-        };
-        
-        try (Statement stmt = connection.createStatement()) {
-            for (String sql : defaultItems) {
-                stmt.execute(sql);
-            }
+    private static void configureReader(Connection conn) throws SQLException {
+        configureConnection(conn);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA query_only = 1");
         }
     }
 
     /**
-     * Close database connection
+     * Close all pooled database connections
      */
-    public static void close() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
+    public static synchronized void close() {
+        if (readerPool != null) {
+            readerPool.shutdown();
+            readerPool = null;
+        }
+        if (writerPool != null) {
+            writerPool.shutdown();
+            writerPool = null;
         }
     }
 }
-
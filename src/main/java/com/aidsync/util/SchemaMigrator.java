@@ -0,0 +1,681 @@
+package com.aidsync.util;
+
+import java.sql.*;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Versioned schema migrations keyed on SQLite's PRAGMA user_version.
+ *
+ * Each migration runs in its own transaction together with the version bump, so a
+ * failed step leaves the database at the previous version. A database that is
+ * already current costs a single pragma read at startup.
+ */
+public class SchemaMigrator {
+
+    /**
+     * One schema change, applied inside the migration transaction
+     */
+    private interface MigrationStep {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Ordered migration entry
+     */
+    private static class Migration {
+        private final int version;
+        private final String description;
+        private final MigrationStep step;
+
+        private Migration(int version, String description, MigrationStep step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+
+    // Append new migrations at the end with the next version number; never edit applied ones
+    private static final List<Migration> MIGRATIONS = Arrays.asList(
+        new Migration(1, "Baseline schema and default data", SchemaMigrator::baseline),
+        new Migration(2, "Resumable batch distribution runs", SchemaMigrator::batchRuns),
+        new Migration(3, "Link distributions to their batch run", SchemaMigrator::distributionBatchLinks),
+        new Migration(4, "Keyset indexes for beneficiary lists", SchemaMigrator::beneficiaryKeysetIndexes),
+        new Migration(5, "Full-text search index for beneficiaries", SchemaMigrator::beneficiarySearchIndex),
+        new Migration(6, "Persistent activity log", SchemaMigrator::activityLogIndexes),
+        new Migration(7, "Indexes for inventory transaction ledger queries", SchemaMigrator::inventoryTransactionIndexes),
+        new Migration(8, "Inventory stock snapshots", SchemaMigrator::inventoryStockSnapshots),
+        new Migration(9, "Daily distribution and stock movement rollups", SchemaMigrator::dailyRollups),
+        new Migration(10, "Per-beneficiary distribution summary", SchemaMigrator::beneficiaryDistributionSummary)
+    );
+
+    private SchemaMigrator() {
+    }
+
+    /**
+     * Latest schema version known to this build
+     */
+    public static int getLatestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    /**
+     * Bring the database up to the latest schema version
+     */
+    public static void migrate(Connection conn) throws SQLException {
+        int currentVersion = getUserVersion(conn);
+        int latestVersion = getLatestVersion();
+
+        if (currentVersion == latestVersion) {
+            return;
+        }
+        if (currentVersion > latestVersion) {
+            System.err.println("Database schema version " + currentVersion +
+                " is newer than this application (" + latestVersion + ")");
+            return;
+        }
+
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version > currentVersion) {
+                apply(conn, migration);
+            }
+        }
+    }
+
+    /**
+     * Read the schema version stored in the database header
+     */
+    public static int getUserVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void apply(Connection conn, Migration migration) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+
+        try {
+            migration.step.apply(conn);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA user_version = " + migration.version);
+            }
+            conn.commit();
+            System.out.println("Applied schema migration " + migration.version + ": " + migration.description);
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Schema migration " + migration.version + " failed: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Check whether a column exists without relying on a failing query
+     */
+    private static boolean columnExists(Connection conn, String table, String column) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void addColumnIfMissing(Connection conn, String table, String column, String definition)
+            throws SQLException {
+        if (!columnExists(conn, table, column)) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+            }
+        }
+    }
+
+    /**
+     * Version 1: the schema previously created on every launch.
+     * Uses IF NOT EXISTS and column checks so databases created before versioning
+     * (user_version 0) are adopted in place.
+     */
+    private static void baseline(Connection connection) throws SQLException {
+        // Users table
+        String createUsersTable = "CREATE TABLE IF NOT EXISTS users (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "username TEXT UNIQUE NOT NULL, " +
+            "password TEXT NOT NULL, " +
+            "full_name TEXT, " +
+            "email TEXT, " +
+            "phone TEXT, " +
+            "role TEXT NOT NULL CHECK(role IN ('Admin', 'Staff')), " +
+            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+            "last_login TIMESTAMP)";
+        
+        // Beneficiaries table
+        String createBeneficiariesTable = "CREATE TABLE IF NOT EXISTS beneficiaries (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "beneficiary_id TEXT UNIQUE NOT NULL, " +
+            "full_name TEXT NOT NULL, " +
+            "birth_date DATE, " +
+            "gender TEXT, " +
+            "contact_number TEXT, " +
+            "barangay TEXT NOT NULL, " +
+            "purok TEXT NOT NULL, " +
+            "street_address TEXT, " +
+            "family_size INTEGER NOT NULL CHECK(family_size >= 1 AND family_size <= 20), " +
+            "is_household_head INTEGER DEFAULT 0, " +
+            "is_pwd INTEGER DEFAULT 0, " +
+            "is_senior_citizen INTEGER DEFAULT 0, " +
+            "is_pregnant INTEGER DEFAULT 0, " +
+            "is_solo_parent INTEGER DEFAULT 0, " +
+            "date_registered TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+            "status TEXT DEFAULT 'Active' CHECK(status IN ('Active', 'Inactive')), " +
+            "deleted INTEGER DEFAULT 0, " +
+            "deleted_at TIMESTAMP, " +
+            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+            "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
+        
+        // Inventory table
+        String createInventoryTable = "CREATE TABLE IF NOT EXISTS inventory (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "item_name TEXT UNIQUE NOT NULL, " +
+            "category TEXT, " +
+            "quantity INTEGER NOT NULL DEFAULT 0 CHECK(quantity >= 0), " +
+            "unit TEXT, " +
+            "low_stock_threshold INTEGER DEFAULT 10, " +
+            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+            "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
+        
+        // Calamities table
+        String createCalamitiesTable = "CREATE TABLE IF NOT EXISTS calamities (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "name TEXT UNIQUE NOT NULL, " +
+            "description TEXT, " +
+            "status TEXT DEFAULT 'Active' CHECK(status IN ('Active', 'Inactive')), " +
+            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
+        
+        // Calamity items table (many-to-many: calamity -> inventory items)
+        String createCalamityItemsTable = "CREATE TABLE IF NOT EXISTS calamity_items (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "calamity_id INTEGER NOT NULL, " +
+            "inventory_id INTEGER NOT NULL, " +
+            "standard_quantity INTEGER NOT NULL CHECK(standard_quantity > 0), " +
+            "FOREIGN KEY (calamity_id) REFERENCES calamities(id) ON DELETE CASCADE, " +
+            "FOREIGN KEY (inventory_id) REFERENCES inventory(id), " +
+            "UNIQUE(calamity_id, inventory_id))";
+        
+        // Distributions table
+        String createDistributionsTable = "CREATE TABLE IF NOT EXISTS distributions (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "beneficiary_id INTEGER NOT NULL, " +
+            "calamity_id INTEGER, " +
+            "distribution_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+            "distributed_by INTEGER NOT NULL, " +
+            "notes TEXT, " +
+            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+            "FOREIGN KEY (beneficiary_id) REFERENCES beneficiaries(id), " +
+            "FOREIGN KEY (calamity_id) REFERENCES calamities(id), " +
+            "FOREIGN KEY (distributed_by) REFERENCES users(id))";
+        
+        // Distribution items table (many-to-many relationship)
+        String createDistributionItemsTable = "CREATE TABLE IF NOT EXISTS distribution_items (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "distribution_id INTEGER NOT NULL, " +
+            "inventory_id INTEGER NOT NULL, " +
+            "quantity INTEGER NOT NULL CHECK(quantity > 0), " +
+            "FOREIGN KEY (distribution_id) REFERENCES distributions(id) ON DELETE CASCADE, " +
+            "FOREIGN KEY (inventory_id) REFERENCES inventory(id))";
+        
+        // Activity log table
+        String createActivityLogTable = "CREATE TABLE IF NOT EXISTS activity_log (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "user_id INTEGER, " +
+            "action TEXT NOT NULL, " +
+            "entity_type TEXT, " +
+            "entity_id INTEGER, " +
+            "details TEXT, " +
+            "timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+            "FOREIGN KEY (user_id) REFERENCES users(id))";
+        
+        // Inventory transactions table (audit trail)
+        String createInventoryTransactionsTable = "CREATE TABLE IF NOT EXISTS inventory_transactions (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "inventory_id INTEGER NOT NULL, " +
+            "user_id INTEGER, " +
+            "transaction_type TEXT NOT NULL CHECK(transaction_type IN ('Restock', 'Set Quantity', 'Distribution', 'Void Distribution')), " +
+            "quantity_change INTEGER NOT NULL, " +
+            "quantity_before INTEGER NOT NULL, " +
+            "quantity_after INTEGER NOT NULL, " +
+            "notes TEXT, " +
+            "reference_id INTEGER, " +
+            "reference_type TEXT, " +
+            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+            "FOREIGN KEY (inventory_id) REFERENCES inventory(id), " +
+            "FOREIGN KEY (user_id) REFERENCES users(id))";
+        
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(createUsersTable);
+            stmt.execute(createBeneficiariesTable);
+            stmt.execute(createInventoryTable);
+            stmt.execute(createCalamitiesTable);
+            stmt.execute(createCalamityItemsTable);
+            stmt.execute(createDistributionsTable);
+            stmt.execute(createDistributionItemsTable);
+            stmt.execute(createActivityLogTable);
+            stmt.execute(createInventoryTransactionsTable);
+            
+            // Columns added after the first release
+            addColumnIfMissing(connection, "users", "full_name", "TEXT");
+            addColumnIfMissing(connection, "users", "email", "TEXT");
+            addColumnIfMissing(connection, "users", "phone", "TEXT");
+            addColumnIfMissing(connection, "distributions", "calamity_id", "INTEGER");
+            
+            // Create indexes for better performance
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_beneficiaries_beneficiary_id ON beneficiaries(beneficiary_id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_beneficiaries_name ON beneficiaries(full_name)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_beneficiaries_barangay ON beneficiaries(barangay)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_beneficiaries_status ON beneficiaries(status)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_distributions_beneficiary ON distributions(beneficiary_id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_distributions_date ON distributions(distribution_date)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_distributions_calamity ON distributions(calamity_id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_calamity_items_calamity ON calamity_items(calamity_id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_calamity_items_inventory ON calamity_items(inventory_id)");
+        }
+        
+        initializeData(connection);
+    }
+
+    /**
+     * Initialize default data (barangays, puroks, default admin user)
+     */
+    private static void initializeData(Connection connection) throws SQLException {
+        // Check if data already exists
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT COUNT(*) FROM users");
+             ResultSet rs = stmt.executeQuery()) {
+            if (rs.next() && rs.getInt(1) > 0) {
+                return; // Data already initialized
+            }
+        }
+        
+        // Create default admin user (username: admin, password: admin123)
+        String defaultPassword = "admin123"; // In production, this should be hashed
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "INSERT INTO users (username, password, role) VALUES (?, ?, ?)")) {
+            stmt.setString(1, "admin");
+            stmt.setString(2, defaultPassword);
+            stmt.setString(3, "Admin");
+            stmt.executeUpdate();
+        }
+        
+        // Initialize barangay and purok data (stored in BarangayData class)
+        BarangayData.initializeBarangays(connection);
+        
+        // Initialize some default inventory items
+        initializeDefaultInventory(connection);
+    }
+
+    /**
+     * Initialize default inventory items
+     */
+    private static void initializeDefaultInventory(Connection connection) throws SQLException {
+        String[] defaultItems = {
+            "INSERT OR IGNORE INTO inventory (item_name, category, quantity, unit, low_stock_threshold) VALUES ('Rice', 'Food', 100, 'kg', 20)",
+            "INSERT OR IGNORE INTO inventory (item_name, category, quantity, unit, low_stock_threshold) VALUES ('Canned Goods', 'Food', 200, 'cans', 50)",
+            "INSERT OR IGNORE INTO inventory (item_name, category, quantity, unit, low_stock_threshold) VALUES ('Water', 'Beverage', 150, 'bottles', 30)",
+            "INSERT OR IGNORE INTO inventory (item_name, category, quantity, unit, low_stock_threshold) VALUES ('Blankets', 'Shelter', 50, 'pieces', 10)",
+            "INSERT OR IGNORE INTO inventory (item_name, category, quantity, unit, low_stock_threshold) VALUES ('Hygiene Kit', 'Personal Care', 75, 'kits', 15)"
+        };
+        
+        try (Statement stmt = connection.createStatement()) {
+            for (String sql : defaultItems) {
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * Version 2: batch distribution runs with per-beneficiary status and checkpoints
+     */
+    private static void batchRuns(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS distribution_batches (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "calamity_id INTEGER, " +
+                "created_by INTEGER NOT NULL, " +
+                "notes TEXT, " +
+                "status TEXT NOT NULL DEFAULT 'Running' CHECK(status IN ('Running', 'Completed', 'Failed')), " +
+                "total_count INTEGER NOT NULL, " +
+                "processed_count INTEGER NOT NULL DEFAULT 0, " +
+                "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                "last_checkpoint_at TIMESTAMP, " +
+                "completed_at TIMESTAMP, " +
+                "FOREIGN KEY (calamity_id) REFERENCES calamities(id), " +
+                "FOREIGN KEY (created_by) REFERENCES users(id))");
+            
+            // Items handed to every beneficiary in the batch
+            stmt.execute("CREATE TABLE IF NOT EXISTS distribution_batch_items (" +
+                "batch_id INTEGER NOT NULL, " +
+                "inventory_id INTEGER NOT NULL, " +
+                "quantity INTEGER NOT NULL CHECK(quantity > 0), " +
+                "PRIMARY KEY (batch_id, inventory_id), " +
+                "FOREIGN KEY (batch_id) REFERENCES distribution_batches(id) ON DELETE CASCADE, " +
+                "FOREIGN KEY (inventory_id) REFERENCES inventory(id))");
+            
+            // Per-beneficiary progress; updated in the same transaction as the distribution
+            stmt.execute("CREATE TABLE IF NOT EXISTS distribution_batch_entries (" +
+                "batch_id INTEGER NOT NULL, " +
+                "seq INTEGER NOT NULL, " +
+                "beneficiary_id INTEGER NOT NULL, " +
+                "status TEXT NOT NULL DEFAULT 'Pending' CHECK(status IN ('Pending', 'Served')), " +
+                "distribution_id INTEGER, " +
+                "PRIMARY KEY (batch_id, seq), " +
+                "FOREIGN KEY (batch_id) REFERENCES distribution_batches(id) ON DELETE CASCADE, " +
+                "FOREIGN KEY (beneficiary_id) REFERENCES beneficiaries(id), " +
+                "FOREIGN KEY (distribution_id) REFERENCES distributions(id))");
+            
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_batch_entries_pending ON distribution_batch_entries(batch_id, status, seq)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_distribution_batches_status ON distribution_batches(status)");
+        }
+    }
+
+    /**
+     * Version 3: every distribution remembers the batch run that created it,
+     * and batches can be voided as a whole
+     */
+    private static void distributionBatchLinks(Connection connection) throws SQLException {
+        addColumnIfMissing(connection, "distributions", "batch_id", "INTEGER REFERENCES distribution_batches(id)");
+        addColumnIfMissing(connection, "distribution_batches", "voided_at", "TIMESTAMP");
+        addColumnIfMissing(connection, "distribution_batches", "voided_by", "INTEGER");
+        
+        try (Statement stmt = connection.createStatement()) {
+            // Backfill runs recorded before the link existed
+            stmt.execute("UPDATE distributions SET batch_id = (" +
+                "SELECT e.batch_id FROM distribution_batch_entries e WHERE e.distribution_id = distributions.id) " +
+                "WHERE id IN (SELECT distribution_id FROM distribution_batch_entries WHERE distribution_id IS NOT NULL)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_distributions_batch ON distributions(batch_id)");
+        }
+    }
+
+    /**
+     * Version 4: (full_name, id) indexes over active beneficiaries so list pages
+     * seek straight to their cursor, with or without a barangay filter
+     */
+    private static void beneficiaryKeysetIndexes(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_beneficiaries_active_name " +
+                "ON beneficiaries(full_name, id) WHERE deleted = 0");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_beneficiaries_active_barangay_name " +
+                "ON beneficiaries(barangay, full_name, id) WHERE deleted = 0");
+        }
+    }
+
+    /**
+     * Version 5: FTS5 index over beneficiary name, ID and street address.
+     * It is an external-content table, so the text lives only in beneficiaries
+     * and triggers keep the index in step with every insert, update and delete.
+     */
+    private static void beneficiarySearchIndex(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            try {
+                stmt.execute("CREATE VIRTUAL TABLE IF NOT EXISTS beneficiaries_fts USING fts5(" +
+                    "full_name, beneficiary_id, street_address, " +
+                    "content='beneficiaries', content_rowid='id', " +
+                    "tokenize='unicode61 remove_diacritics 2', prefix='2 3')");
+            } catch (SQLException e) {
+                // Driver built without FTS5: searches fall back to LIKE
+                if (e.getMessage() != null && e.getMessage().contains("no such module")) {
+                    System.err.println("FTS5 is not available, beneficiary search will not be indexed");
+                    return;
+                }
+                throw e;
+            }
+            
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS beneficiaries_fts_insert AFTER INSERT ON beneficiaries BEGIN " +
+                "INSERT INTO beneficiaries_fts(rowid, full_name, beneficiary_id, street_address) " +
+                "VALUES (new.id, new.full_name, new.beneficiary_id, new.street_address); END");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS beneficiaries_fts_delete AFTER DELETE ON beneficiaries BEGIN " +
+                "INSERT INTO beneficiaries_fts(beneficiaries_fts, rowid, full_name, beneficiary_id, street_address) " +
+                "VALUES ('delete', old.id, old.full_name, old.beneficiary_id, old.street_address); END");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS beneficiaries_fts_update " +
+                "AFTER UPDATE OF full_name, beneficiary_id, street_address ON beneficiaries BEGIN " +
+                "INSERT INTO beneficiaries_fts(beneficiaries_fts, rowid, full_name, beneficiary_id, street_address) " +
+                "VALUES ('delete', old.id, old.full_name, old.beneficiary_id, old.street_address); " +
+                "INSERT INTO beneficiaries_fts(rowid, full_name, beneficiary_id, street_address) " +
+                "VALUES (new.id, new.full_name, new.beneficiary_id, new.street_address); END");
+            
+            // Index the existing registry
+            stmt.execute("INSERT INTO beneficiaries_fts(beneficiaries_fts) VALUES ('rebuild')");
+        }
+    }
+
+    /**
+     * Version 6: activity_log records the acting username (callers log by name,
+     * including "System"), with indexes for the newest-first history view and
+     * its per-user filter
+     */
+    private static void activityLogIndexes(Connection connection) throws SQLException {
+        addColumnIfMissing(connection, "activity_log", "username", "TEXT");
+        
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_activity_log_timestamp ON activity_log(timestamp)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_activity_log_username_timestamp " +
+                "ON activity_log(username, timestamp)");
+        }
+    }
+
+    /**
+     * Version 7: ledger indexes for the item, user and type filters, each
+     * followed by created_at so filtered pages come out of the index in order
+     */
+    private static void inventoryTransactionIndexes(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_inventory_transactions_item_created " +
+                "ON inventory_transactions(inventory_id, created_at)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_inventory_transactions_user_created " +
+                "ON inventory_transactions(user_id, created_at)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_inventory_transactions_type_created " +
+                "ON inventory_transactions(transaction_type, created_at)");
+        }
+    }
+
+    /**
+     * Version 8: periodic stock snapshots. A snapshot is the stock of an item
+     * after every ledger row up to last_transaction_id; taken_at is that row's
+     * created_at, so point-in-time queries only replay rows past it.
+     */
+    private static void inventoryStockSnapshots(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS inventory_stock_snapshots (" +
+                "inventory_id INTEGER NOT NULL, " +
+                "last_transaction_id INTEGER NOT NULL, " +
+                "taken_at TIMESTAMP NOT NULL, " +
+                "quantity INTEGER NOT NULL, " +
+                "PRIMARY KEY (inventory_id, last_transaction_id), " +
+                "FOREIGN KEY (inventory_id) REFERENCES inventory(id))");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_inventory_stock_snapshots_taken " +
+                "ON inventory_stock_snapshots(inventory_id, taken_at)");
+        }
+    }
+
+    /**
+     * Version 9: daily rollups for reports, kept up to date by DailyRollupDAO in
+     * the same transaction as each distribution, void and ledger write. Days are
+     * local dates; a missing calamity is stored as 0 so it can be part of the key.
+     * A trigger moves a beneficiary's figures when their barangay changes.
+     */
+    private static void dailyRollups(Connection connection) throws SQLException {
+        String distributionDay = "CASE WHEN typeof(d.distribution_date) = 'integer' " +
+            "THEN date(d.distribution_date / 1000, 'unixepoch', 'localtime') " +
+            "ELSE date(d.distribution_date, 'localtime') END";
+        
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS distribution_daily_rollup (" +
+                "day TEXT NOT NULL, " +
+                "barangay TEXT NOT NULL, " +
+                "calamity_id INTEGER NOT NULL, " +
+                "inventory_id INTEGER NOT NULL, " +
+                "households_served INTEGER NOT NULL, " +
+                "quantity INTEGER NOT NULL, " +
+                "PRIMARY KEY (day, barangay, calamity_id, inventory_id)) WITHOUT ROWID");
+            // Households per day regardless of item, since they cannot be summed across items
+            stmt.execute("CREATE TABLE IF NOT EXISTS distribution_daily_households (" +
+                "day TEXT NOT NULL, " +
+                "barangay TEXT NOT NULL, " +
+                "calamity_id INTEGER NOT NULL, " +
+                "households_served INTEGER NOT NULL, " +
+                "PRIMARY KEY (day, barangay, calamity_id)) WITHOUT ROWID");
+            stmt.execute("CREATE TABLE IF NOT EXISTS inventory_daily_movement (" +
+                "day TEXT NOT NULL, " +
+                "inventory_id INTEGER NOT NULL, " +
+                "transaction_type TEXT NOT NULL, " +
+                "transaction_count INTEGER NOT NULL, " +
+                "quantity_change INTEGER NOT NULL, " +
+                "PRIMARY KEY (day, inventory_id, transaction_type)) WITHOUT ROWID");
+            
+            // Backfill from the existing history
+            stmt.execute("INSERT INTO distribution_daily_rollup " +
+                "(day, barangay, calamity_id, inventory_id, households_served, quantity) " +
+                "SELECT " + distributionDay + ", COALESCE(b.barangay, ''), COALESCE(d.calamity_id, 0), " +
+                "di.inventory_id, COUNT(DISTINCT d.id), SUM(di.quantity) " +
+                "FROM distributions d " +
+                "JOIN distribution_items di ON di.distribution_id = d.id " +
+                "LEFT JOIN beneficiaries b ON b.id = d.beneficiary_id " +
+                "GROUP BY 1, 2, 3, 4");
+            stmt.execute("INSERT INTO distribution_daily_households " +
+                "(day, barangay, calamity_id, households_served) " +
+                "SELECT " + distributionDay + ", COALESCE(b.barangay, ''), COALESCE(d.calamity_id, 0), COUNT(*) " +
+                "FROM distributions d " +
+                "LEFT JOIN beneficiaries b ON b.id = d.beneficiary_id " +
+                "GROUP BY 1, 2, 3");
+            stmt.execute("INSERT INTO inventory_daily_movement " +
+                "(day, inventory_id, transaction_type, transaction_count, quantity_change) " +
+                "SELECT date(created_at, 'localtime'), inventory_id, transaction_type, COUNT(*), SUM(quantity_change) " +
+                "FROM inventory_transactions " +
+                "GROUP BY 1, 2, 3");
+            
+            // Move a beneficiary's figures to their new barangay. Each upsert's SELECT
+            // carries a WHERE so ON CONFLICT is not read as a join constraint.
+            String movedItems = "SELECT " + distributionDay + " AS day, COALESCE(d.calamity_id, 0) AS calamity_id, " +
+                "di.inventory_id, COUNT(DISTINCT d.id) AS households, SUM(di.quantity) AS quantity " +
+                "FROM distributions d JOIN distribution_items di ON di.distribution_id = d.id " +
+                "WHERE d.beneficiary_id = new.id GROUP BY 1, 2, 3";
+            String movedHouseholds = "SELECT " + distributionDay + " AS day, COALESCE(d.calamity_id, 0) AS calamity_id, " +
+                "COUNT(*) AS households FROM distributions d WHERE d.beneficiary_id = new.id GROUP BY 1, 2";
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS beneficiaries_rollup_barangay " +
+                "AFTER UPDATE OF barangay ON beneficiaries WHEN old.barangay IS NOT new.barangay BEGIN " +
+                "INSERT INTO distribution_daily_rollup " +
+                "(day, barangay, calamity_id, inventory_id, households_served, quantity) " +
+                "SELECT m.day, old.barangay, m.calamity_id, m.inventory_id, -m.households, -m.quantity " +
+                "FROM (" + movedItems + ") m WHERE true " +
+                "ON CONFLICT (day, barangay, calamity_id, inventory_id) DO UPDATE SET " +
+                "households_served = households_served + excluded.households_served, " +
+                "quantity = quantity + excluded.quantity; " +
+                "INSERT INTO distribution_daily_rollup " +
+                "(day, barangay, calamity_id, inventory_id, households_served, quantity) " +
+                "SELECT m.day, new.barangay, m.calamity_id, m.inventory_id, m.households, m.quantity " +
+                "FROM (" + movedItems + ") m WHERE true " +
+                "ON CONFLICT (day, barangay, calamity_id, inventory_id) DO UPDATE SET " +
+                "households_served = households_served + excluded.households_served, " +
+                "quantity = quantity + excluded.quantity; " +
+                "INSERT INTO distribution_daily_households (day, barangay, calamity_id, households_served) " +
+                "SELECT m.day, old.barangay, m.calamity_id, -m.households FROM (" + movedHouseholds + ") m WHERE true " +
+                "ON CONFLICT (day, barangay, calamity_id) DO UPDATE SET " +
+                "households_served = households_served + excluded.households_served; " +
+                "INSERT INTO distribution_daily_households (day, barangay, calamity_id, households_served) " +
+                "SELECT m.day, new.barangay, m.calamity_id, m.households FROM (" + movedHouseholds + ") m WHERE true " +
+                "ON CONFLICT (day, barangay, calamity_id) DO UPDATE SET " +
+                "households_served = households_served + excluded.households_served; " +
+                "DELETE FROM distribution_daily_rollup WHERE barangay = old.barangay " +
+                "AND households_served = 0 AND quantity = 0; " +
+                "DELETE FROM distribution_daily_households WHERE barangay = old.barangay " +
+                "AND households_served = 0; " +
+                "END");
+        }
+    }
+
+    /**
+     * Version 10: one summary row per served beneficiary (distribution count,
+     * last distribution date, total items), maintained by triggers. Inserts are
+     * applied incrementally; deleting (voiding) or moving a distribution
+     * recomputes that beneficiary's row from their remaining distributions, so
+     * the last distribution date stays correct.
+     */
+    private static void beneficiaryDistributionSummary(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS beneficiary_distribution_summary (" +
+                "beneficiary_id INTEGER PRIMARY KEY, " +
+                "distribution_count INTEGER NOT NULL, " +
+                "last_distribution_date TIMESTAMP, " +
+                "total_items INTEGER NOT NULL, " +
+                "FOREIGN KEY (beneficiary_id) REFERENCES beneficiaries(id))");
+            // Lets the recompute find a beneficiary's latest distribution from the index
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_distributions_beneficiary_date " +
+                "ON distributions(beneficiary_id, distribution_date)");
+            
+            stmt.execute("INSERT INTO beneficiary_distribution_summary " +
+                "(beneficiary_id, distribution_count, last_distribution_date, total_items) " +
+                "SELECT d.beneficiary_id, COUNT(DISTINCT d.id), MAX(d.distribution_date), COALESCE(SUM(di.quantity), 0) " +
+                "FROM distributions d " +
+                "LEFT JOIN distribution_items di ON di.distribution_id = d.id " +
+                "GROUP BY d.beneficiary_id");
+            
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS distributions_summary_insert " +
+                "AFTER INSERT ON distributions BEGIN " +
+                "INSERT INTO beneficiary_distribution_summary " +
+                "(beneficiary_id, distribution_count, last_distribution_date, total_items) " +
+                "VALUES (new.beneficiary_id, 1, new.distribution_date, 0) " +
+                "ON CONFLICT (beneficiary_id) DO UPDATE SET " +
+                "distribution_count = distribution_count + 1, " +
+                "last_distribution_date = CASE WHEN last_distribution_date IS NULL " +
+                "OR excluded.last_distribution_date > last_distribution_date " +
+                "THEN excluded.last_distribution_date ELSE last_distribution_date END; " +
+                "END");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS distributions_summary_delete " +
+                "AFTER DELETE ON distributions BEGIN " +
+                recomputeSummary("old.beneficiary_id") +
+                "END");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS distributions_summary_update " +
+                "AFTER UPDATE OF beneficiary_id, distribution_date ON distributions BEGIN " +
+                recomputeSummary("old.beneficiary_id") +
+                recomputeSummary("new.beneficiary_id") +
+                "END");
+            
+            // Item lines only move the total; a line whose distribution is already gone is skipped
+            // because the delete trigger above has recomputed that beneficiary
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS distribution_items_summary_insert " +
+                "AFTER INSERT ON distribution_items BEGIN " +
+                "UPDATE beneficiary_distribution_summary SET total_items = total_items + new.quantity " +
+                "WHERE beneficiary_id = (SELECT beneficiary_id FROM distributions WHERE id = new.distribution_id); " +
+                "END");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS distribution_items_summary_delete " +
+                "AFTER DELETE ON distribution_items BEGIN " +
+                "UPDATE beneficiary_distribution_summary SET total_items = total_items - old.quantity " +
+                "WHERE beneficiary_id = (SELECT beneficiary_id FROM distributions WHERE id = old.distribution_id); " +
+                "END");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS distribution_items_summary_update " +
+                "AFTER UPDATE OF distribution_id, quantity ON distribution_items BEGIN " +
+                "UPDATE beneficiary_distribution_summary SET total_items = total_items - old.quantity " +
+                "WHERE beneficiary_id = (SELECT beneficiary_id FROM distributions WHERE id = old.distribution_id); " +
+                "UPDATE beneficiary_distribution_summary SET total_items = total_items + new.quantity " +
+                "WHERE beneficiary_id = (SELECT beneficiary_id FROM distributions WHERE id = new.distribution_id); " +
+                "END");
+        }
+    }
+
+    /**
+     * Trigger statements that rebuild one beneficiary's summary row from their
+     * distributions, dropping it when none are left
+     */
+    private static String recomputeSummary(String beneficiaryId) {
+        return "INSERT OR REPLACE INTO beneficiary_distribution_summary " +
+            "(beneficiary_id, distribution_count, last_distribution_date, total_items) " +
+            "SELECT " + beneficiaryId + ", COUNT(*), MAX(d.distribution_date), " +
+            "(SELECT COALESCE(SUM(di.quantity), 0) FROM distribution_items di " +
+            "JOIN distributions i ON i.id = di.distribution_id WHERE i.beneficiary_id = " + beneficiaryId + ") " +
+            "FROM distributions d WHERE d.beneficiary_id = " + beneficiaryId + "; " +
+            "DELETE FROM beneficiary_distribution_summary " +
+            "WHERE beneficiary_id = " + beneficiaryId + " AND distribution_count = 0; ";
+    }
+}
@@ -0,0 +1,213 @@
+package com.aidsync.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LRU cache of prepared statements for one physical connection, keyed by SQL text.
+ *
+ * Callers get a handle whose close() resets the statement and returns it to the
+ * cache, so the usual try-with-resources DAO code reuses parsed statements.
+ */
+class StatementCache {
+    private final Connection physical;
+    private final int capacity;
+    private final LinkedHashMap<String, CachedStatement> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    StatementCache(Connection physical, int capacity) {
+        this.physical = physical;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Get a cached statement for the SQL, preparing it on first use.
+     * If the cached statement is already open by an outer caller, an uncached one is returned.
+     */
+    synchronized PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys + ":" + sql;
+        CachedStatement cached = entries.get(key);
+
+        if (cached != null && !cached.inUse) {
+            hits++;
+            cached.inUse = true;
+            return cached.newHandle();
+        }
+
+        misses++;
+        PreparedStatement statement = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS
+            ? physical.prepareStatement(sql, autoGeneratedKeys)
+            : physical.prepareStatement(sql);
+
+        if (cached != null || capacity <= 0) {
+            return statement;
+        }
+
+        cached = new CachedStatement(statement);
+        cached.inUse = true;
+        entries.put(key, cached);
+        evictIfNeeded();
+        return cached.newHandle();
+    }
+
+    /**
+     * Drop least recently used statements that are not currently open
+     */
+    private void evictIfNeeded() {
+        Iterator<CachedStatement> it = entries.values().iterator();
+        while (entries.size() > capacity && it.hasNext()) {
+            CachedStatement eldest = it.next();
+            if (eldest.inUse) {
+                continue;
+            }
+            it.remove();
+            evictions++;
+            closeQuietly(eldest.statement);
+        }
+    }
+
+    private synchronized void giveBack(CachedStatement cached) {
+        cached.inUse = false;
+        if (!entries.containsValue(cached)) {
+            closeQuietly(cached.statement);
+        } else {
+            evictIfNeeded();
+        }
+    }
+
+    /**
+     * Close every cached statement (the connection is going away)
+     */
+    synchronized void clear() {
+        for (Map.Entry<String, CachedStatement> entry : entries.entrySet()) {
+            closeQuietly(entry.getValue().statement);
+        }
+        entries.clear();
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    synchronized long getEvictions() {
+        return evictions;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing cached statement: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Physical statement owned by the cache
+     */
+    private class CachedStatement {
+        private final PreparedStatement statement;
+        private boolean inUse;
+
+        private CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        private PreparedStatement newHandle() {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class },
+                new HandleInvocationHandler(this));
+        }
+    }
+
+    /**
+     * Borrower-facing statement: close() resets it and hands it back to the cache
+     */
+    private class HandleInvocationHandler implements InvocationHandler {
+        private final CachedStatement cached;
+        private final List<ResultSet> openResults = new ArrayList<>();
+        private boolean closed;
+
+        private HandleInvocationHandler(CachedStatement cached) {
+            this.cached = cached;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        reset();
+                        giveBack(cached);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || cached.statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached " + cached.statement;
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Statement has already been closed");
+            }
+
+            Object result;
+            try {
+                result = method.invoke(cached.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof ResultSet) {
+                openResults.add((ResultSet) result);
+            }
+            return result;
+        }
+
+        /**
+         * Release result sets and bindings so the next borrower starts clean
+         */
+        private void reset() {
+            try {
+                for (ResultSet rs : openResults) {
+                    rs.close();
+                }
+                cached.statement.clearBatch();
+                cached.statement.clearParameters();
+            } catch (SQLException e) {
+                System.err.println("Error resetting cached statement: " + e.getMessage());
+            } finally {
+                openResults.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.aidsync.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit of work on the writer connection.
+ *
+ * Runs a callback inside one database transaction and commits once at the end;
+ * any exception or error rolls everything back. Calls nested inside an active
+ * unit of work on the same thread join the outer transaction instead of
+ * committing early.
+ * Actions registered with afterCommit run once the outer transaction commits.
+ */
+public final class TransactionTemplate {
+
+    // After-commit actions of the unit of work running on this thread
+    private static final ThreadLocal<List<Runnable>> afterCommitActions = new ThreadLocal<>();
+
+    /**
+     * Work to run inside the transaction
+     */
+    @FunctionalInterface
+    public interface TransactionCallback<T> {
+        T doInTransaction(Connection conn) throws SQLException;
+    }
+
+    private TransactionTemplate() {
+    }
+
+    /**
+     * Run the callback in a transaction and return its result
+     */
+    public static <T> T execute(TransactionCallback<T> callback) throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            if (!conn.getAutoCommit()) {
+                // Already inside a unit of work on this thread
+                return callback.doInTransaction(conn);
+            }
+
+            List<Runnable> actions = new ArrayList<>();
+            afterCommitActions.set(actions);
+            conn.setAutoCommit(false);
+            T result;
+            boolean ended = false;
+            try {
+                result = callback.doInTransaction(conn);
+                conn.commit();
+                ended = true;
+            } catch (Throwable e) {
+                // Errors too: switching auto-commit back on would commit the partial work
+                ended = rollbackQuietly(conn);
+                throw e;
+            } finally {
+                afterCommitActions.remove();
+                if (ended) {
+                    conn.setAutoCommit(true);
+                }
+                // Otherwise the pool rolls back again on release, or discards the connection
+            }
+
+            for (Runnable action : actions) {
+                action.run();
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Run an action once the unit of work on this thread commits (it is dropped
+     * on rollback), or right away when there is none and the change was auto-committed
+     */
+    public static void afterCommit(Runnable action) {
+        List<Runnable> actions = afterCommitActions.get();
+        if (actions != null) {
+            actions.add(action);
+        } else {
+            action.run();
+        }
+    }
+
+    private static boolean rollbackQuietly(Connection conn) {
+        try {
+            conn.rollback();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error rolling back transaction: " + e.getMessage());
+            return false;
+        }
+    }
+}
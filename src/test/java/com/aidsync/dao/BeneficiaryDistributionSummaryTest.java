@@ -0,0 +1,147 @@
+package com.aidsync.dao;
+
+import com.aidsync.model.Distribution;
+import com.aidsync.model.DistributionItem;
+import com.aidsync.service.DistributionService;
+import com.aidsync.util.TestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The trigger-maintained beneficiary_distribution_summary must always equal a
+ * fresh aggregate over distributions and distribution_items
+ */
+class BeneficiaryDistributionSummaryTest {
+    private static final String SUMMARY_SQL = "SELECT beneficiary_id, distribution_count, " +
+        "last_distribution_date, total_items FROM beneficiary_distribution_summary ORDER BY beneficiary_id";
+    private static final String RECOMPUTED_SQL = "SELECT d.beneficiary_id, COUNT(DISTINCT d.id), " +
+        "MAX(d.distribution_date), COALESCE(SUM(di.quantity), 0) " +
+        "FROM distributions d LEFT JOIN distribution_items di ON di.distribution_id = d.id " +
+        "GROUP BY d.beneficiary_id ORDER BY d.beneficiary_id";
+    
+    @TempDir
+    Path tempDir;
+    
+    private DistributionService distributionService;
+    private int userId;
+    private int rice;
+    private int water;
+    private int ana;
+    private int ben;
+    private int carla;
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        TestDatabase.open(tempDir);
+        distributionService = new DistributionService();
+        userId = TestDatabase.adminUserId();
+        rice = TestDatabase.insertInventoryItem("Test Rice", 1000);
+        water = TestDatabase.insertInventoryItem("Test Water", 1000);
+        ana = TestDatabase.insertBeneficiary("B-001", "Ana Cruz", "Poblacion");
+        ben = TestDatabase.insertBeneficiary("B-002", "Ben Reyes", "Poblacion");
+        carla = TestDatabase.insertBeneficiary("B-003", "Carla Santos", "San Isidro");
+    }
+    
+    @AfterEach
+    void tearDown() {
+        TestDatabase.close();
+    }
+    
+    @Test
+    void createKeepsSummaryInSync() throws SQLException {
+        distribute(ana, LocalDateTime.now().minusDays(3), new DistributionItem(rice, 2), new DistributionItem(water, 5));
+        distribute(ana, LocalDateTime.now().minusDays(1), new DistributionItem(rice, 1));
+        // An older distribution must not move last_distribution_date back
+        distribute(ana, LocalDateTime.now().minusDays(7), new DistributionItem(water, 3));
+        distribute(ben, LocalDateTime.now(), new DistributionItem(rice, 4));
+        
+        assertSummaryMatches();
+        assertEquals(2, TestDatabase.query(SUMMARY_SQL).size());
+    }
+    
+    @Test
+    void voidDistributionRecomputesSummary() throws SQLException {
+        distribute(ana, LocalDateTime.now().minusDays(2), new DistributionItem(rice, 2));
+        int latest = distribute(ana, LocalDateTime.now(), new DistributionItem(rice, 3), new DistributionItem(water, 1));
+        int only = distribute(ben, LocalDateTime.now(), new DistributionItem(water, 6));
+        
+        assertTrue(distributionService.voidDistribution(latest));
+        assertSummaryMatches();
+        
+        // The last distribution of a beneficiary drops their summary row
+        assertTrue(distributionService.voidDistribution(only));
+        assertSummaryMatches();
+        assertTrue(TestDatabase.query("SELECT * FROM beneficiary_distribution_summary WHERE beneficiary_id = ?", ben)
+            .isEmpty());
+    }
+    
+    @Test
+    void voidBatchRecomputesSummary() throws SQLException {
+        distribute(ana, LocalDateTime.now().minusDays(5), new DistributionItem(water, 2));
+        DistributionService.BatchResult result = distributionService.createBatch(Arrays.asList(ana, ben, carla),
+            Arrays.asList(new DistributionItem(rice, 3), new DistributionItem(water, 1)), null, userId, "Batch", null);
+        assertTrue(result.isComplete());
+        assertSummaryMatches();
+        
+        assertEquals(3, distributionService.voidBatch(result.getBatchId(), userId));
+        assertSummaryMatches();
+        assertEquals(1, TestDatabase.query(SUMMARY_SQL).size());
+    }
+    
+    @Test
+    void movingADistributionRecomputesBothBeneficiaries() throws SQLException {
+        distribute(ana, LocalDateTime.now().minusDays(1), new DistributionItem(rice, 2));
+        int moved = distribute(ana, LocalDateTime.now(), new DistributionItem(rice, 5), new DistributionItem(water, 2));
+        distribute(carla, LocalDateTime.now().minusDays(4), new DistributionItem(water, 1));
+        
+        TestDatabase.update("UPDATE distributions SET beneficiary_id = ? WHERE id = ?", carla, moved);
+        assertSummaryMatches();
+        
+        TestDatabase.update("UPDATE distributions SET distribution_date = distribution_date - 86400000 * 10 WHERE id = ?", moved);
+        assertSummaryMatches();
+    }
+    
+    @Test
+    void itemChangesAdjustTotals() throws SQLException {
+        int first = distribute(ana, LocalDateTime.now(), new DistributionItem(rice, 2), new DistributionItem(water, 4));
+        int second = distribute(ben, LocalDateTime.now(), new DistributionItem(rice, 1));
+        
+        TestDatabase.update("UPDATE distribution_items SET quantity = 7 WHERE distribution_id = ? AND inventory_id = ?",
+            first, rice);
+        assertSummaryMatches();
+        
+        // Moving an item line to another distribution moves it between beneficiaries
+        TestDatabase.update("UPDATE distribution_items SET distribution_id = ? WHERE distribution_id = ? AND inventory_id = ?",
+            second, first, water);
+        assertSummaryMatches();
+        
+        TestDatabase.update("DELETE FROM distribution_items WHERE distribution_id = ?", second);
+        assertSummaryMatches();
+    }
+    
+    private int distribute(int beneficiaryId, LocalDateTime date, DistributionItem... items) {
+        Distribution distribution = new Distribution();
+        distribution.setBeneficiaryId(beneficiaryId);
+        distribution.setDistributedBy(userId);
+        distribution.setDistributionDate(date);
+        distribution.setItems(Arrays.asList(items));
+        assertTrue(distributionService.createDistribution(distribution));
+        return distribution.getId();
+    }
+    
+    private void assertSummaryMatches() throws SQLException {
+        List<List<Object>> expected = TestDatabase.query(RECOMPUTED_SQL);
+        assertEquals(expected.toString(), TestDatabase.query(SUMMARY_SQL).toString());
+    }
+}
@@ -0,0 +1,156 @@
+package com.aidsync.service;
+
+import com.aidsync.model.DistributionItem;
+import com.aidsync.util.TestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Batch runs checkpoint per chunk: an interrupted run resumes without serving
+ * anyone twice, and a run voided midway stops instead of completing
+ */
+class DistributionServiceBatchTest {
+    // More than two chunks, so a run can be stopped with work on both sides
+    private static final int BENEFICIARIES = 1200;
+    private static final int INITIAL_STOCK = 10_000;
+    private static final int RICE_EACH = 2;
+    private static final int WATER_EACH = 3;
+    
+    @TempDir
+    Path tempDir;
+    
+    private DistributionService distributionService;
+    private int userId;
+    private int rice;
+    private int water;
+    private List<Integer> beneficiaryIds;
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        TestDatabase.open(tempDir);
+        distributionService = new DistributionService();
+        userId = TestDatabase.adminUserId();
+        rice = TestDatabase.insertInventoryItem("Test Rice", INITIAL_STOCK);
+        water = TestDatabase.insertInventoryItem("Test Water", INITIAL_STOCK);
+        beneficiaryIds = new ArrayList<>();
+        for (int i = 1; i <= BENEFICIARIES; i++) {
+            beneficiaryIds.add(TestDatabase.insertBeneficiary("T-" + i, "Beneficiary " + i, "Poblacion"));
+        }
+    }
+    
+    @AfterEach
+    void tearDown() {
+        TestDatabase.close();
+    }
+    
+    @Test
+    void resumeAfterCheckpointServesEveryoneOnce() throws SQLException {
+        // Stop the run right after its first chunk has committed
+        assertThrows(IllegalStateException.class, () -> distributionService.createBatch(beneficiaryIds, items(),
+            null, userId, "Interrupted", (processed, total) -> {
+                throw new IllegalStateException("interrupted");
+            }));
+        
+        int batchId = TestDatabase.queryInt("SELECT id FROM distribution_batches");
+        int checkpointed = TestDatabase.queryInt("SELECT processed_count FROM distribution_batches WHERE id = ?", batchId);
+        assertTrue(checkpointed > 0 && checkpointed < BENEFICIARIES);
+        assertEquals(checkpointed, TestDatabase.queryInt("SELECT COUNT(*) FROM distributions"));
+        assertStockMatchesLedger();
+        
+        DistributionService.BatchResult result = distributionService.resumeBatch(batchId, null);
+        
+        assertTrue(result.isComplete());
+        assertEquals(BENEFICIARIES, result.getDistributedCount());
+        assertEquals(BENEFICIARIES, TestDatabase.queryInt("SELECT COUNT(*) FROM distributions WHERE batch_id = ?", batchId));
+        assertEquals(BENEFICIARIES, TestDatabase.queryInt("SELECT COUNT(DISTINCT beneficiary_id) FROM distributions"));
+        assertEquals(INITIAL_STOCK - RICE_EACH * BENEFICIARIES, stock(rice));
+        assertEquals(INITIAL_STOCK - WATER_EACH * BENEFICIARIES, stock(water));
+        assertStockMatchesLedger();
+    }
+    
+    @Test
+    void voidDuringRunStopsIt() throws SQLException {
+        int[] voided = {-1};
+        DistributionService.BatchResult result = distributionService.createBatch(beneficiaryIds, items(),
+            null, userId, "Voided", (processed, total) -> {
+                if (voided[0] < 0) {
+                    try {
+                        int batchId = TestDatabase.queryInt("SELECT id FROM distribution_batches");
+                        voided[0] = distributionService.voidBatch(batchId, userId);
+                    } catch (SQLException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+        
+        assertTrue(voided[0] > 0 && voided[0] < BENEFICIARIES);
+        assertTrue(result.isVoided());
+        assertFalse(result.isComplete());
+        assertNotNull(result.getErrorMessage());
+        assertNull(TestDatabase.query("SELECT completed_at FROM distribution_batches WHERE id = ?",
+            result.getBatchId()).get(0).get(0));
+        assertEquals(0, TestDatabase.queryInt("SELECT COUNT(*) FROM distributions"));
+        assertThrows(IllegalArgumentException.class, () -> distributionService.resumeBatch(result.getBatchId(), null));
+        
+        // Everything taken by the served chunk went back
+        assertEquals(INITIAL_STOCK, stock(rice));
+        assertEquals(INITIAL_STOCK, stock(water));
+        assertStockMatchesLedger();
+    }
+    
+    @Test
+    void abandonedRunIsNoLongerOffered() throws SQLException {
+        assertThrows(IllegalStateException.class, () -> distributionService.createBatch(beneficiaryIds, items(),
+            null, userId, "Abandoned", (processed, total) -> {
+                throw new IllegalStateException("interrupted");
+            }));
+        
+        int batchId = TestDatabase.queryInt("SELECT id FROM distribution_batches");
+        int served = TestDatabase.queryInt("SELECT COUNT(*) FROM distributions");
+        assertEquals(1, distributionService.getIncompleteBatches().size());
+        
+        assertTrue(distributionService.abandonBatch(batchId));
+        
+        assertTrue(distributionService.getIncompleteBatches().isEmpty());
+        assertEquals("Failed", TestDatabase.query("SELECT status FROM distribution_batches WHERE id = ?",
+            batchId).get(0).get(0));
+        // Beneficiaries served before the interruption keep their distributions
+        assertEquals(served, TestDatabase.queryInt("SELECT COUNT(*) FROM distributions WHERE batch_id = ?", batchId));
+        assertStockMatchesLedger();
+    }
+    
+    private List<DistributionItem> items() {
+        return Arrays.asList(new DistributionItem(rice, RICE_EACH), new DistributionItem(water, WATER_EACH));
+    }
+    
+    private int stock(int inventoryId) throws SQLException {
+        return TestDatabase.queryInt("SELECT quantity FROM inventory WHERE id = ?", inventoryId);
+    }
+    
+    /**
+     * Fixture stock was inserted without a ledger row, so the ledger must account
+     * for exactly the difference from it
+     */
+    private void assertStockMatchesLedger() throws SQLException {
+        for (int inventoryId : new int[] {rice, water}) {
+            int ledgerChange = TestDatabase.queryInt(
+                "SELECT COALESCE(SUM(quantity_change), 0) FROM inventory_transactions WHERE inventory_id = ?", inventoryId);
+            assertEquals(INITIAL_STOCK + ledgerChange, stock(inventoryId));
+        }
+    }
+}
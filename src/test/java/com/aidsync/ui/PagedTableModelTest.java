@@ -0,0 +1,225 @@
+package com.aidsync.ui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Block loading of PagedTableModel against an in-memory source. The model is
+ * only touched on the EDT, as a table would.
+ */
+class PagedTableModelTest {
+    private static final int BLOCK_SIZE = 100;
+    private static final long TIMEOUT_MILLIS = 5000;
+    
+    @Test
+    void shortBlockTruncatesRowCount() throws Exception {
+        FakeSource source = new FakeSource("row", 250);
+        PagedTableModel<String> model = newModel();
+        setSourceAndWait(model, source);
+        assertEquals(250, (int) onEdt(model::getRowCount));
+        
+        // Rows deleted after the count: the last block comes back short
+        source.removeFrom(220);
+        onEdt(() -> model.getValueAt(210, 0));
+        awaitRow(model, 210);
+        assertEquals(220, (int) onEdt(model::getRowCount));
+        assertEquals("row 219", onEdt(() -> model.getRow(219)));
+        
+        // The missing tail is gone, so it is not loaded again
+        onEdt(() -> model.getValueAt(215, 0));
+        assertEquals(1, source.loadOffsets().size());
+        
+        // An empty block ends the table at its first row
+        source.removeFrom(150);
+        onEdt(() -> {
+            model.refresh();
+            return null;
+        });
+        awaitRowCount(model, 150);
+        source.removeFrom(90);
+        onEdt(() -> model.getValueAt(120, 0));
+        awaitRowCount(model, 100);
+    }
+    
+    @Test
+    void loadsStartedBeforeRefreshAreIgnored() throws Exception {
+        FakeSource oldSource = new FakeSource("old", 50);
+        PagedTableModel<String> model = newModel();
+        setSourceAndWait(model, oldSource);
+        
+        CountDownLatch release = oldSource.blockLoads();
+        onEdt(() -> model.getValueAt(0, 0));
+        assertTrue(oldSource.loadStarted.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        
+        setSourceAndWait(model, new FakeSource("new", 30));
+        release.countDown();
+        assertTrue(oldSource.loadFinished.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        settleEdt();
+        
+        assertEquals(30, (int) onEdt(model::getRowCount));
+        assertNull(onEdt(() -> model.getRow(0)), "rows of the old source must not be cached");
+        
+        onEdt(() -> model.getValueAt(0, 0));
+        awaitRow(model, 0);
+        assertEquals("new 0", onEdt(() -> model.getRow(0)));
+    }
+    
+    @Test
+    void loadRowsCollectsAcrossMissingBlocks() throws Exception {
+        FakeSource source = new FakeSource("row", 350);
+        PagedTableModel<String> model = newModel();
+        setSourceAndWait(model, source);
+        onEdt(() -> model.getValueAt(0, 0));
+        awaitRow(model, 0);
+        
+        CountDownLatch loaded = new CountDownLatch(1);
+        AtomicReference<List<String>> result = new AtomicReference<>();
+        onEdt(() -> {
+            model.loadRows(new int[] {5, 150, 320, 151}, rows -> {
+                result.set(rows);
+                loaded.countDown();
+            });
+            return null;
+        });
+        assertTrue(loaded.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        
+        assertEquals(Arrays.asList("row 5", "row 150", "row 320", "row 151"), result.get());
+        // Only the missing blocks are read, in order, seeking from the known tail
+        assertEquals(Arrays.asList(0, 100, 300), source.loadOffsets());
+        assertEquals(Arrays.asList(null, "row 99", null), source.loadPrevious());
+        
+        // Cached rows are handed over right away
+        List<List<String>> immediate = new ArrayList<>();
+        onEdt(() -> {
+            model.loadRows(new int[] {1, 2}, immediate::add);
+            return null;
+        });
+        assertEquals(Collections.singletonList(Arrays.asList("row 1", "row 2")), immediate);
+    }
+    
+    private static PagedTableModel<String> newModel() {
+        return new PagedTableModel<>(new String[] {"Value"}, null, (row, column) -> row, BLOCK_SIZE, 8);
+    }
+    
+    private static void setSourceAndWait(PagedTableModel<String> model, FakeSource source) throws Exception {
+        CountDownLatch counted = new CountDownLatch(1);
+        onEdt(() -> {
+            model.setRefreshListener(counted::countDown);
+            model.setSource(source);
+            return null;
+        });
+        assertTrue(counted.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), "row count was not loaded");
+    }
+    
+    private static void awaitRow(PagedTableModel<String> model, int row) throws Exception {
+        awaitEdt(() -> model.getRow(row) != null, "row " + row + " was not loaded");
+    }
+    
+    private static void awaitRowCount(PagedTableModel<String> model, int rowCount) throws Exception {
+        awaitEdt(() -> model.getRowCount() == rowCount, "row count did not become " + rowCount);
+    }
+    
+    private static void awaitEdt(Supplier<Boolean> condition, String message) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!onEdt(condition)) {
+            if (System.currentTimeMillis() > deadline) {
+                fail(message);
+            }
+            Thread.sleep(10);
+        }
+    }
+    
+    /**
+     * Let completion callbacks of finished workers reach the EDT and run
+     */
+    private static void settleEdt() throws Exception {
+        Thread.sleep(200);
+        onEdt(() -> null);
+    }
+    
+    private static <V> V onEdt(Supplier<V> action) throws Exception {
+        AtomicReference<V> value = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> value.set(action.get()));
+        return value.get();
+    }
+    
+    /**
+     * Rows "prefix i" in a list that can shrink between count and load
+     */
+    private static class FakeSource implements PagedTableModel.RowSource<String> {
+        private final List<String> rows = new ArrayList<>();
+        private final List<Integer> loadOffsets = new ArrayList<>();
+        private final List<String> loadPrevious = new ArrayList<>();
+        private final CountDownLatch loadStarted = new CountDownLatch(1);
+        private final CountDownLatch loadFinished = new CountDownLatch(1);
+        private volatile CountDownLatch gate;
+        
+        private FakeSource(String prefix, int count) {
+            for (int i = 0; i < count; i++) {
+                rows.add(prefix + " " + i);
+            }
+        }
+        
+        synchronized void removeFrom(int index) {
+            rows.subList(index, rows.size()).clear();
+        }
+        
+        /**
+         * Hold loads until the returned latch is released
+         */
+        CountDownLatch blockLoads() {
+            gate = new CountDownLatch(1);
+            return gate;
+        }
+        
+        synchronized List<Integer> loadOffsets() {
+            return new ArrayList<>(loadOffsets);
+        }
+        
+        synchronized List<String> loadPrevious() {
+            return new ArrayList<>(loadPrevious);
+        }
+        
+        @Override
+        public synchronized int count() {
+            return rows.size();
+        }
+        
+        @Override
+        public List<String> load(int offset, int limit, String previous) {
+            loadStarted.countDown();
+            CountDownLatch currentGate = gate;
+            if (currentGate != null) {
+                try {
+                    currentGate.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            try {
+                synchronized (this) {
+                    loadOffsets.add(offset);
+                    loadPrevious.add(previous);
+                    int end = Math.min(offset + limit, rows.size());
+                    return offset < end ? new ArrayList<>(rows.subList(offset, end)) : new ArrayList<>();
+                }
+            } finally {
+                loadFinished.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.aidsync.util;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Migrated SQLite database in a temp directory for DAO and service tests,
+ * with small helpers for fixtures and raw queries
+ */
+public final class TestDatabase {
+    
+    private TestDatabase() {
+    }
+    
+    /**
+     * Point DatabaseManager at a fresh file in dir and apply all migrations
+     */
+    public static void open(Path dir) {
+        DatabaseManager.close();
+        DatabaseManager.configureDatabasePath(dir.resolve("aidsync-test.db").toString());
+        DatabaseManager.initialize();
+    }
+    
+    public static void close() {
+        DatabaseManager.close();
+    }
+    
+    /**
+     * Id of the admin user created by the migrations
+     */
+    public static int adminUserId() throws SQLException {
+        return queryInt("SELECT id FROM users WHERE username = 'admin'");
+    }
+    
+    public static int insertBeneficiary(String beneficiaryId, String fullName, String barangay) throws SQLException {
+        return insert("INSERT INTO beneficiaries (beneficiary_id, full_name, barangay, purok, family_size) " +
+            "VALUES (?, ?, ?, 'Purok 1', 4)", beneficiaryId, fullName, barangay);
+    }
+    
+    public static int insertInventoryItem(String itemName, int quantity) throws SQLException {
+        return insert("INSERT INTO inventory (item_name, quantity) VALUES (?, ?)", itemName, quantity);
+    }
+    
+    public static int update(String sql, Object... params) throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bind(pstmt, params);
+            return pstmt.executeUpdate();
+        }
+    }
+    
+    public static int queryInt(String sql, Object... params) throws SQLException {
+        List<List<Object>> rows = query(sql, params);
+        if (rows.isEmpty() || rows.get(0).get(0) == null) {
+            throw new SQLException("No value for: " + sql);
+        }
+        return ((Number) rows.get(0).get(0)).intValue();
+    }
+    
+    /**
+     * All rows of a query, each as its column values
+     */
+    public static List<List<Object>> query(String sql, Object... params) throws SQLException {
+        List<List<Object>> rows = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bind(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                while (rs.next()) {
+                    List<Object> row = new ArrayList<>();
+                    for (int i = 1; i <= meta.getColumnCount(); i++) {
+                        row.add(rs.getObject(i));
+                    }
+                    rows.add(row);
+                }
+            }
+        }
+        return rows;
+    }
+    
+    private static int insert(String sql, Object... params) throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bind(pstmt, params);
+            pstmt.executeUpdate();
+        }
+        return queryInt("SELECT last_insert_rowid()");
+    }
+    
+    private static void bind(PreparedStatement pstmt, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            pstmt.setObject(i + 1, params[i]);
+        }
+    }
+}